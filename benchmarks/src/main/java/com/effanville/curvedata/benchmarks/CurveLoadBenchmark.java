@@ -0,0 +1,106 @@
+package com.effanville.curvedata.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.effanville.curvedata.Curve;
+import com.effanville.curvedata.CurveGenerator;
+import com.effanville.curvedata.IO.CurveBinaryReader;
+import com.effanville.curvedata.IO.CurveBinaryWriter;
+import com.effanville.curvedata.IO.CurveCsvReader;
+import com.effanville.curvedata.IO.CurveCsvWriter;
+import com.effanville.curvedata.IO.CurveDirectoryLoader;
+import com.effanville.curvedata.IO.CurveLoadResult;
+import com.effanville.curvedata.IO.MappedCurveSet;
+
+/**
+ * Measures loading a universe of curve files, at several bucket widths and universe sizes, from
+ * csv one file at a time, from csv in parallel, and from a mapped binary curve set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurveLoadBenchmark {
+    @Param({"300", "60", "10"})
+    public int bucketSeconds;
+
+    @Param({"100", "1000"})
+    public int universeSize;
+
+    private Path directory;
+    private Map<String, String> files;
+    private String binaryFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("curve-load-benchmark");
+        files = new LinkedHashMap<>();
+        List<Curve> curves = new ArrayList<>(universeSize);
+        CurveGenerator generator = CurveGenerator.hongKong(Duration.ofSeconds(bucketSeconds));
+        CurveCsvWriter writer = new CurveCsvWriter();
+        for (int index = 0; index < universeSize; index++) {
+            String symbol = index + " HK";
+            Curve curve = generator.generate(symbol);
+            Path file = directory.resolve(index + ".csv");
+            writer.writeCurve(curve, file.toString());
+            files.put(symbol, file.toString());
+            curves.add(curve);
+        }
+
+        binaryFile = directory.resolve("curves.bin").toString();
+        new CurveBinaryWriter().writeCurves(curves, binaryFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void readCurveSequential(Blackhole blackhole) {
+        CurveCsvReader reader = new CurveCsvReader();
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            blackhole.consume(reader.readCurve(file.getKey(), file.getValue()));
+        }
+    }
+
+    @Benchmark
+    public CurveLoadResult loadParallel() {
+        return CurveDirectoryLoader.Of().load(files);
+    }
+
+    @Benchmark
+    public void readMappedCurveSet(Blackhole blackhole) throws IOException {
+        MappedCurveSet curves = new CurveBinaryReader().readCurveSet(binaryFile);
+        for (int index = 0; index < curves.size(); index++) {
+            blackhole.consume(curves.get(index));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.effanville.curvedata.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.effanville.curvedata.Curve;
+import com.effanville.curvedata.CurveData;
+import com.effanville.curvedata.CurveGenerator;
+import com.effanville.curvedata.CurveMetrics;
+import com.effanville.curvedata.InstrumentedCurve;
+import com.effanville.curvedata.PackedCurve;
+import com.effanville.curvedata.RelativeVolumeEvaluator;
+
+/**
+ * Measures the query and validation hot paths of a single curve, at several bucket widths and
+ * for each curve implementation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveQueryBenchmark {
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"300", "60", "10"})
+    public int bucketSeconds;
+
+    @Param({"CurveData", "PackedCurve", "InstrumentedCurve"})
+    public String implementation;
+
+    private Curve curve;
+    private LocalTime[] starts;
+    private LocalTime[] ends;
+    private LocalTime[] times;
+    private int[] sortedSeconds;
+    private double[] volumes;
+    private LocalTime windowStart;
+    private LocalTime windowEnd;
+    private LocalTime[] ticks;
+    private RelativeVolumeEvaluator evaluator;
+    private int next;
+
+    @Setup
+    public void setup() {
+        CurveData curveData =
+                CurveGenerator.hongKong(Duration.ofSeconds(bucketSeconds)).generate("1 HK");
+        if ("PackedCurve".equals(implementation)) {
+            curve = PackedCurve.Of(curveData);
+        } else if ("InstrumentedCurve".equals(implementation)) {
+            curve = InstrumentedCurve.Of(curveData, CurveMetrics.Of(1024));
+        } else {
+            curve = curveData;
+        }
+
+        Random random = new Random(42);
+        starts = new LocalTime[QUERY_COUNT];
+        ends = new LocalTime[QUERY_COUNT];
+        times = new LocalTime[QUERY_COUNT];
+        for (int index = 0; index < QUERY_COUNT; index++) {
+            int start = 9 * 3600 + random.nextInt(7 * 3600);
+            int end = start + random.nextInt(16 * 3600 + 600 - start) + 1;
+            starts[index] = LocalTime.ofSecondOfDay(start);
+            ends[index] = LocalTime.ofSecondOfDay(end);
+            times[index] = LocalTime.ofSecondOfDay(start + random.nextInt(end - start + 1));
+        }
+
+        sortedSeconds = new int[400];
+        for (int index = 0; index < sortedSeconds.length; index++) {
+            sortedSeconds[index] = 9 * 3600 + index * 64;
+        }
+        volumes = new double[sortedSeconds.length];
+
+        // ticks moving forward through a fixed order window, as evaluated by a live order
+        windowStart = LocalTime.parse("09:30");
+        windowEnd = LocalTime.parse("16:00");
+        evaluator = RelativeVolumeEvaluator.Of(curve, windowStart, windowEnd);
+        ticks = new LocalTime[QUERY_COUNT];
+        long tickNanos = windowStart.toNanoOfDay();
+        long tickLength = (windowEnd.toNanoOfDay() - tickNanos) / QUERY_COUNT;
+        for (int index = 0; index < QUERY_COUNT; index++) {
+            ticks[index] = LocalTime.ofNanoOfDay(tickNanos + index * tickLength);
+        }
+    }
+
+    @Benchmark
+    public double getVolume() {
+        int index = next++ & (QUERY_COUNT - 1);
+        return curve.getVolume(starts[index], ends[index]);
+    }
+
+    @Benchmark
+    public double getRelativeVolume() {
+        int index = next++ & (QUERY_COUNT - 1);
+        return curve.getRelativeVolume(starts[index], ends[index], times[index]);
+    }
+
+    @Benchmark
+    public double getRelativeVolumeFixedWindow() {
+        int index = next++ & (QUERY_COUNT - 1);
+        return curve.getRelativeVolume(windowStart, windowEnd, ticks[index]);
+    }
+
+    @Benchmark
+    public double relativeVolumeEvaluator() {
+        int index = next++ & (QUERY_COUNT - 1);
+        return evaluator.relativeVolumeAt(ticks[index]);
+    }
+
+    @Benchmark
+    public double[] getCumulativeVolumes() {
+        curve.getCumulativeVolumes(sortedSeconds, volumes);
+        return volumes;
+    }
+
+    @Benchmark
+    public Boolean isValid() {
+        return curve.isValid();
+    }
+}
@@ -0,0 +1,64 @@
+package com.effanville.curvedata.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.effanville.curvedata.CurveData;
+import com.effanville.curvedata.CurveGenerator;
+import com.effanville.curvedata.CurveUniverse;
+
+/**
+ * Measures a single time window queried across a whole universe of symbols, either curve by curve
+ * or through a {@link CurveUniverse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveUniverseBenchmark {
+    private static final LocalTime START = LocalTime.parse("15:50");
+    private static final LocalTime END = LocalTime.parse("16:10");
+
+    @Param({"5000", "50000"})
+    public int symbolCount;
+
+    private List<CurveData> curves;
+    private CurveUniverse universe;
+    private double[] volumes;
+
+    @Setup
+    public void setup() {
+        curves = CurveGenerator.hongKong(Duration.ofMinutes(5)).withVariation(0.2, 42)
+                .generate("HK", symbolCount);
+        universe = CurveUniverse.Of(curves);
+        volumes = new double[symbolCount];
+    }
+
+    @Benchmark
+    public double[] curveLoop() {
+        for (int index = 0; index < volumes.length; index++) {
+            volumes[index] = curves.get(index).getVolume(START, END);
+        }
+        return volumes;
+    }
+
+    @Benchmark
+    public double[] universe() {
+        universe.getVolumesNanos(START.toNanoOfDay(), END.toNanoOfDay(), volumes);
+        return volumes;
+    }
+}
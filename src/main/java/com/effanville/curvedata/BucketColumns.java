@@ -0,0 +1,420 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+
+/**
+ * Read access to the buckets of a curve held column by column, giving the start and end of each
+ * bucket as nanoseconds, its volume, and the cumulative volume of the curve before it. Whether the
+ * columns are held in arrays or read from a mapped file, the search for the bucket containing a
+ * time and the interpolation within that bucket are implemented once here, so every such curve
+ * answers queries with exactly the same arithmetic.
+ * <p>
+ * Queries are over a range of the buckets, from the first index given up until the last, so that
+ * the buckets of several curves can be held one after another. The buckets of a range are sorted
+ * by start time. When the buckets are ordered, so that they do not overlap and each start before
+ * they end, the bucket containing a time is found by binary search. Otherwise every bucket of the
+ * range is visited, as the volume at a time could then come from more than one bucket.
+ * <p>
+ * This is for use by implementations of {@link Curve}.
+ */
+public abstract class BucketColumns {
+    private static final int UNKNOWN = 0;
+    private static final int NONE = 1;
+    private static final int SOME = 2;
+
+    private final boolean Ordered;
+    /**
+     * Whether any volume held is negative, found on first use.
+     */
+    private volatile int NegativeVolumes = UNKNOWN;
+
+    protected BucketColumns(boolean ordered) {
+        Ordered = ordered;
+    }
+
+    /**
+     * Creates the columns for buckets with times held as seconds. The volume before each bucket is
+     * the cumulative volume of the buckets of its curve before it.
+     */
+    static BucketColumns ofSeconds(int[] startSeconds, int[] endSeconds, double[] volumes,
+            double[] volumesBefore, boolean ordered) {
+        return new SecondsColumns(startSeconds, endSeconds, volumes, volumesBefore, ordered);
+    }
+
+    /**
+     * Creates the columns for buckets with times held as nanoseconds. The volume before each
+     * bucket is the cumulative volume of the buckets of its curve before it.
+     */
+    static BucketColumns ofNanos(long[] startNanos, long[] endNanos, double[] volumes,
+            double[] volumesBefore, boolean ordered) {
+        return new NanosColumns(startNanos, endNanos, volumes, volumesBefore, ordered);
+    }
+
+    /**
+     * Returns the number of buckets held, over every range.
+     */
+    protected abstract int size();
+
+    protected abstract long startNanos(int index);
+
+    protected abstract long endNanos(int index);
+
+    protected abstract double volume(int index);
+
+    /**
+     * Returns the cumulative volume of the buckets of the curve before the bucket at the index.
+     */
+    protected abstract double volumeBefore(int index);
+
+    /**
+     * Returns whether the buckets are ordered, so that the bucket containing a time can be found
+     * by binary search.
+     */
+    public final boolean isOrdered() {
+        return Ordered;
+    }
+
+    /**
+     * Returns the volume of the range of buckets between the two times, in the same way as
+     * {@link Curve#getVolumeNanos(long, long)}.
+     */
+    public final double volume(int from, int to, long startNanos, long endNanos) {
+        if (isOutside(from, to, startNanos, endNanos))
+            return 0.0;
+
+        return cumulativeVolume(from, to, endNanos) - cumulativeVolume(from, to, startNanos);
+    }
+
+    /**
+     * Returns the volume of the range of buckets at the time relative to the volume between the
+     * start and end, in the same way as {@link Curve#getRelativeVolumeNanos(long, long, long)}.
+     */
+    public final double relativeVolume(int from, int to, long startNanos, long endNanos,
+            long nanos) {
+        if (isOutside(from, to, startNanos, endNanos))
+            return 0.0;
+
+        if (nanos < startNanos || nanos > endNanos)
+            return 0.0;
+
+        double startVolume = cumulativeVolume(from, to, startNanos);
+        double timeVolume = cumulativeVolume(from, to, nanos);
+        double endVolume = cumulativeVolume(from, to, endNanos);
+        return 100 * (timeVolume - startVolume) / (endVolume - startVolume);
+    }
+
+    /**
+     * Returns whether the times are out of order, or do not overlap the range of buckets from the
+     * start of its first bucket until the end of its last.
+     */
+    public final boolean isOutside(int from, int to, long startNanos, long endNanos) {
+        if (to <= from)
+            return true;
+
+        if (endNanos < startNanos)
+            return true;
+
+        if (endNanos < startNanos(from))
+            return true;
+
+        return startNanos > endNanos(to - 1);
+    }
+
+    /**
+     * Returns the cumulative volume of the range of buckets up until the time given.
+     */
+    public final double cumulativeVolume(int from, int to, long nanos) {
+        if (!Ordered) {
+            double volume = 0;
+            for (int index = from; index < to; index++) {
+                volume = addBucketVolume(index, nanos, volume);
+            }
+
+            return volume;
+        }
+
+        // The bucket containing the time is the last to start strictly before it.
+        int index = countStartsBefore(from, to, nanos) - 1;
+        return index < from ? 0 : cumulativeVolumeInBucket(index, nanos);
+    }
+
+    /**
+     * Returns the cumulative volume up until the time given, which is known to be after the start
+     * of the bucket at the index and, when there is a next bucket, no later than its start.
+     */
+    public final double cumulativeVolumeInBucket(int index, long nanos) {
+        return addBucketVolume(index, nanos, volumeBefore(index));
+    }
+
+    /**
+     * Fills the cumulative volume of the range of buckets up until each of the seconds of the day
+     * given, which must be sorted. When the buckets are ordered this is a single forward pass over
+     * the buckets, advancing to the bucket containing each time in turn.
+     */
+    public final void cumulativeVolumes(int from, int to, int[] secondsOfDay, double[] volumes) {
+        int bucket = from - 1;
+        for (int index = 0; index < secondsOfDay.length; index++) {
+            long nanos = secondsOfDay[index] * CurveIndex.NANOS_PER_SECOND;
+            if (!Ordered) {
+                volumes[index] = cumulativeVolume(from, to, nanos);
+                continue;
+            }
+
+            while (bucket + 1 < to && startNanos(bucket + 1) < nanos) {
+                bucket++;
+            }
+            volumes[index] = bucket < from ? 0 : cumulativeVolumeInBucket(bucket, nanos);
+        }
+    }
+
+    /**
+     * Returns the index of the first bucket of the range starting at or after the time given, so
+     * the number of buckets of the range starting strictly before it is this less the first index.
+     */
+    public final int countStartsBefore(int from, int to, long nanos) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startNanos(mid) < nanos) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns the earliest nanosecond at which the volume of the range of buckets since the start
+     * time given reaches the volume given, or -1 if it is never reached. Only to be used when the
+     * buckets are ordered.
+     * <p>
+     * The time found is the first nanosecond at which {@link #cumulativeVolume(int, int, long)}
+     * reaches the volume. The bucket reaching the volume is found by binary search over the
+     * cumulative volumes, or when a bucket has a negative volume, so the cumulative volume can
+     * fall, by walking forward from the bucket containing the start.
+     */
+    public final long nanosForVolume(int from, int to, long startNanos, double volume) {
+        if (volume <= 0) {
+            return startNanos;
+        }
+
+        double startVolume = cumulativeVolume(from, to, startNanos);
+        int bucket;
+        if (hasNegativeVolume()) {
+            bucket = firstBucketFrom(from, to, startNanos);
+            while (bucket < to && volumeUntilEnd(bucket) - startVolume < volume) {
+                bucket++;
+            }
+        } else {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (volumeUntilEnd(mid) - startVolume < volume) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            bucket = low;
+        }
+
+        return bucket == to ? -1 : nanosInBucket(bucket, startVolume, volume);
+    }
+
+    /**
+     * Returns the time of the day at which each of the volumes, which must be sorted, is reached
+     * from the start time given, in a single forward pass over the range of buckets. Volumes never
+     * reached are given a null time. Only to be used when the buckets are ordered and hold times
+     * of the day.
+     */
+    public final LocalTime[] timesOfDayForVolumes(int from, int to, LocalTime start,
+            double[] volumes) {
+        long startNanos = start.toNanoOfDay();
+        double startVolume = cumulativeVolume(from, to, startNanos);
+        LocalTime[] times = new LocalTime[volumes.length];
+        int bucket = firstBucketFrom(from, to, startNanos);
+        for (int index = 0; index < volumes.length; index++) {
+            double volume = volumes[index];
+            if (volume <= 0) {
+                times[index] = start;
+                continue;
+            }
+
+            while (bucket < to && volumeUntilEnd(bucket) - startVolume < volume) {
+                bucket++;
+            }
+            if (bucket < to) {
+                times[index] = LocalTime.ofNanoOfDay(nanosInBucket(bucket, startVolume, volume));
+            }
+        }
+
+        return times;
+    }
+
+    /**
+     * Returns the last bucket of the range starting before the time given, or the first bucket
+     * if there is none, so that every earlier bucket ends no later than the time. When a bucket
+     * has a negative volume, the cumulative volume at the end of an earlier bucket can be above
+     * that at the time, so the search for a volume must start from here.
+     */
+    private int firstBucketFrom(int from, int to, long nanos) {
+        return Math.max(from, countStartsBefore(from, to, nanos) - 1);
+    }
+
+    /**
+     * Returns the cumulative volume of the curve at the end of the bucket at the index, exactly
+     * as {@link #cumulativeVolumeInBucket(int, long)} gives it at the end of the bucket.
+     */
+    private double volumeUntilEnd(int index) {
+        return volumeBefore(index) + volume(index);
+    }
+
+    /**
+     * Returns the earliest nanosecond within the bucket at which the volume since the start volume
+     * reaches the volume given, where the bucket is known to reach the volume by its end. The
+     * nanoseconds into the bucket are bisected, so the volume is reached exactly as
+     * {@link #cumulativeVolumeInBucket(int, long)} calculates it, in at most 47 steps for a bucket
+     * within a day however far rounding moves the time from the fraction of the bucket needed.
+     */
+    private long nanosInBucket(int index, double startVolume, double volume) {
+        long startNanos = startNanos(index);
+        long length = endNanos(index) - startNanos;
+        if (length == 0) {
+            // All of the volume of an empty bucket is only counted after its end.
+            return startNanos + 1;
+        }
+
+        // The whole bucket reaches the volume, so the earliest nanosecond is in [1, length].
+        long low = 1;
+        long high = length;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (cumulativeVolumeInBucket(index, startNanos + mid) - startVolume >= volume) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return startNanos + low;
+    }
+
+    private boolean hasNegativeVolume() {
+        int negativeVolumes = NegativeVolumes;
+        if (negativeVolumes == UNKNOWN) {
+            negativeVolumes = NONE;
+            for (int index = 0; index < size(); index++) {
+                if (!(volume(index) >= 0)) {
+                    negativeVolumes = SOME;
+                    break;
+                }
+            }
+            NegativeVolumes = negativeVolumes;
+        }
+
+        return negativeVolumes == SOME;
+    }
+
+    /**
+     * Adds the fraction of volume in the bucket at the index up until the time given, interpolating
+     * linearly in nanoseconds within the bucket.
+     */
+    private double addBucketVolume(int index, long nanos, double timeVolume) {
+        long startNanos = startNanos(index);
+        long endNanos = endNanos(index);
+        if (nanos > endNanos) {
+            timeVolume += volume(index);
+        } else if (nanos > startNanos) {
+            double volumeTime = (double) (nanos - startNanos) / (double) (endNanos - startNanos);
+            timeVolume += volumeTime * volume(index);
+        }
+
+        return timeVolume;
+    }
+
+    private static final class SecondsColumns extends BucketColumns {
+        private final int[] StartSeconds;
+        private final int[] EndSeconds;
+        private final double[] Volumes;
+        private final double[] VolumesBefore;
+
+        private SecondsColumns(int[] startSeconds, int[] endSeconds, double[] volumes,
+                double[] volumesBefore, boolean ordered) {
+            super(ordered);
+            StartSeconds = startSeconds;
+            EndSeconds = endSeconds;
+            Volumes = volumes;
+            VolumesBefore = volumesBefore;
+        }
+
+        @Override
+        protected int size() {
+            return Volumes.length;
+        }
+
+        @Override
+        protected long startNanos(int index) {
+            return StartSeconds[index] * CurveIndex.NANOS_PER_SECOND;
+        }
+
+        @Override
+        protected long endNanos(int index) {
+            return EndSeconds[index] * CurveIndex.NANOS_PER_SECOND;
+        }
+
+        @Override
+        protected double volume(int index) {
+            return Volumes[index];
+        }
+
+        @Override
+        protected double volumeBefore(int index) {
+            return VolumesBefore[index];
+        }
+    }
+
+    private static final class NanosColumns extends BucketColumns {
+        private final long[] StartNanos;
+        private final long[] EndNanos;
+        private final double[] Volumes;
+        private final double[] VolumesBefore;
+
+        private NanosColumns(long[] startNanos, long[] endNanos, double[] volumes,
+                double[] volumesBefore, boolean ordered) {
+            super(ordered);
+            StartNanos = startNanos;
+            EndNanos = endNanos;
+            Volumes = volumes;
+            VolumesBefore = volumesBefore;
+        }
+
+        @Override
+        protected int size() {
+            return Volumes.length;
+        }
+
+        @Override
+        protected long startNanos(int index) {
+            return StartNanos[index];
+        }
+
+        @Override
+        protected long endNanos(int index) {
+            return EndNanos[index];
+        }
+
+        @Override
+        protected double volume(int index) {
+            return Volumes[index];
+        }
+
+        @Override
+        protected double volumeBefore(int index) {
+            return VolumesBefore[index];
+        }
+    }
+}
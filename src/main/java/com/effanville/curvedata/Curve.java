@@ -1,5 +1,7 @@
 package com.effanville.curvedata;
 
+import static com.effanville.curvedata.CurveIndex.NANOS_PER_SECOND;
+import static com.effanville.curvedata.CurveIndex.SECONDS_PER_DAY;
 import java.time.LocalTime;
 
 /**
@@ -22,13 +24,64 @@ public interface Curve {
      */
     int numberBuckets();
 
+    /**
+     * Returns the bucket at the index given, where the buckets are sorted by start time.
+     * 
+     * @param index The index of the bucket, from 0 up to the number of buckets
+     * @return The bucket at the index.
+     */
+    CurveBucket getBucket(int index);
+
     /**
      * Add a bucket into the buckets of the curve.
      * 
      * @param bucket The bucket to add to the curve
+     * @throws UnsupportedOperationException if the curve is immutable
      */
     void addBucket(CurveBucket bucket);
 
+    /**
+     * Returns a copy of the curve with the volume of the bucket at the index replaced, leaving
+     * this curve unchanged so that the copy can be published to readers in place of this curve.
+     * 
+     * @param index  The index of the bucket to change
+     * @param volume The new volume of the bucket
+     * @return The updated curve.
+     */
+    default Curve withBucketVolume(int index, double volume) {
+        CurveData.Builder builder = CurveData.Builder.Of(getSymbol());
+        for (int bucketIndex = 0; bucketIndex < numberBuckets(); bucketIndex++) {
+            CurveBucket bucket = getBucket(bucketIndex);
+            builder.addBucket(bucketIndex != index ? bucket
+                    : CurveBucket.Of(bucket.getStartTime(), bucket.getEndTime(), volume,
+                            bucket.getType()));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns a copy of the curve with the volume of every bucket starting at or after the time
+     * multiplied by the factor, leaving this curve unchanged so that the copy can be published to
+     * readers in place of this curve. This re-weights the remainder of the day, e.g. from the
+     * volume realised so far.
+     * 
+     * @param time   The time from which buckets are scaled
+     * @param factor The factor to multiply the volumes by
+     * @return The updated curve.
+     */
+    default Curve withVolumesScaledFrom(LocalTime time, double factor) {
+        CurveData.Builder builder = CurveData.Builder.Of(getSymbol());
+        for (int index = 0; index < numberBuckets(); index++) {
+            CurveBucket bucket = getBucket(index);
+            builder.addBucket(bucket.getStartTime().isBefore(time) ? bucket
+                    : CurveBucket.Of(bucket.getStartTime(), bucket.getEndTime(),
+                            bucket.getPercentDayVolume() * factor, bucket.getType()));
+        }
+
+        return builder.build();
+    }
+
     /**
      * Validates and checks if the curve is a valid curve.
      * 
@@ -56,4 +109,211 @@ public interface Curve {
      * @return the volume between the start and end times
      */
     double getRelativeVolume(LocalTime start, LocalTime end, LocalTime time);
+
+    /**
+     * Returns the earliest time at which the volume since the start time reaches the volume given,
+     * the inverse of {@link #getVolume(LocalTime, LocalTime)}. The volume is a percentage of the
+     * volume of the day, so the time at which X% of the day has traded is found from
+     * <code>LocalTime.MIN</code>, and X% of a window from X% of the volume of the window.
+     * <p>
+     * The default implementation bisects the times of the day with calls to
+     * {@link #getVolume(LocalTime, LocalTime)}, while implementations with a cumulative profile of
+     * the curve find the bucket by binary search.
+     * 
+     * @param start  the starting instant to calculate volume from
+     * @param volume the volume to reach, as a percentage of the volume of the day
+     * @return the time the volume is reached, or null if the curve never reaches it
+     */
+    default LocalTime getTimeForVolume(LocalTime start, double volume) {
+        if (volume <= 0) {
+            return start;
+        }
+        if (getVolume(start, LocalTime.MAX) < volume) {
+            return null;
+        }
+
+        long low = start.toNanoOfDay();
+        long high = LocalTime.MAX.toNanoOfDay();
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (getVolume(start, LocalTime.ofNanoOfDay(mid)) >= volume) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return LocalTime.ofNanoOfDay(low);
+    }
+
+    /**
+     * Splits the volume between the start and end times into slices of equal volume, returning the
+     * time at which each slice ends. The last slice ends when all of the volume of the window has
+     * traded, which is before the end time if the curve has no volume at the end of the window.
+     * 
+     * @param start  the starting instant of the window
+     * @param end    the ending instant of the window
+     * @param slices the number of slices to split the window into
+     * @return the end time of each slice
+     * @throws IllegalArgumentException if the number of slices is not positive
+     */
+    default LocalTime[] getEqualVolumeTimes(LocalTime start, LocalTime end, int slices) {
+        double[] volumes = equalVolumeSlices(getVolume(start, end), slices);
+        LocalTime[] times = new LocalTime[slices];
+        for (int index = 0; index < slices; index++) {
+            times[index] = getTimeForVolume(start, volumes[index]);
+        }
+
+        return times;
+    }
+
+    /**
+     * Returns the cumulative volume at the end of each of a number of slices of equal volume, for
+     * use by implementations of {@link #getEqualVolumeTimes(LocalTime, LocalTime, int)}.
+     */
+    static double[] equalVolumeSlices(double volume, int slices) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("Expected at least one slice but was " + slices);
+        }
+
+        double[] volumes = new double[slices];
+        for (int index = 0; index < slices - 1; index++) {
+            volumes[index] = volume * (index + 1) / slices;
+        }
+        // The last slice ends at exactly the volume of the window.
+        volumes[slices - 1] = volume;
+        return volumes;
+    }
+
+    /**
+     * Returns the volume of the curve split by {@link BucketType}. Implementations compute the
+     * sessions once and return the same view until the curve changes.
+     * 
+     * @return The sessions of the curve.
+     */
+    default CurveSessions getSessions() {
+        return CurveSessions.Of(this);
+    }
+
+    /**
+     * Returns the total volume of the buckets of the type given.
+     * 
+     * @param type the type of bucket to total the volume of
+     * @return the volume of the session, or 0 if the curve has no such buckets
+     */
+    default double getSessionVolume(BucketType type) {
+        return getSessions().getSessionVolume(type);
+    }
+
+    /**
+     * Returns the volume between the two times, of only the buckets of the type given.
+     * 
+     * @param start the starting instant to calculate volume from
+     * @param end   the ending instant to calculate volume until
+     * @param type  the type of bucket to calculate volume of
+     * @return the volume of the session between the start and end times
+     */
+    default double getVolume(LocalTime start, LocalTime end, BucketType type) {
+        return getSessions().getVolume(start, end, type);
+    }
+
+    /**
+     * Returns the volume between the two times, given as seconds of the day, without creating any
+     * objects.
+     * 
+     * @param startSecondOfDay the second of the day to calculate volume from
+     * @param endSecondOfDay   the second of the day to calculate volume until
+     * @return the volume between the start and end times
+     */
+    default double getVolume(int startSecondOfDay, int endSecondOfDay) {
+        return getVolumeNanos(startSecondOfDay * NANOS_PER_SECOND,
+                endSecondOfDay * NANOS_PER_SECOND);
+    }
+
+    /**
+     * Returns the volume between the two times, given as nanoseconds of the day as by
+     * {@link LocalTime#toNanoOfDay()}. Implementations answer this without creating any objects,
+     * while the default implementation creates the times to call
+     * {@link #getVolume(LocalTime, LocalTime)}.
+     * 
+     * @param startNanoOfDay the nanosecond of the day to calculate volume from
+     * @param endNanoOfDay   the nanosecond of the day to calculate volume until
+     * @return the volume between the start and end times
+     */
+    default double getVolumeNanos(long startNanoOfDay, long endNanoOfDay) {
+        return getVolume(LocalTime.ofNanoOfDay(startNanoOfDay),
+                LocalTime.ofNanoOfDay(endNanoOfDay));
+    }
+
+    /**
+     * Returns the normalised volume at the time relative to the volume between the start and end
+     * time, with all times given as seconds of the day.
+     * 
+     * @param startSecondOfDay the second of the day to calculate volume from
+     * @param endSecondOfDay   the second of the day to calculate volume until
+     * @param secondOfDay      the second of the day to calculate the relative volume
+     * @return the volume at the time relative to the volume between the start and end times
+     */
+    default double getRelativeVolume(int startSecondOfDay, int endSecondOfDay, int secondOfDay) {
+        return getRelativeVolumeNanos(startSecondOfDay * NANOS_PER_SECOND,
+                endSecondOfDay * NANOS_PER_SECOND, secondOfDay * NANOS_PER_SECOND);
+    }
+
+    /**
+     * Returns the normalised volume at the time relative to the volume between the start and end
+     * time, with all times given as nanoseconds of the day.
+     * 
+     * @param startNanoOfDay the nanosecond of the day to calculate volume from
+     * @param endNanoOfDay   the nanosecond of the day to calculate volume until
+     * @param nanoOfDay      the nanosecond of the day to calculate the relative volume
+     * @return the volume at the time relative to the volume between the start and end times
+     */
+    default double getRelativeVolumeNanos(long startNanoOfDay, long endNanoOfDay,
+            long nanoOfDay) {
+        return getRelativeVolume(LocalTime.ofNanoOfDay(startNanoOfDay),
+                LocalTime.ofNanoOfDay(endNanoOfDay), LocalTime.ofNanoOfDay(nanoOfDay));
+    }
+
+    /**
+     * Fills the cumulative volume of the curve, from the start of the day, up until each of the
+     * times given. Each volume is the same as <code>getVolume(LocalTime.MIN, time)</code>, but
+     * implementations answer all of the times in a single pass over the buckets of the curve.
+     * 
+     * @param secondsOfDay the times to calculate the cumulative volume at, as seconds of the day
+     *                     sorted in ascending order
+     * @param volumes      the array to fill with the cumulative volume at each time, at least as
+     *                     long as the times
+     * @throws IllegalArgumentException if the times are not sorted, are not seconds of the day
+     *                                  from 0 to 86399, or there are fewer volumes than times
+     */
+    default void getCumulativeVolumes(int[] secondsOfDay, double[] volumes) {
+        checkCumulativeVolumeArguments(secondsOfDay, volumes);
+        for (int index = 0; index < secondsOfDay.length; index++) {
+            volumes[index] = getVolumeNanos(0, secondsOfDay[index] * NANOS_PER_SECOND);
+        }
+    }
+
+    /**
+     * Checks the arguments of {@link #getCumulativeVolumes(int[], double[])}, for use by
+     * implementations of that method.
+     */
+    static void checkCumulativeVolumeArguments(int[] secondsOfDay, double[] volumes) {
+        if (volumes.length < secondsOfDay.length) {
+            throw new IllegalArgumentException("Expected at least " + secondsOfDay.length
+                    + " volumes but was given " + volumes.length);
+        }
+        for (int index = 1; index < secondsOfDay.length; index++) {
+            if (secondsOfDay[index] < secondsOfDay[index - 1]) {
+                throw new IllegalArgumentException("Times must be sorted, but "
+                        + secondsOfDay[index] + " follows " + secondsOfDay[index - 1]);
+            }
+        }
+        // the times are sorted, so only the first and last can be outside the day
+        int length = secondsOfDay.length;
+        if (length > 0 && (secondsOfDay[0] < 0 || secondsOfDay[length - 1] >= SECONDS_PER_DAY)) {
+            throw new IllegalArgumentException("Times must be seconds of the day from 0 to "
+                    + (SECONDS_PER_DAY - 1) + ", but were from " + secondsOfDay[0] + " to "
+                    + secondsOfDay[length - 1]);
+        }
+    }
 }
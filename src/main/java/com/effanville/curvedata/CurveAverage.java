@@ -0,0 +1,178 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+
+/**
+ * Accumulates a weighted average of daily curves of one symbol onto the buckets of a template
+ * curve, holding only the running total of volume in each bucket so any number of days can be
+ * averaged.
+ * <p>
+ * Curves with the same bucket times as the template add their bucket volumes directly, while any
+ * other curve adds the volume it has within each template bucket, found with a single pass of
+ * {@link Curve#getCumulativeVolumes(int[], double[])}. The average is normalised so that its
+ * volume sums to 100. An average is not thread safe.
+ */
+public final class CurveAverage {
+    private final String Symbol;
+    private final int[] StartSeconds;
+    private final int[] EndSeconds;
+    private final BucketType[] Types;
+    private final double[] Volumes;
+    private final int[] Boundaries;
+    private final double[] BoundaryVolumes;
+    private double TotalWeight;
+    private int NumberCurves;
+
+    private CurveAverage(String symbol, int[] startSeconds, int[] endSeconds, BucketType[] types) {
+        Symbol = symbol;
+        StartSeconds = startSeconds;
+        EndSeconds = endSeconds;
+        Types = types;
+        Volumes = new double[types.length];
+        Boundaries = new int[2 * types.length];
+        for (int index = 0; index < types.length; index++) {
+            Boundaries[2 * index] = startSeconds[index];
+            Boundaries[2 * index + 1] = endSeconds[index];
+        }
+        BoundaryVolumes = new double[Boundaries.length];
+    }
+
+    /**
+     * Creates an empty average with the symbol, bucket times and bucket types of the template. The
+     * template is not added to the average.
+     *
+     * @param template The curve whose buckets the average is made of
+     * @return The empty average.
+     * @throws IllegalArgumentException if the buckets of the template overlap or end before they
+     *             start
+     */
+    public static CurveAverage Of(Curve template) {
+        int length = template.numberBuckets();
+        int[] startSeconds = new int[length];
+        int[] endSeconds = new int[length];
+        BucketType[] types = new BucketType[length];
+        for (int index = 0; index < length; index++) {
+            CurveBucket bucket = template.getBucket(index);
+            startSeconds[index] = bucket.getStartTime().toSecondOfDay();
+            endSeconds[index] = bucket.getEndTime().toSecondOfDay();
+            types[index] = bucket.getType();
+            if (startSeconds[index] > endSeconds[index]
+                    || (index > 0 && endSeconds[index - 1] > startSeconds[index])) {
+                throw new IllegalArgumentException("Curve for " + template.getSymbol()
+                        + " must have ordered buckets to be averaged, but bucket " + index
+                        + " is " + bucket.getStartTime() + "-" + bucket.getEndTime());
+            }
+        }
+
+        return new CurveAverage(template.getSymbol(), startSeconds, endSeconds, types);
+    }
+
+    public String getSymbol() {
+        return Symbol;
+    }
+
+    /**
+     * Returns the number of curves added to the average.
+     */
+    public int numberCurves() {
+        return NumberCurves;
+    }
+
+    /**
+     * Returns the total weight of the curves added, after any scaling.
+     */
+    public double getTotalWeight() {
+        return TotalWeight;
+    }
+
+    /**
+     * Returns whether the curves added have any volume, so that the average can be normalised.
+     */
+    public boolean hasVolume() {
+        return totalVolume() > 0;
+    }
+
+    /**
+     * Adds the volume of the curve, multiplied by the weight, into the average.
+     *
+     * @param curve The curve to add
+     * @param weight The weight of the curve in the average
+     */
+    public void add(Curve curve, double weight) {
+        if (hasTemplateBuckets(curve)) {
+            for (int index = 0; index < Volumes.length; index++) {
+                Volumes[index] += weight * curve.getBucket(index).getPercentDayVolume();
+            }
+        } else {
+            curve.getCumulativeVolumes(Boundaries, BoundaryVolumes);
+            for (int index = 0; index < Volumes.length; index++) {
+                double volume = BoundaryVolumes[2 * index + 1] - BoundaryVolumes[2 * index];
+                Volumes[index] += weight * volume;
+            }
+        }
+
+        TotalWeight += weight;
+        NumberCurves++;
+    }
+
+    /**
+     * Multiplies the weight of every curve added so far by the factor, so that an exponentially
+     * decayed average is built by scaling by the decay before adding each new day.
+     *
+     * @param factor The factor to scale the average by
+     */
+    public void scale(double factor) {
+        for (int index = 0; index < Volumes.length; index++) {
+            Volumes[index] *= factor;
+        }
+        TotalWeight *= factor;
+    }
+
+    /**
+     * Creates the averaged curve, with the volume of each bucket normalised so that the volumes
+     * sum to 100.
+     *
+     * @return The immutable average curve.
+     * @throws IllegalStateException if the curves added have no volume
+     */
+    public CurveData toCurve() {
+        double totalVolume = totalVolume();
+        if (!(totalVolume > 0)) {
+            throw new IllegalStateException("Average for " + Symbol + " has no volume");
+        }
+
+        CurveData.Builder builder = CurveData.Builder.Of(Symbol);
+        for (int index = 0; index < Volumes.length; index++) {
+            builder.addBucket(CurveBucket.Of(LocalTime.ofSecondOfDay(StartSeconds[index]),
+                    LocalTime.ofSecondOfDay(EndSeconds[index]),
+                    100 * Volumes[index] / totalVolume, Types[index]));
+        }
+
+        return builder.build();
+    }
+
+    private double totalVolume() {
+        double totalVolume = 0;
+        for (double volume : Volumes) {
+            totalVolume += volume;
+        }
+
+        return totalVolume;
+    }
+
+    private boolean hasTemplateBuckets(Curve curve) {
+        if (curve.numberBuckets() != Volumes.length) {
+            return false;
+        }
+        for (int index = 0; index < Volumes.length; index++) {
+            CurveBucket bucket = curve.getBucket(index);
+            if (bucket.getStartTime().getNano() != 0 || bucket.getEndTime().getNano() != 0
+                    || bucket.getStartTime().toSecondOfDay() != StartSeconds[index]
+                    || bucket.getEndTime().toSecondOfDay() != EndSeconds[index]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
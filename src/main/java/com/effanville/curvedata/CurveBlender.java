@@ -0,0 +1,94 @@
+package com.effanville.curvedata;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds average curves for a universe of symbols from a history of daily curves, weighting each
+ * day either equally or with an exponential decay so that recent days count for more.
+ * <p>
+ * Days are read one at a time, oldest first, and the curves of each day are added into a
+ * {@link CurveAverage} per symbol in parallel, so only the running averages and the day being
+ * added are held in memory. The first curve seen for a symbol gives the buckets of its average.
+ */
+public final class CurveBlender {
+    private final double Decay;
+
+    private CurveBlender(double decay) {
+        Decay = decay;
+    }
+
+    /**
+     * Creates a blender weighting every day equally.
+     */
+    public static CurveBlender Of() {
+        return new CurveBlender(1.0);
+    }
+
+    /**
+     * Creates a blender where the weight of each day is the decay times the weight of the day
+     * after it.
+     *
+     * @param decay The decay of the weight per day, greater than 0 and at most 1
+     * @return The blender.
+     * @throws IllegalArgumentException if the decay is not greater than 0 and at most 1
+     */
+    public static CurveBlender Of(double decay) {
+        if (!(decay > 0 && decay <= 1)) {
+            throw new IllegalArgumentException("Decay must be in (0, 1], but was " + decay);
+        }
+
+        return new CurveBlender(decay);
+    }
+
+    /**
+     * Averages the curves of each symbol over the days given. The days are iterated once, so may
+     * be loaded lazily as they are reached.
+     *
+     * @param days The curves of each day, oldest first, with at most one curve per symbol each
+     *            day
+     * @return The average curve for each symbol with any volume, sorted by symbol.
+     * @throws IllegalArgumentException if the first curve for a symbol has overlapping buckets
+     */
+    public Map<String, CurveData> blend(Iterable<? extends Collection<? extends Curve>> days) {
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        int day = 0;
+        for (Collection<? extends Curve> curves : days) {
+            int dayIndex = day;
+            curves.parallelStream().forEach(curve -> entries
+                    .computeIfAbsent(curve.getSymbol(), symbol -> new Entry(curve))
+                    .add(curve, dayIndex));
+            day++;
+        }
+
+        Map<String, CurveData> averages = new ConcurrentHashMap<>();
+        entries.values().parallelStream()
+                .filter(entry -> entry.Average.hasVolume())
+                .forEach(entry -> averages.put(entry.Average.getSymbol(),
+                        entry.Average.toCurve()));
+        return new TreeMap<>(averages);
+    }
+
+    /**
+     * The average of a symbol, with the last day added to it so that the decay of any days the
+     * symbol has no curve for is applied when the next curve is added.
+     */
+    private final class Entry {
+        private final CurveAverage Average;
+        private int LastDay = -1;
+
+        private Entry(Curve template) {
+            Average = CurveAverage.Of(template);
+        }
+
+        private synchronized void add(Curve curve, int day) {
+            if (Decay < 1 && LastDay >= 0) {
+                Average.scale(Math.pow(Decay, day - LastDay));
+            }
+            LastDay = day;
+            Average.add(curve, 1.0);
+        }
+    }
+}
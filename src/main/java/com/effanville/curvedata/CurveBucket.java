@@ -41,6 +41,10 @@ public class CurveBucket {
         return Type.name();
     }
 
+    public BucketType getType() {
+        return Type;
+    }
+
     public Boolean isValid() {
         if (PercentDayVolume < 0)
             return false;
@@ -0,0 +1,275 @@
+package com.effanville.curvedata;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * A cache of curves in front of a {@link CurveLoader}, loading each curve on first access and
+ * evicting the least recently used curves once the cache holds more than its limit. The limit is
+ * either a number of curves, or a total weight such as the estimated bytes of the curves from
+ * {@link #estimateBytes(Curve)}.
+ * <p>
+ * Lookups of the same missing curve from several threads at once wait on a single load of the
+ * curve, rather than each loading it. The hit, miss and eviction counters are kept without locking
+ * and can be read at any time with {@link #stats()}.
+ */
+public final class CurveCache {
+    private static final long BYTES_PER_CURVE = 64;
+    private static final long BYTES_PER_BUCKET = 80;
+
+    private final CurveLoader Loader;
+    private final long MaximumWeight;
+    private final ToLongFunction<Curve> Weigher;
+    private final Map<CurveKey, Entry> Entries = new ConcurrentHashMap<>();
+    private final Map<CurveKey, CompletableFuture<Curve>> Loading = new ConcurrentHashMap<>();
+    private final Object EvictionLock = new Object();
+    private final ArrayDeque<Entry> EvictionOrder = new ArrayDeque<>();
+    private final LongAdder Hits = new LongAdder();
+    private final LongAdder Misses = new LongAdder();
+    private final LongAdder LoadFailures = new LongAdder();
+    private final LongAdder Evictions = new LongAdder();
+    /**
+     * The number of curves added, so that a curve accessed after another is added is stamped as
+     * more recently used than it. Only changed while holding the eviction lock.
+     */
+    private volatile long Clock;
+    private long Weight;
+
+    private CurveCache(CurveLoader loader, long maximumWeight, ToLongFunction<Curve> weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException(
+                    "Maximum weight must be positive, but was " + maximumWeight);
+        }
+
+        Loader = loader;
+        MaximumWeight = maximumWeight;
+        Weigher = weigher;
+    }
+
+    /**
+     * Creates a cache holding at most the number of curves given.
+     */
+    public static CurveCache Of(CurveLoader loader, int maximumCurves) {
+        return new CurveCache(loader, maximumCurves, curve -> 1);
+    }
+
+    /**
+     * Creates a cache holding curves up to the total weight given, where the weight of each curve
+     * is given by the weigher, e.g. {@link #estimateBytes(Curve)}. A single curve heavier than the
+     * limit is still held until the next curve is loaded.
+     */
+    public static CurveCache Of(CurveLoader loader, long maximumWeight,
+            ToLongFunction<Curve> weigher) {
+        return new CurveCache(loader, maximumWeight, weigher);
+    }
+
+    /**
+     * Estimates the bytes of heap used by a curve held as a list of {@link CurveBucket} objects.
+     */
+    public static long estimateBytes(Curve curve) {
+        return BYTES_PER_CURVE + BYTES_PER_BUCKET * curve.numberBuckets();
+    }
+
+    /**
+     * Returns the curve for the key, loading it if it is not held.
+     *
+     * @param key The curve to return
+     * @return The curve for the key.
+     * @throws IOException if the curve is not held and cannot be loaded
+     */
+    public Curve get(CurveKey key) throws IOException {
+        Curve curve = getIfPresent(key);
+        if (curve != null) {
+            return curve;
+        }
+
+        Misses.increment();
+        CompletableFuture<Curve> load = new CompletableFuture<>();
+        CompletableFuture<Curve> existing = Loading.putIfAbsent(key, load);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            // The curve may have been loaded and the load removed since it was last looked for.
+            curve = lookup(key);
+            if (curve == null) {
+                curve = Loader.load(key);
+                if (curve == null) {
+                    throw new IOException("No curve loaded for " + key);
+                }
+                add(key, curve);
+            }
+            load.complete(curve);
+            return curve;
+        } catch (IOException | RuntimeException e) {
+            LoadFailures.increment();
+            load.completeExceptionally(e);
+            throw e;
+        } catch (Error e) {
+            // Threads waiting on the load must not be left waiting once it has failed.
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            Loading.remove(key, load);
+        }
+    }
+
+    /**
+     * Returns the curve for the key if it is held, without loading it.
+     *
+     * @param key The curve to return
+     * @return The curve for the key, or null if it is not held.
+     */
+    public Curve getIfPresent(CurveKey key) {
+        Curve curve = lookup(key);
+        if (curve != null) {
+            Hits.increment();
+        }
+
+        return curve;
+    }
+
+    /**
+     * Removes the curve for the key, so that it is loaded again on next access.
+     */
+    public void invalidate(CurveKey key) {
+        synchronized (EvictionLock) {
+            Entry entry = Entries.remove(key);
+            if (entry != null) {
+                Weight -= entry.Weight;
+            }
+        }
+    }
+
+    public int size() {
+        return Entries.size();
+    }
+
+    public CurveCacheStats stats() {
+        int size;
+        long weight;
+        synchronized (EvictionLock) {
+            size = Entries.size();
+            weight = Weight;
+        }
+
+        return new CurveCacheStats(Hits.sum(), Misses.sum(), LoadFailures.sum(), Evictions.sum(),
+                size, weight);
+    }
+
+    private Curve lookup(CurveKey key) {
+        Entry entry = Entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        long now = Clock;
+        if (entry.Stamp != now) {
+            entry.Stamp = now;
+        }
+        return entry.Value;
+    }
+
+    /**
+     * Adds the curve as the most recently used, then evicts the least recently used curves until
+     * the cache is within its limit.
+     */
+    private void add(CurveKey key, Curve curve) {
+        long weight = Weigher.applyAsLong(curve);
+        synchronized (EvictionLock) {
+            Entry added = new Entry(key, curve, weight, Clock++);
+            Entry previous = Entries.put(key, added);
+            if (previous != null) {
+                Weight -= previous.Weight;
+            }
+            Weight += weight;
+
+            while (Weight > MaximumWeight && Entries.size() > 1) {
+                Entry evicted = nextToEvict(added);
+                if (evicted == null) {
+                    break;
+                }
+                Entries.remove(evicted.Key, evicted);
+                Weight -= evicted.Weight;
+                Evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the held curve other than the one just added with the oldest stamp, taking the order
+     * of the curves by stamp again when every curve in the last order taken has since been used
+     * or removed.
+     */
+    private Entry nextToEvict(Entry added) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            while (!EvictionOrder.isEmpty()) {
+                Entry candidate = EvictionOrder.poll();
+                if (candidate != added && candidate.Stamp == candidate.OrderedStamp
+                        && Entries.get(candidate.Key) == candidate) {
+                    return candidate;
+                }
+            }
+
+            List<Entry> entries = new ArrayList<>(Entries.values());
+            for (Entry entry : entries) {
+                entry.OrderedStamp = entry.Stamp;
+            }
+            entries.sort(Comparator.comparingLong(entry -> entry.OrderedStamp));
+            EvictionOrder.addAll(entries);
+        }
+
+        return null;
+    }
+
+    private static Curve await(CompletableFuture<Curve> load) throws IOException {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return stats().toString();
+    }
+
+    private static final class Entry {
+        private final CurveKey Key;
+        private final Curve Value;
+        private final long Weight;
+        private volatile long Stamp;
+        /**
+         * The stamp when the eviction order was last taken, only used while holding the lock.
+         */
+        private long OrderedStamp;
+
+        private Entry(CurveKey key, Curve curve, long weight, long stamp) {
+            Key = key;
+            Value = curve;
+            Weight = weight;
+            Stamp = stamp;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.effanville.curvedata;
+
+/**
+ * The counters of a {@link CurveCache} at one point in time, for sizing the cache.
+ */
+public final class CurveCacheStats {
+    private final long Hits;
+    private final long Misses;
+    private final long LoadFailures;
+    private final long Evictions;
+    private final int Size;
+    private final long Weight;
+
+    CurveCacheStats(long hits, long misses, long loadFailures, long evictions, int size,
+            long weight) {
+        Hits = hits;
+        Misses = misses;
+        LoadFailures = loadFailures;
+        Evictions = evictions;
+        Size = size;
+        Weight = weight;
+    }
+
+    public long getHits() {
+        return Hits;
+    }
+
+    /**
+     * Returns the number of lookups not finding the curve in the cache. Concurrent lookups of the
+     * same missing curve are each counted, though the curve is only loaded once.
+     */
+    public long getMisses() {
+        return Misses;
+    }
+
+    public long getLoadFailures() {
+        return LoadFailures;
+    }
+
+    public long getEvictions() {
+        return Evictions;
+    }
+
+    /**
+     * Returns the number of curves held.
+     */
+    public int getSize() {
+        return Size;
+    }
+
+    /**
+     * Returns the total weight of the curves held, in the units of the limit of the cache.
+     */
+    public long getWeight() {
+        return Weight;
+    }
+
+    public double getHitRate() {
+        long lookups = Hits + Misses;
+        return lookups == 0 ? 1.0 : (double) Hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "Hits=" + Hits + ", Misses=" + Misses + ", LoadFailures=" + LoadFailures
+                + ", Evictions=" + Evictions + ", Size=" + Size + ", Weight=" + Weight;
+    }
+}
@@ -1,19 +1,54 @@
 package com.effanville.curvedata;
 
-import java.time.Duration;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
  * An implementation of a Curve
+ * <p>
+ * Curves created by {@link #Of(String)} can have buckets added at any point. Curves created by a
+ * {@link Builder} sort their buckets once when built, and are then immutable and ready to query.
  */
 public class CurveData implements Curve {
+    private static final Comparator<CurveBucket> START_TIME_ORDER =
+            new CurveBucketStartTimeComparator();
+    private static final CurveValidator FAIL_FAST_VALIDATOR =
+            CurveValidator.Of(ValidationMode.FAIL_FAST);
+
+    /**
+     * Held as the index of a curve whose bucket times cannot be indexed, so that this is only
+     * found once for each change of the buckets.
+     */
+    private static final CurveIndex NOT_INDEXABLE = CurveIndex.Of(Collections.emptyList());
+
     private String Symbol;
-    private List<CurveBucket> Buckets = new ArrayList<CurveBucket>();
+    private List<CurveBucket> Buckets;
+    private final boolean Immutable;
+    private volatile CurveIndex Index;
+    private CurveSessions.Holder Sessions = CurveSessions.Holder.Of();
 
     private CurveData(String symbol) {
         Symbol = symbol;
+        Buckets = new ArrayList<CurveBucket>();
+        Immutable = false;
+    }
+
+    private CurveData(String symbol, List<CurveBucket> buckets) {
+        Symbol = symbol;
+        Buckets = Collections.unmodifiableList(buckets);
+        Immutable = true;
+        Index = indexOf(Buckets);
+    }
+
+    private CurveData(String symbol, List<CurveBucket> buckets, CurveIndex index) {
+        Symbol = symbol;
+        Buckets = Collections.unmodifiableList(buckets);
+        Immutable = true;
+        Index = index;
     }
 
     public static CurveData Of(String symbol) {
@@ -30,14 +65,153 @@ public class CurveData implements Curve {
         return Buckets.size();
     }
 
+    @Override
+    public CurveBucket getBucket(int index) {
+        return Buckets.get(index);
+    }
+
+    /**
+     * Returns the buckets of the curve, sorted by start time.
+     * 
+     * @return An unmodifiable view of the buckets.
+     */
+    public List<CurveBucket> getBuckets() {
+        return Collections.unmodifiableList(Buckets);
+    }
+
     public LocalTime getStartTime() {
         return Buckets.getFirst().getStartTime();
     }
 
+    /**
+     * Adds the bucket into the curve, keeping the buckets sorted by start time. Buckets arriving
+     * in order are appended without sorting.
+     * 
+     * @throws UnsupportedOperationException if the curve was created by a {@link Builder}
+     */
     @Override
     public void addBucket(CurveBucket bucket) {
+        checkMutable();
+        boolean inOrder = isAfterLastBucket(bucket);
         Buckets.add(bucket);
-        Buckets.sort(new CurveBucketStartTimeComparator());
+        if (!inOrder) {
+            Buckets.sort(START_TIME_ORDER);
+        }
+        Index = null;
+        Sessions.clear();
+    }
+
+    /**
+     * Adds all of the buckets into the curve, sorting the buckets at most once.
+     * 
+     * @param buckets The buckets to add to the curve
+     * @throws UnsupportedOperationException if the curve was created by a {@link Builder}
+     */
+    public void addBuckets(Collection<CurveBucket> buckets) {
+        checkMutable();
+        boolean inOrder = true;
+        for (CurveBucket bucket : buckets) {
+            inOrder = inOrder && isAfterLastBucket(bucket);
+            Buckets.add(bucket);
+        }
+        if (!inOrder) {
+            Buckets.sort(START_TIME_ORDER);
+        }
+        Index = null;
+        Sessions.clear();
+    }
+
+    /**
+     * Returns an immutable curve for another symbol with the same buckets as this curve. If this
+     * curve is immutable the buckets, index and sessions are shared with it rather than copied, so
+     * many symbols with the same profile can be held for little more than the cost of one curve.
+     * 
+     * @param symbol The symbol of the new curve
+     * @return The curve for the symbol.
+     */
+    public CurveData withSymbol(String symbol) {
+        if (!Immutable) {
+            return new CurveData(symbol, new ArrayList<>(Buckets));
+        }
+
+        CurveData curve = new CurveData(symbol, Buckets, Index);
+        curve.Sessions = Sessions;
+        return curve;
+    }
+
+    /**
+     * Returns an immutable copy of the curve with the volume of one bucket replaced. Any index of
+     * the cumulative volume of the curve is updated from the bucket changed rather than rebuilt,
+     * and this curve is left unchanged for any readers of it.
+     * 
+     * @param index The index of the bucket to change
+     * @param volume The new volume of the bucket
+     * @return The updated curve.
+     */
+    @Override
+    public CurveData withBucketVolume(int index, double volume) {
+        List<CurveBucket> buckets = new ArrayList<>(Buckets);
+        CurveBucket bucket = buckets.get(index);
+        buckets.set(index, CurveBucket.Of(bucket.getStartTime(), bucket.getEndTime(), volume,
+                bucket.getType()));
+        CurveIndex curveIndex = getIndex();
+        return new CurveData(Symbol, buckets,
+                curveIndex == null ? null : curveIndex.withVolume(index, volume));
+    }
+
+    /**
+     * Returns an immutable copy of the curve with the volume of every bucket starting at or after
+     * the time multiplied by the factor. Any index of the cumulative volume of the curve is
+     * updated from the first bucket scaled rather than rebuilt, and this curve is left unchanged
+     * for any readers of it.
+     * 
+     * @param time The time from which buckets are scaled
+     * @param factor The factor to multiply the volumes by
+     * @return The updated curve.
+     */
+    @Override
+    public CurveData withVolumesScaledFrom(LocalTime time, double factor) {
+        int fromIndex = countStartsBefore(time);
+        List<CurveBucket> buckets = new ArrayList<>(Buckets);
+        for (int index = fromIndex; index < buckets.size(); index++) {
+            CurveBucket bucket = buckets.get(index);
+            buckets.set(index, CurveBucket.Of(bucket.getStartTime(), bucket.getEndTime(),
+                    bucket.getPercentDayVolume() * factor, bucket.getType()));
+        }
+
+        CurveIndex curveIndex = getIndex();
+        return new CurveData(Symbol, buckets,
+                curveIndex == null ? null : curveIndex.withVolumesScaled(fromIndex, factor));
+    }
+
+    /**
+     * Returns the number of buckets starting before the time, as the buckets are sorted by start
+     * time.
+     */
+    private int countStartsBefore(LocalTime time) {
+        int low = 0;
+        int high = Buckets.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Buckets.get(mid).getStartTime().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private boolean isAfterLastBucket(CurveBucket bucket) {
+        return Buckets.isEmpty()
+                || START_TIME_ORDER.compare(Buckets.getLast(), bucket) <= 0;
+    }
+
+    private void checkMutable() {
+        if (Immutable) {
+            throw new UnsupportedOperationException("Curve for " + Symbol + " is immutable");
+        }
     }
 
     /**
@@ -68,22 +242,13 @@ public class CurveData implements Curve {
      * curve was "smooth" in some sense, possibly that the deviation in % between
      * continuous trading
      * buckets was not over a threshold too often.
+     * <p>
+     * The rules are all checked in one pass over the buckets by a {@link CurveValidator}, which
+     * can also report which rules were broken.
      */
     @Override
     public Boolean isValid() {
-        if (doBucketsOverlap())
-            return false;
-
-        for (int index = 0; index < Buckets.size(); index++) {
-            CurveBucket bucket = Buckets.get(index);
-            if (!bucket.isValid())
-                return false;
-        }
-
-        if (!doesVolumeSumTo100())
-            return false;
-
-        return true;
+        return FAIL_FAST_VALIDATOR.isValid(this);
     }
 
     /**
@@ -123,15 +288,26 @@ public class CurveData implements Curve {
 
     @Override
     public double getVolume(LocalTime start, LocalTime end) {
-        if (end.isBefore(start))
+        return getVolumeNanos(start.toNanoOfDay(), end.toNanoOfDay());
+    }
+
+    @Override
+    public double getVolumeNanos(long startNanoOfDay, long endNanoOfDay) {
+        if (endNanoOfDay < startNanoOfDay)
             return 0.0;
 
-        if (end.isBefore(Buckets.getFirst().getStartTime()))
+        if (endNanoOfDay < Buckets.getFirst().getStartTime().toNanoOfDay())
             return 0.0;
 
-        if (start.isAfter(Buckets.getLast().getEndTime()))
+        if (startNanoOfDay > Buckets.getLast().getEndTime().toNanoOfDay())
             return 0.0;
 
+        CurveIndex curveIndex = getIndex();
+        if (curveIndex != null) {
+            return curveIndex.cumulativeVolume(endNanoOfDay)
+                    - curveIndex.cumulativeVolume(startNanoOfDay);
+        }
+
         int length = Buckets.size();
         double startVolume = 0;
         double endVolume = 0;
@@ -141,8 +317,8 @@ public class CurveData implements Curve {
         for (int index = 0; index < length; index++) {
             CurveBucket bucket = Buckets.get(index);
 
-            startVolume = AddBucketVolume(start, bucket, startVolume);
-            endVolume = AddBucketVolume(end, bucket, endVolume);
+            startVolume = AddBucketVolume(startNanoOfDay, bucket, startVolume);
+            endVolume = AddBucketVolume(endNanoOfDay, bucket, endVolume);
         }
 
         // volume between the two times is the difference of the two cumulative
@@ -152,53 +328,176 @@ public class CurveData implements Curve {
 
     @Override
     public double getRelativeVolume(LocalTime start, LocalTime end, LocalTime time) {
-        if (end.isBefore(start))
+        return getRelativeVolumeNanos(start.toNanoOfDay(), end.toNanoOfDay(), time.toNanoOfDay());
+    }
+
+    @Override
+    public double getRelativeVolumeNanos(long startNanoOfDay, long endNanoOfDay,
+            long nanoOfDay) {
+        if (endNanoOfDay < startNanoOfDay)
             return 0.0;
 
-        if (end.isBefore(Buckets.getFirst().getStartTime()))
+        if (endNanoOfDay < Buckets.getFirst().getStartTime().toNanoOfDay())
             return 0.0;
 
-        if (start.isAfter(Buckets.getLast().getEndTime()))
+        if (startNanoOfDay > Buckets.getLast().getEndTime().toNanoOfDay())
             return 0.0;
 
-        if (time.isBefore(start))
+        if (nanoOfDay < startNanoOfDay)
             return 0.0;
 
-        if (time.isAfter(end))
+        if (nanoOfDay > endNanoOfDay)
             return 0.0;
 
+        CurveIndex curveIndex = getIndex();
+        if (curveIndex != null) {
+            double startVolume = curveIndex.cumulativeVolume(startNanoOfDay);
+            double timeVolume = curveIndex.cumulativeVolume(nanoOfDay);
+            double endVolume = curveIndex.cumulativeVolume(endNanoOfDay);
+            return 100 * (timeVolume - startVolume) / (endVolume - startVolume);
+        }
+
         int length = Buckets.size();
         double startVolume = 0;
         double endVolume = 0;
         double timeVolume = 0;
         for (int index = 0; index < length; index++) {
             CurveBucket bucket = Buckets.get(index);
-            startVolume = AddBucketVolume(start, bucket, startVolume);
-            timeVolume = AddBucketVolume(time, bucket, timeVolume);
-            endVolume = AddBucketVolume(end, bucket, endVolume);
+            startVolume = AddBucketVolume(startNanoOfDay, bucket, startVolume);
+            timeVolume = AddBucketVolume(nanoOfDay, bucket, timeVolume);
+            endVolume = AddBucketVolume(endNanoOfDay, bucket, endVolume);
         }
 
         return 100 * (timeVolume - startVolume) / (endVolume - startVolume);
     }
 
+    @Override
+    public void getCumulativeVolumes(int[] secondsOfDay, double[] volumes) {
+        CurveIndex curveIndex = getIndex();
+        if (curveIndex == null) {
+            Curve.super.getCumulativeVolumes(secondsOfDay, volumes);
+            return;
+        }
+
+        Curve.checkCumulativeVolumeArguments(secondsOfDay, volumes);
+        curveIndex.cumulativeVolumes(secondsOfDay, volumes);
+    }
+
+    @Override
+    public LocalTime getTimeForVolume(LocalTime start, double volume) {
+        CurveIndex curveIndex = getIndex();
+        if (curveIndex == null || !curveIndex.isOrdered()) {
+            return Curve.super.getTimeForVolume(start, volume);
+        }
+
+        long nanoOfDay = curveIndex.nanoOfDayForVolume(start.toNanoOfDay(), volume);
+        return nanoOfDay < 0 ? null : LocalTime.ofNanoOfDay(nanoOfDay);
+    }
+
+    @Override
+    public LocalTime[] getEqualVolumeTimes(LocalTime start, LocalTime end, int slices) {
+        CurveIndex curveIndex = getIndex();
+        if (curveIndex == null || !curveIndex.isOrdered()) {
+            return Curve.super.getEqualVolumeTimes(start, end, slices);
+        }
+
+        double[] volumes = Curve.equalVolumeSlices(getVolume(start, end), slices);
+        return curveIndex.timesForVolumes(start, volumes);
+    }
+
+    /**
+     * Returns the sessions of the curve, computing them if the buckets have changed since they
+     * were last computed.
+     */
+    @Override
+    public CurveSessions getSessions() {
+        return Sessions.get(this);
+    }
+
+    /**
+     * Returns the indexed form of the buckets, creating it if the buckets have changed since it was
+     * last created. This is null if the bucket times cannot be indexed, in which case every bucket
+     * is walked instead.
+     */
+    private CurveIndex getIndex() {
+        CurveIndex index = Index;
+        if (index == null) {
+            index = indexOf(Buckets);
+            Index = index;
+        }
+
+        return index == NOT_INDEXABLE ? null : index;
+    }
+
+    private static CurveIndex indexOf(List<CurveBucket> buckets) {
+        CurveIndex index = CurveIndex.Of(buckets);
+        return index == null ? NOT_INDEXABLE : index;
+    }
+
     /**
      * Given a bucket we calculate the relative fraction of volume in the bucket up
      * until the time
      * given. The timeVolume is the already observed volume in the curve.
      */
-    private double AddBucketVolume(LocalTime time, CurveBucket bucket, double timeVolume) {
-        if (time.isAfter(bucket.getEndTime())) {
+    private double AddBucketVolume(long nanoOfDay, CurveBucket bucket, double timeVolume) {
+        long startNanos = bucket.getStartTime().toNanoOfDay();
+        long endNanos = bucket.getEndTime().toNanoOfDay();
+        if (nanoOfDay > endNanos) {
             timeVolume += bucket.getPercentDayVolume();
-        } else if (time.isAfter(bucket.getStartTime())) {
-            Duration numerator = Duration.between(bucket.getStartTime(), time);
-            Duration denum = Duration.between(bucket.getStartTime(), bucket.getEndTime());
-            double volumeTime = (double) numerator.getSeconds() / (double) denum.getSeconds();
+        } else if (nanoOfDay > startNanos) {
+            double volumeTime =
+                    (double) (nanoOfDay - startNanos) / (double) (endNanos - startNanos);
             timeVolume += volumeTime * bucket.getPercentDayVolume();
         }
 
         return timeVolume;
     }
 
+    /**
+     * Builder for an immutable {@link CurveData}. Buckets may be added in any order, and are sorted
+     * by start time once when the curve is built, or not at all if they were added in order.
+     */
+    public static class Builder {
+        private final String Symbol;
+        private final List<CurveBucket> Buckets = new ArrayList<CurveBucket>();
+        private boolean Sorted = true;
+
+        private Builder(String symbol) {
+            Symbol = symbol;
+        }
+
+        public static Builder Of(String symbol) {
+            return new Builder(symbol);
+        }
+
+        public Builder addBucket(CurveBucket bucket) {
+            if (Sorted && !Buckets.isEmpty()) {
+                Sorted = START_TIME_ORDER.compare(Buckets.getLast(), bucket) <= 0;
+            }
+            Buckets.add(bucket);
+            return this;
+        }
+
+        public Builder addBuckets(Collection<CurveBucket> buckets) {
+            for (CurveBucket bucket : buckets) {
+                addBucket(bucket);
+            }
+            return this;
+        }
+
+        /**
+         * Creates the curve from the buckets added so far. The builder can continue to be used
+         * afterwards without affecting the curve created.
+         */
+        public CurveData build() {
+            List<CurveBucket> buckets = new ArrayList<CurveBucket>(Buckets);
+            if (!Sorted) {
+                buckets.sort(START_TIME_ORDER);
+            }
+            return new CurveData(Symbol, buckets);
+        }
+    }
+
     @Override
     public String toString() {
         return "Symbol='" + Symbol + "', BucketCount=" + Buckets.size();
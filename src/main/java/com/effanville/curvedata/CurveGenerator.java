@@ -0,0 +1,176 @@
+package com.effanville.curvedata;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic curves from a layout of sessions, for tests and benchmarks. Each session
+ * is either a single bucket, or split into buckets of a given width with the volume of the session
+ * spread over the buckets in proportion to their length.
+ * <p>
+ * Curves for a universe of symbols can be made to differ from each other by a random variation of
+ * the bucket volumes, seeded by the symbol so that the same symbol always gets the same curve. The
+ * variation moves volume between the buckets of a session but keeps the volume of each session.
+ */
+public final class CurveGenerator {
+    private final List<Session> Sessions = new ArrayList<>();
+    private double Variation;
+    private long Seed;
+
+    private CurveGenerator() {
+    }
+
+    /**
+     * Creates a generator with no sessions.
+     */
+    public static CurveGenerator Of() {
+        return new CurveGenerator();
+    }
+
+    /**
+     * Creates a generator for the HK exchange sessions used by the sample curve, with approximate
+     * volumes for the auctions and the continuous trading sessions split into buckets of the width
+     * given.
+     */
+    public static CurveGenerator hongKong(Duration bucketLength) {
+        return Of()
+                .addSession(BucketType.MARKET_CLOSED, LocalTime.parse("00:00"),
+                        LocalTime.parse("09:00"), 0)
+                .addSession(BucketType.OPEN_AUCTION, LocalTime.parse("09:00"),
+                        LocalTime.parse("09:30"), 8)
+                .addSession(BucketType.CONT_TRADING, LocalTime.parse("09:30"),
+                        LocalTime.parse("12:00"), 35, bucketLength)
+                .addSession(BucketType.INTRADAY_CLOSE, LocalTime.parse("12:00"),
+                        LocalTime.parse("13:00"), 0)
+                .addSession(BucketType.CONT_TRADING, LocalTime.parse("13:00"),
+                        LocalTime.parse("16:00"), 47, bucketLength)
+                .addSession(BucketType.CLOSE_AUCTION, LocalTime.parse("16:00"),
+                        LocalTime.parse("16:10"), 10)
+                .addSession(BucketType.CLOSE_AUCTION, LocalTime.parse("16:10"),
+                        LocalTime.parse("23:59"), 0);
+    }
+
+    /**
+     * Adds a session of a single bucket.
+     */
+    public CurveGenerator addSession(BucketType type, LocalTime start, LocalTime end,
+            double volume) {
+        return addSession(type, start, end, volume, Duration.between(start, end));
+    }
+
+    /**
+     * Adds a session split into buckets of the width given, where the last bucket is shortened to
+     * end with the session.
+     *
+     * @throws IllegalArgumentException if the session ends before it starts, starts before the
+     *             previous session ends, or the bucket width is not positive
+     */
+    public CurveGenerator addSession(BucketType type, LocalTime start, LocalTime end,
+            double volume, Duration bucketLength) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException(
+                    "Session " + type + " starts at " + start + " after it ends at " + end);
+        }
+        if (!Sessions.isEmpty() && Sessions.getLast().End.isAfter(start)) {
+            throw new IllegalArgumentException("Session " + type + " starting at " + start
+                    + " overlaps the previous session");
+        }
+        if (bucketLength.isNegative() || (bucketLength.isZero() && !start.equals(end))) {
+            throw new IllegalArgumentException("Bucket width must be positive, but was "
+                    + bucketLength);
+        }
+
+        Sessions.add(new Session(type, start, end, volume, bucketLength));
+        return this;
+    }
+
+    /**
+     * Varies the volume of each bucket of a session randomly by up to the fraction given, seeded by
+     * the seed and the symbol.
+     */
+    public CurveGenerator withVariation(double variation, long seed) {
+        Variation = variation;
+        Seed = seed;
+        return this;
+    }
+
+    /**
+     * Generates the curve for the symbol.
+     *
+     * @param symbol The symbol of the curve
+     * @return The immutable generated curve.
+     */
+    public CurveData generate(String symbol) {
+        Random random = new Random(Seed ^ symbol.hashCode());
+        CurveData.Builder builder = CurveData.Builder.Of(symbol);
+        List<CurveBucket> sessionBuckets = new ArrayList<>();
+        for (Session session : Sessions) {
+            sessionBuckets.clear();
+            session.addBuckets(sessionBuckets, Variation > 0 ? random : null, Variation);
+            builder.addBuckets(sessionBuckets);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Generates a curve for each of a number of symbols, named from the prefix and the index of
+     * the symbol, e.g. "SYM0", "SYM1" and so on.
+     */
+    public List<CurveData> generate(String symbolPrefix, int numberSymbols) {
+        List<CurveData> curves = new ArrayList<>(numberSymbols);
+        for (int index = 0; index < numberSymbols; index++) {
+            curves.add(generate(symbolPrefix + index));
+        }
+
+        return curves;
+    }
+
+    private static final class Session {
+        private final BucketType Type;
+        private final LocalTime Start;
+        private final LocalTime End;
+        private final double Volume;
+        private final Duration BucketLength;
+
+        private Session(BucketType type, LocalTime start, LocalTime end, double volume,
+                Duration bucketLength) {
+            Type = type;
+            Start = start;
+            End = end;
+            Volume = volume;
+            BucketLength = bucketLength;
+        }
+
+        private void addBuckets(List<CurveBucket> buckets, Random random, double variation) {
+            long sessionNanos = End.toNanoOfDay() - Start.toNanoOfDay();
+            long bucketNanos = BucketLength.toNanos();
+            if (sessionNanos == 0 || bucketNanos >= sessionNanos) {
+                buckets.add(CurveBucket.Of(Start, End, Volume, Type));
+                return;
+            }
+
+            int numberBuckets = (int) ((sessionNanos + bucketNanos - 1) / bucketNanos);
+            double[] weights = new double[numberBuckets];
+            double totalWeight = 0;
+            for (int index = 0; index < numberBuckets; index++) {
+                long length = Math.min(bucketNanos, sessionNanos - index * bucketNanos);
+                double noise = random == null ? 1 : 1 + variation * (2 * random.nextDouble() - 1);
+                weights[index] = length * noise;
+                totalWeight += weights[index];
+            }
+
+            LocalTime bucketStart = Start;
+            for (int index = 0; index < numberBuckets; index++) {
+                LocalTime bucketEnd = index == numberBuckets - 1 ? End
+                        : bucketStart.plusNanos(bucketNanos);
+                buckets.add(CurveBucket.Of(bucketStart, bucketEnd,
+                        Volume * weights[index] / totalWeight, Type));
+                bucketStart = bucketEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * A frozen, indexed form of the buckets of a curve. The bucket boundaries are held as seconds of
+ * the day, and the cumulative volume up until the start of each bucket is precomputed, so that the
+ * volume up until a time is found by a binary search for the bucket containing the time and a
+ * single interpolation within that bucket.
+ * <p>
+ * The prefix sums are accumulated in bucket order, and the interpolation within a bucket uses the
+ * same nanosecond arithmetic as walking the buckets, so the cumulative volumes are exactly those
+ * obtained by summing every bucket in turn. The search and interpolation are those of
+ * {@link BucketColumns}, shared with the other curves held in columns.
+ */
+final class CurveIndex {
+    /**
+     * The number of nanoseconds in a second, for converting seconds of the day into nanoseconds.
+     */
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * The number of seconds in a day, so seconds of the day run from 0 until one less than this.
+     */
+    static final int SECONDS_PER_DAY = 86_400;
+
+    private final int[] StartSeconds;
+    private final int[] EndSeconds;
+    private final double[] Volumes;
+    private final double[] CumulativeVolumes;
+    private final boolean Ordered;
+    private final BucketColumns Columns;
+
+    CurveIndex(int[] startSeconds, int[] endSeconds, double[] volumes) {
+        StartSeconds = startSeconds;
+        EndSeconds = endSeconds;
+        Volumes = volumes;
+
+        int length = volumes.length;
+        CumulativeVolumes = new double[length + 1];
+        boolean ordered = true;
+        for (int index = 0; index < length; index++) {
+            CumulativeVolumes[index + 1] = CumulativeVolumes[index] + volumes[index];
+            if (startSeconds[index] > endSeconds[index]) {
+                ordered = false;
+            }
+            if (index > 0 && endSeconds[index - 1] > startSeconds[index]) {
+                ordered = false;
+            }
+        }
+
+        Ordered = ordered;
+        Columns = BucketColumns.ofSeconds(startSeconds, endSeconds, volumes, CumulativeVolumes,
+                ordered);
+    }
+
+    private CurveIndex(int[] startSeconds, int[] endSeconds, double[] volumes,
+            double[] cumulativeVolumes, boolean ordered) {
+        StartSeconds = startSeconds;
+        EndSeconds = endSeconds;
+        Volumes = volumes;
+        CumulativeVolumes = cumulativeVolumes;
+        Ordered = ordered;
+        Columns = BucketColumns.ofSeconds(startSeconds, endSeconds, volumes, cumulativeVolumes,
+                ordered);
+    }
+
+    /**
+     * Returns the columns of the buckets, with times of the day.
+     */
+    BucketColumns columns() {
+        return Columns;
+    }
+
+    /**
+     * Creates the index for the buckets given, which must be sorted by start time. Returns null if
+     * any bucket boundary is not a whole second, as this cannot be held in the index.
+     */
+    static CurveIndex Of(List<CurveBucket> buckets) {
+        int length = buckets.size();
+        int[] startSeconds = new int[length];
+        int[] endSeconds = new int[length];
+        double[] volumes = new double[length];
+        for (int index = 0; index < length; index++) {
+            CurveBucket bucket = buckets.get(index);
+            LocalTime startTime = bucket.getStartTime();
+            LocalTime endTime = bucket.getEndTime();
+            if (startTime.getNano() != 0 || endTime.getNano() != 0) {
+                return null;
+            }
+
+            startSeconds[index] = startTime.toSecondOfDay();
+            endSeconds[index] = endTime.toSecondOfDay();
+            volumes[index] = bucket.getPercentDayVolume();
+        }
+
+        return new CurveIndex(startSeconds, endSeconds, volumes);
+    }
+
+    int numberBuckets() {
+        return Volumes.length;
+    }
+
+    int startSecond(int index) {
+        return StartSeconds[index];
+    }
+
+    int endSecond(int index) {
+        return EndSeconds[index];
+    }
+
+    double volume(int index) {
+        return Volumes[index];
+    }
+
+    /**
+     * Returns a copy of the index with the volume of one bucket replaced. The bucket times are
+     * shared with this index, and only the cumulative volumes after the bucket are recalculated.
+     */
+    CurveIndex withVolume(int index, double volume) {
+        double[] volumes = Volumes.clone();
+        volumes[index] = volume;
+        return withVolumesFrom(index, volumes);
+    }
+
+    /**
+     * Returns a copy of the index with the volume of every bucket from the index given multiplied
+     * by the factor. The bucket times are shared with this index, and only the cumulative volumes
+     * after the first bucket scaled are recalculated.
+     */
+    CurveIndex withVolumesScaled(int fromIndex, double factor) {
+        double[] volumes = Volumes.clone();
+        for (int index = fromIndex; index < volumes.length; index++) {
+            volumes[index] *= factor;
+        }
+
+        return withVolumesFrom(fromIndex, volumes);
+    }
+
+    private CurveIndex withVolumesFrom(int fromIndex, double[] volumes) {
+        double[] cumulativeVolumes = CumulativeVolumes.clone();
+        for (int index = fromIndex; index < volumes.length; index++) {
+            cumulativeVolumes[index + 1] = cumulativeVolumes[index] + volumes[index];
+        }
+
+        return new CurveIndex(StartSeconds, EndSeconds, volumes, cumulativeVolumes, Ordered);
+    }
+
+    /**
+     * Returns whether the buckets are sorted, do not overlap and each start before they end, so
+     * that the bucket containing a time can be found by binary search.
+     */
+    boolean isOrdered() {
+        return Ordered;
+    }
+
+    /**
+     * Returns the volume between the two times, given as nanoseconds of the day, in the same way
+     * as {@link Curve#getVolumeNanos(long, long)}.
+     */
+    double volume(long startNanoOfDay, long endNanoOfDay) {
+        return Columns.volume(0, Volumes.length, startNanoOfDay, endNanoOfDay);
+    }
+
+    /**
+     * Returns the volume at the time relative to the volume between the start and end, in the
+     * same way as {@link Curve#getRelativeVolumeNanos(long, long, long)}.
+     */
+    double relativeVolume(long startNanoOfDay, long endNanoOfDay, long nanoOfDay) {
+        return Columns.relativeVolume(0, Volumes.length, startNanoOfDay, endNanoOfDay, nanoOfDay);
+    }
+
+    /**
+     * Returns the cumulative volume of the curve up until the time given as the nanosecond of the
+     * day.
+     */
+    double cumulativeVolume(long nanoOfDay) {
+        return Columns.cumulativeVolume(0, Volumes.length, nanoOfDay);
+    }
+
+    /**
+     * Fills the cumulative volume up until each of the seconds of the day given, which must be
+     * sorted, in a single forward pass over the buckets when they are ordered.
+     */
+    void cumulativeVolumes(int[] secondsOfDay, double[] volumes) {
+        Columns.cumulativeVolumes(0, Volumes.length, secondsOfDay, volumes);
+    }
+
+    /**
+     * Returns the earliest nanosecond of the day at which the volume since the start time given
+     * reaches the volume given, or -1 if it is never reached. Only to be used when the buckets are
+     * ordered.
+     */
+    long nanoOfDayForVolume(long startNanos, double volume) {
+        return Columns.nanosForVolume(0, Volumes.length, startNanos, volume);
+    }
+
+    /**
+     * Returns the time at which each of the volumes, which must be sorted, is reached from the
+     * start time given, in a single forward pass over the buckets. Volumes never reached are given
+     * a null time. Only to be used when the buckets are ordered.
+     */
+    LocalTime[] timesForVolumes(LocalTime start, double[] volumes) {
+        return Columns.timesOfDayForVolumes(0, Volumes.length, start, volumes);
+    }
+}
@@ -0,0 +1,229 @@
+package com.effanville.curvedata;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Shares the buckets of curves with identical profiles, so that the many symbols of an exchange
+ * trading to the same generic profile hold a single copy of its buckets.
+ * <p>
+ * Curves are matched by a hash of the times, volume and type of every bucket, with the buckets
+ * compared in full when the hashes match, so only curves with exactly the same buckets are
+ * shared. Each curve returned keeps its own symbol, but shares its buckets, index and sessions
+ * with the first curve seen with that profile. Files whose bytes have been seen before are not
+ * parsed again, see {@link #intern(String, byte[], Supplier)}. Only the SHA-256 digest of each
+ * file is kept to recognise it, not its bytes.
+ * <p>
+ * Each distinct profile and file digest is held until {@link #clear()} is called, or for the life
+ * of the interner, so an interner should be scoped to a load of a curve set, such as one per
+ * trading day, rather than held for the life of a process. Curves already returned keep sharing
+ * their buckets once the interner is cleared.
+ * <p>
+ * Only {@link CurveData} and {@link PackedCurve} profiles are shared, and a curve is only ever
+ * shared with a curve of the same class. The interner can be used from any number of threads.
+ */
+public final class CurveInterner {
+    private final Map<Profile, Curve> Profiles = new ConcurrentHashMap<>();
+    private final Map<Source, CurveData> Sources = new ConcurrentHashMap<>();
+    private final LongAdder SharedCount = new LongAdder();
+
+    private CurveInterner() {
+    }
+
+    public static CurveInterner Of() {
+        return new CurveInterner();
+    }
+
+    /**
+     * Returns a curve with the symbol and buckets of the curve given, sharing the buckets with any
+     * curve interned before with the same profile. A mutable {@link CurveData} is replaced by an
+     * immutable copy.
+     *
+     * @param curve The curve to intern
+     * @return The interned curve, or the curve given if its class cannot be interned.
+     */
+    public Curve intern(Curve curve) {
+        if (curve instanceof CurveData) {
+            return intern((CurveData) curve);
+        }
+        if (curve instanceof PackedCurve) {
+            return intern((PackedCurve) curve);
+        }
+
+        return curve;
+    }
+
+    public CurveData intern(CurveData curve) {
+        // only an immutable curve can be held as the profile, as it must not change once shared
+        CurveData immutable = curve.withSymbol(curve.getSymbol());
+        CurveData profile =
+                (CurveData) Profiles.computeIfAbsent(new Profile(immutable), key -> immutable);
+        return forSymbol(profile, curve.getSymbol());
+    }
+
+    public PackedCurve intern(PackedCurve curve) {
+        PackedCurve profile = (PackedCurve) Profiles.computeIfAbsent(new Profile(curve),
+                key -> curve);
+        return forSymbol(profile, curve.getSymbol());
+    }
+
+    /**
+     * Returns the curve for the symbol parsed from the bytes of a curve file, only parsing the
+     * bytes if no file with the same SHA-256 digest has been interned before. The curve parsed is
+     * interned as by {@link #intern(CurveData)}.
+     *
+     * @param symbol The symbol of the curve
+     * @param source The bytes of the file the curve is parsed from
+     * @param parser Parses the curve from the bytes
+     * @return The interned curve for the symbol.
+     */
+    public CurveData intern(String symbol, byte[] source, Supplier<CurveData> parser) {
+        Source key = new Source(source);
+        CurveData profile = Sources.get(key);
+        if (profile == null) {
+            profile = intern(parser.get());
+            CurveData existing = Sources.putIfAbsent(key, profile);
+            if (existing != null) {
+                profile = existing;
+            }
+        }
+
+        return forSymbol(profile, symbol);
+    }
+
+    /**
+     * Drops every profile and file digest held, so later curves are no longer shared with curves
+     * interned before.
+     */
+    public void clear() {
+        Sources.clear();
+        Profiles.clear();
+    }
+
+    /**
+     * Returns the number of distinct profiles held.
+     */
+    public int numberProfiles() {
+        return Profiles.size();
+    }
+
+    /**
+     * Returns the number of curves returned that share the buckets of an earlier curve.
+     */
+    public long getSharedCount() {
+        return SharedCount.sum();
+    }
+
+    private CurveData forSymbol(CurveData profile, String symbol) {
+        if (profile.getSymbol().equals(symbol)) {
+            return profile;
+        }
+
+        SharedCount.increment();
+        return profile.withSymbol(symbol);
+    }
+
+    private PackedCurve forSymbol(PackedCurve profile, String symbol) {
+        if (profile.getSymbol().equals(symbol)) {
+            return profile;
+        }
+
+        SharedCount.increment();
+        return profile.withSymbol(symbol);
+    }
+
+    /**
+     * The buckets of a curve, compared by the class of the curve and the time, volume and type of
+     * each bucket.
+     */
+    private static final class Profile {
+        private final Curve Buckets;
+        private final int Hash;
+
+        private Profile(Curve curve) {
+            Buckets = curve;
+            int hash = curve.getClass().hashCode();
+            for (int index = 0; index < curve.numberBuckets(); index++) {
+                CurveBucket bucket = curve.getBucket(index);
+                hash = 31 * hash + Long.hashCode(bucket.getStartTime().toNanoOfDay());
+                hash = 31 * hash + Long.hashCode(bucket.getEndTime().toNanoOfDay());
+                hash = 31 * hash + Double.hashCode(bucket.getPercentDayVolume());
+                hash = 31 * hash + bucket.getType().ordinal();
+            }
+            Hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Profile)) {
+                return false;
+            }
+
+            Curve other = ((Profile) obj).Buckets;
+            if (Hash != ((Profile) obj).Hash || Buckets.getClass() != other.getClass()
+                    || Buckets.numberBuckets() != other.numberBuckets()) {
+                return false;
+            }
+            for (int index = 0; index < Buckets.numberBuckets(); index++) {
+                CurveBucket bucket = Buckets.getBucket(index);
+                CurveBucket otherBucket = other.getBucket(index);
+                if (!bucket.getStartTime().equals(otherBucket.getStartTime())
+                        || !bucket.getEndTime().equals(otherBucket.getEndTime())
+                        || Double.compare(bucket.getPercentDayVolume(),
+                                otherBucket.getPercentDayVolume()) != 0
+                        || bucket.getType() != otherBucket.getType()) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * The SHA-256 digest of the bytes of a curve file.
+     */
+    private static final class Source {
+        private final byte[] Digest;
+        private final int Hash;
+
+        private Source(byte[] bytes) {
+            try {
+                Digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform is required to support SHA-256
+                throw new IllegalStateException(e);
+            }
+            Hash = Arrays.hashCode(Digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Source && Hash == ((Source) obj).Hash
+                    && Arrays.equals(Digest, ((Source) obj).Digest);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProfileCount=" + numberProfiles() + ", SharedCount=" + getSharedCount();
+    }
+}
@@ -0,0 +1,70 @@
+package com.effanville.curvedata;
+
+import java.time.Period;
+import java.util.Objects;
+
+/**
+ * Identifies a variant of the curve for a symbol: the lookback the curve was averaged over, e.g. 1
+ * or 2 weeks, and the type of day the curve is for, e.g. normal days or special days such as index
+ * rebalances. The symbol alone is not enough to identify a curve when several variants are held.
+ */
+public final class CurveKey {
+    public static final String NORMAL_DAY = "NORMAL";
+
+    private final String Symbol;
+    private final Period Lookback;
+    private final String DayType;
+
+    private CurveKey(String symbol, Period lookback, String dayType) {
+        Symbol = Objects.requireNonNull(symbol);
+        Lookback = Objects.requireNonNull(lookback);
+        DayType = Objects.requireNonNull(dayType);
+    }
+
+    /**
+     * Creates the key for the only curve of the symbol, with no lookback and for normal days.
+     */
+    public static CurveKey Of(String symbol) {
+        return new CurveKey(symbol, Period.ZERO, NORMAL_DAY);
+    }
+
+    public static CurveKey Of(String symbol, Period lookback, String dayType) {
+        return new CurveKey(symbol, lookback, dayType);
+    }
+
+    public String getSymbol() {
+        return Symbol;
+    }
+
+    public Period getLookback() {
+        return Lookback;
+    }
+
+    public String getDayType() {
+        return DayType;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CurveKey)) {
+            return false;
+        }
+
+        CurveKey other = (CurveKey) obj;
+        return Symbol.equals(other.Symbol) && Lookback.equals(other.Lookback)
+                && DayType.equals(other.DayType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Symbol, Lookback, DayType);
+    }
+
+    @Override
+    public String toString() {
+        return "Symbol='" + Symbol + "', Lookback=" + Lookback + ", DayType=" + DayType;
+    }
+}
@@ -0,0 +1,19 @@
+package com.effanville.curvedata;
+
+import java.io.IOException;
+
+/**
+ * Loads the curve identified by a {@link CurveKey}, e.g. by reading the file holding that variant
+ * of the curve with a {@link com.effanville.curvedata.IO.CurveCsvReader}.
+ */
+@FunctionalInterface
+public interface CurveLoader {
+    /**
+     * Loads the curve for the key.
+     *
+     * @param key The curve to load
+     * @return The curve, never null.
+     * @throws IOException if the curve cannot be loaded
+     */
+    Curve load(CurveKey key) throws IOException;
+}
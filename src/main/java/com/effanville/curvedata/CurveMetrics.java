@@ -0,0 +1,94 @@
+package com.effanville.curvedata;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Counts and latencies of curve operations, recorded by an {@link InstrumentedCurve} and by the
+ * readers and validators given the metrics. Nothing is recorded unless metrics are given, so
+ * instrumentation is off by default.
+ * <p>
+ * Reading the clock and updating shared counters both cost more than the fastest queries, so the
+ * queries of an instrumented curve can be sampled, with only one call in every sample interval
+ * timed, chosen at random. Every call is still counted exactly, with the other calls only paying
+ * for the count and the choice. Recording is lock free, so the metrics can be shared by every curve
+ * and thread. An interval of 1024 keeps the cost of an instrumented query within a few
+ * nanoseconds of the query itself, so can be left on in production.
+ */
+public final class CurveMetrics {
+    private static final CurveOperation[] OPERATIONS = CurveOperation.values();
+
+    private final LatencyHistogram[] Histograms;
+    private final int SampleMask;
+
+    private CurveMetrics(int sampleInterval) {
+        if (sampleInterval < 1 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException(
+                    "Sample interval must be a power of two, but was " + sampleInterval);
+        }
+
+        SampleMask = sampleInterval - 1;
+        Histograms = new LatencyHistogram[OPERATIONS.length];
+        for (int index = 0; index < OPERATIONS.length; index++) {
+            Histograms[index] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Creates metrics timing every call.
+     */
+    public static CurveMetrics Of() {
+        return new CurveMetrics(1);
+    }
+
+    /**
+     * Creates metrics timing one in every sample interval of calls.
+     *
+     * @param sampleInterval The number of calls per call timed, a power of two
+     * @return The metrics.
+     * @throws IllegalArgumentException if the interval is not a power of two
+     */
+    public static CurveMetrics Of(int sampleInterval) {
+        return new CurveMetrics(sampleInterval);
+    }
+
+    public LatencyHistogram getHistogram(CurveOperation operation) {
+        return Histograms[operation.ordinal()];
+    }
+
+    /**
+     * Counts a call of the operation, and returns whether the call is in the sample, so should be
+     * timed and recorded with {@link #recordSample(CurveOperation, long)}.
+     */
+    public boolean shouldSample(CurveOperation operation) {
+        Histograms[operation.ordinal()].count();
+        return SampleMask == 0 || (ThreadLocalRandom.current().nextInt() & SampleMask) == 0;
+    }
+
+    /**
+     * Records the latency of a call in the sample, which was counted when it was chosen.
+     */
+    public void recordSample(CurveOperation operation, long nanos) {
+        Histograms[operation.ordinal()].recordTimed(nanos);
+    }
+
+    /**
+     * Records the latency of a single call, which was not sampled.
+     */
+    public void record(CurveOperation operation, long nanos) {
+        Histograms[operation.ordinal()].record(nanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (CurveOperation operation : OPERATIONS) {
+            LatencyHistogram histogram = getHistogram(operation);
+            if (histogram.getCount() > 0) {
+                builder.append(operation).append(": ").append(histogram)
+                        .append(System.lineSeparator());
+            }
+        }
+
+        return builder.toString();
+    }
+}
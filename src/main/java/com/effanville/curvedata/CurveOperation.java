@@ -0,0 +1,26 @@
+package com.effanville.curvedata;
+
+/**
+ * The operations timed by {@link CurveMetrics}.
+ */
+public enum CurveOperation {
+    GET_VOLUME,
+    GET_RELATIVE_VOLUME,
+    GET_CUMULATIVE_VOLUMES,
+    GET_SESSION_VOLUME,
+    /**
+     * The volume of the buckets of one type between two times.
+     */
+    GET_VOLUME_OF_TYPE,
+    GET_TIME_FOR_VOLUME,
+    GET_EQUAL_VOLUME_TIMES,
+    /**
+     * Reading the bytes of a curve file.
+     */
+    READ_FILE,
+    /**
+     * Parsing the bytes of a curve file into a curve.
+     */
+    PARSE,
+    VALIDATE;
+}
@@ -0,0 +1,180 @@
+package com.effanville.curvedata;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Rebuckets curves onto a grid of bucket boundaries, either a fixed length grid from the start of
+ * the day or a custom list of slice boundaries.
+ * <p>
+ * Each bucket of the curve is split at the grid boundaries falling inside it, with the volume of
+ * each part given by the same linear interpolation as the volume queries of the curve,
+ * so the volume up until any boundary is unchanged. Parts within the same grid slice are merged
+ * back together only when they are adjacent and of the same {@link BucketType}, so a new bucket
+ * never spans two sessions. Curves are resampled in a single pass over the buckets of the curve
+ * and the grid, and bucket times are held to the whole second.
+ */
+public final class CurveResampler {
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final int[] Boundaries;
+
+    private CurveResampler(int[] boundaries) {
+        Boundaries = boundaries;
+    }
+
+    /**
+     * Creates a resampler onto buckets of the length given, starting from the start of the day.
+     *
+     * @param bucketLength The length of each bucket, a positive whole number of seconds
+     * @return The resampler for the grid.
+     * @throws IllegalArgumentException if the length is not a positive whole number of seconds
+     */
+    public static CurveResampler Of(Duration bucketLength) {
+        if (bucketLength.isNegative() || bucketLength.isZero() || bucketLength.getNano() != 0
+                || bucketLength.getSeconds() > SECONDS_PER_DAY) {
+            throw new IllegalArgumentException(
+                    "Bucket length must be a positive whole number of seconds, but was "
+                            + bucketLength);
+        }
+
+        int seconds = (int) bucketLength.getSeconds();
+        int[] boundaries = new int[(SECONDS_PER_DAY - 1) / seconds + 1];
+        for (int index = 0; index < boundaries.length; index++) {
+            boundaries[index] = index * seconds;
+        }
+
+        return new CurveResampler(boundaries);
+    }
+
+    /**
+     * Creates a resampler splitting buckets at each of the times given.
+     *
+     * @param boundaries The boundaries of the new buckets, sorted by time
+     * @return The resampler for the boundaries.
+     * @throws IllegalArgumentException if the boundaries are not strictly increasing
+     */
+    public static CurveResampler Of(List<LocalTime> boundaries) {
+        int[] seconds = new int[boundaries.size()];
+        for (int index = 0; index < seconds.length; index++) {
+            seconds[index] = boundaries.get(index).toSecondOfDay();
+            if (index > 0 && seconds[index] <= seconds[index - 1]) {
+                throw new IllegalArgumentException("Boundaries must be strictly increasing, but "
+                        + boundaries.get(index) + " follows " + boundaries.get(index - 1));
+            }
+        }
+
+        return new CurveResampler(seconds);
+    }
+
+    /**
+     * Resamples the curve onto the grid.
+     *
+     * @param curve The curve to resample, whose buckets must be ordered and not overlap
+     * @return The immutable resampled curve, with the same symbol.
+     * @throws IllegalArgumentException if the buckets of the curve overlap or end before they
+     *             start
+     */
+    public CurveData resample(Curve curve) {
+        CurveData.Builder builder = CurveData.Builder.Of(curve.getSymbol());
+        Pending pending = new Pending();
+        int boundary = 0;
+        int previousEnd = Integer.MIN_VALUE;
+        for (int index = 0; index < curve.numberBuckets(); index++) {
+            CurveBucket bucket = curve.getBucket(index);
+            int start = bucket.getStartTime().toSecondOfDay();
+            int end = bucket.getEndTime().toSecondOfDay();
+            if (start > end || previousEnd > start) {
+                throw new IllegalArgumentException("Curve for " + curve.getSymbol()
+                        + " must have ordered buckets to be resampled, but bucket " + index
+                        + " is " + bucket.getStartTime() + "-" + bucket.getEndTime());
+            }
+            previousEnd = end;
+
+            if (start == end) {
+                pending.flush(builder);
+                builder.addBucket(CurveBucket.Of(LocalTime.ofSecondOfDay(start),
+                        LocalTime.ofSecondOfDay(end), bucket.getPercentDayVolume(),
+                        bucket.getType()));
+                continue;
+            }
+
+            while (boundary < Boundaries.length && Boundaries[boundary] <= start) {
+                boundary++;
+            }
+            boolean startsSlice = boundary > 0 && Boundaries[boundary - 1] == start;
+            int partStart = start;
+            double volumeBefore = 0;
+            while (partStart < end) {
+                int partEnd = end;
+                if (boundary < Boundaries.length && Boundaries[boundary] < end) {
+                    partEnd = Boundaries[boundary];
+                    boundary++;
+                }
+
+                double volumeTime = (double) (partEnd - start) / (double) (end - start);
+                double volumeAfter = volumeTime * bucket.getPercentDayVolume();
+                pending.add(builder, partStart, partEnd, volumeAfter - volumeBefore,
+                        bucket.getType(), startsSlice);
+                volumeBefore = volumeAfter;
+                partStart = partEnd;
+                startsSlice = true;
+            }
+        }
+
+        pending.flush(builder);
+        return builder.build();
+    }
+
+    /**
+     * Resamples each of the curves onto the grid, resampling the curves in parallel.
+     *
+     * @param curves The curves to resample
+     * @return The resampled curves, in the order of the curves given.
+     * @throws IllegalArgumentException if any curve cannot be resampled
+     */
+    public List<CurveData> resampleAll(Collection<? extends Curve> curves) {
+        return curves.parallelStream().map(this::resample).collect(Collectors.toList());
+    }
+
+    /**
+     * The new bucket being built, which parts of buckets are merged into until a slice boundary,
+     * a change of bucket type or a gap between buckets.
+     */
+    private static final class Pending {
+        private boolean Empty = true;
+        private int Start;
+        private int End;
+        private double Volume;
+        private BucketType Type;
+
+        private void add(CurveData.Builder builder, int start, int end, double volume,
+                BucketType type, boolean startsSlice) {
+            if (!Empty && !startsSlice && End == start && Type == type) {
+                End = end;
+                Volume += volume;
+                return;
+            }
+
+            flush(builder);
+            Empty = false;
+            Start = start;
+            End = end;
+            Volume = volume;
+            Type = type;
+        }
+
+        private void flush(CurveData.Builder builder) {
+            if (Empty) {
+                return;
+            }
+
+            builder.addBucket(CurveBucket.Of(LocalTime.ofSecondOfDay(Start),
+                    LocalTime.ofSecondOfDay(End), Volume, Type));
+            Empty = true;
+        }
+    }
+}
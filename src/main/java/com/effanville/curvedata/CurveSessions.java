@@ -0,0 +1,157 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+
+/**
+ * A view of a curve split by {@link BucketType}, computed once per curve. For each type this
+ * holds the {@link SessionAggregate} of its buckets, and an index of the cumulative volume of
+ * only the buckets of that type.
+ * <p>
+ * The volume of a session is then found in constant time, and the volume of a session between two
+ * times by binary search, using the same interpolation within a bucket as the curve. As with a
+ * {@link PackedCurve}, bucket times are held to the whole second.
+ */
+public final class CurveSessions {
+    private static final BucketType[] BUCKET_TYPES = BucketType.values();
+
+    private final SessionAggregate[] Sessions;
+    private final CurveIndex[] Indices;
+
+    private CurveSessions(SessionAggregate[] sessions, CurveIndex[] indices) {
+        Sessions = sessions;
+        Indices = indices;
+    }
+
+    /**
+     * Computes the sessions of the curve in a single pass over its buckets.
+     */
+    public static CurveSessions Of(Curve curve) {
+        int length = curve.numberBuckets();
+        int[] counts = new int[BUCKET_TYPES.length];
+        BucketType[] types = new BucketType[length];
+        for (int index = 0; index < length; index++) {
+            types[index] = curve.getBucket(index).getType();
+            counts[types[index].ordinal()]++;
+        }
+
+        int[][] startSeconds = new int[BUCKET_TYPES.length][];
+        int[][] endSeconds = new int[BUCKET_TYPES.length][];
+        double[][] volumes = new double[BUCKET_TYPES.length][];
+        for (int type = 0; type < BUCKET_TYPES.length; type++) {
+            startSeconds[type] = new int[counts[type]];
+            endSeconds[type] = new int[counts[type]];
+            volumes[type] = new double[counts[type]];
+        }
+
+        int[] filled = new int[BUCKET_TYPES.length];
+        int[] firstBuckets = new int[BUCKET_TYPES.length];
+        int[] lastBuckets = new int[BUCKET_TYPES.length];
+        LocalTime[] startTimes = new LocalTime[BUCKET_TYPES.length];
+        LocalTime[] endTimes = new LocalTime[BUCKET_TYPES.length];
+        double[] totals = new double[BUCKET_TYPES.length];
+        for (int index = 0; index < length; index++) {
+            CurveBucket bucket = curve.getBucket(index);
+            int type = types[index].ordinal();
+            int position = filled[type]++;
+            startSeconds[type][position] = bucket.getStartTime().toSecondOfDay();
+            endSeconds[type][position] = bucket.getEndTime().toSecondOfDay();
+            volumes[type][position] = bucket.getPercentDayVolume();
+            totals[type] += bucket.getPercentDayVolume();
+
+            if (position == 0) {
+                firstBuckets[type] = index;
+                startTimes[type] = bucket.getStartTime();
+                endTimes[type] = bucket.getEndTime();
+            }
+            lastBuckets[type] = index;
+            if (bucket.getStartTime().isBefore(startTimes[type])) {
+                startTimes[type] = bucket.getStartTime();
+            }
+            if (bucket.getEndTime().isAfter(endTimes[type])) {
+                endTimes[type] = bucket.getEndTime();
+            }
+        }
+
+        SessionAggregate[] sessions = new SessionAggregate[BUCKET_TYPES.length];
+        CurveIndex[] indices = new CurveIndex[BUCKET_TYPES.length];
+        for (int type = 0; type < BUCKET_TYPES.length; type++) {
+            if (counts[type] == 0) {
+                continue;
+            }
+            sessions[type] = new SessionAggregate(BUCKET_TYPES[type], totals[type],
+                    startTimes[type], endTimes[type], firstBuckets[type], lastBuckets[type],
+                    counts[type]);
+            indices[type] = new CurveIndex(startSeconds[type], endSeconds[type], volumes[type]);
+        }
+
+        return new CurveSessions(sessions, indices);
+    }
+
+    /**
+     * Returns the aggregate of the buckets of the type given, or null if the curve has no such
+     * buckets.
+     */
+    public SessionAggregate getSession(BucketType type) {
+        return Sessions[type.ordinal()];
+    }
+
+    /**
+     * Returns the total volume of the buckets of the type given.
+     */
+    public double getSessionVolume(BucketType type) {
+        SessionAggregate session = Sessions[type.ordinal()];
+        return session == null ? 0.0 : session.getVolume();
+    }
+
+    /**
+     * Returns the volume between the two times of only the buckets of the type given.
+     */
+    public double getVolume(LocalTime start, LocalTime end, BucketType type) {
+        CurveIndex index = Indices[type.ordinal()];
+        if (index == null || end.isBefore(start)) {
+            return 0.0;
+        }
+
+        return index.cumulativeVolume(end.toNanoOfDay())
+                - index.cumulativeVolume(start.toNanoOfDay());
+    }
+
+    /**
+     * Holds the sessions of a curve once computed, so that a curve computes its sessions on first
+     * use and then only again after its buckets change. Immutable curves with the same buckets may
+     * share a holder.
+     * <p>
+     * This is for use by implementations of {@link Curve}.
+     */
+    public static final class Holder {
+        private volatile CurveSessions Sessions;
+
+        private Holder() {
+        }
+
+        public static Holder Of() {
+            return new Holder();
+        }
+
+        /**
+         * Returns the sessions held, computing and holding the sessions of the curve given if
+         * there are none.
+         */
+        public CurveSessions get(Curve curve) {
+            CurveSessions sessions = Sessions;
+            if (sessions == null) {
+                sessions = CurveSessions.Of(curve);
+                Sessions = sessions;
+            }
+
+            return sessions;
+        }
+
+        /**
+         * Drops the sessions held, for when the buckets of the curve have changed.
+         */
+        public void clear() {
+            Sessions = null;
+        }
+    }
+}
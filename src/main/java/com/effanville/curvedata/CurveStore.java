@@ -0,0 +1,220 @@
+package com.effanville.curvedata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the curves for a whole universe of symbols, keyed by {@link Curve#getSymbol()}.
+ * <p>
+ * The curves are held in an immutable map that is replaced as a whole whenever the store is
+ * changed. Readers only read the current map, so any number of threads can look up curves at the
+ * same time without locking, and a reader either sees the curve set from before a change or the
+ * one from after it, never a mixture of the two. Writers build the new map away from readers and
+ * publish it with a single atomic swap.
+ * <p>
+ * The curves held should not be changed once added into the store, so ideally should be immutable
+ * curves such as those created by a {@link CurveData.Builder} or a {@link PackedCurve}.
+ */
+public final class CurveStore {
+    private final AtomicReference<Map<String, Curve>> Curves;
+
+    private CurveStore(Map<String, Curve> curves) {
+        Curves = new AtomicReference<>(curves);
+    }
+
+    public static CurveStore Of() {
+        return new CurveStore(Map.of());
+    }
+
+    public static CurveStore Of(Collection<? extends Curve> curves) {
+        return new CurveStore(toMap(curves));
+    }
+
+    /**
+     * Returns the curve for the symbol, or null if there is no such curve.
+     *
+     * @param symbol The symbol of the curve to return
+     * @return The curve for the symbol.
+     */
+    public Curve get(String symbol) {
+        return Curves.get().get(symbol);
+    }
+
+    public boolean contains(String symbol) {
+        return Curves.get().containsKey(symbol);
+    }
+
+    public int size() {
+        return Curves.get().size();
+    }
+
+    public Set<String> symbols() {
+        return Curves.get().keySet();
+    }
+
+    /**
+     * Returns the current curve set. This does not change when the store is later updated, so can
+     * be used when a consistent view over several lookups is needed.
+     *
+     * @return An immutable map of symbol to curve.
+     */
+    public Map<String, Curve> snapshot() {
+        return Curves.get();
+    }
+
+    /**
+     * Replaces the whole curve set with the curves given, in one atomic step.
+     *
+     * @param curves The curves to replace the current set with
+     * @return The curve set that was replaced.
+     */
+    public Map<String, Curve> replaceAll(Collection<? extends Curve> curves) {
+        return Curves.getAndSet(toMap(curves));
+    }
+
+    /**
+     * Adds the curve into the store, replacing any curve for the same symbol.
+     *
+     * @param curve The curve to add
+     * @return The curve previously held for the symbol, or null if there was none.
+     */
+    public Curve put(Curve curve) {
+        return putAll(List.of(curve)).get(curve.getSymbol());
+    }
+
+    /**
+     * Adds the curves into the store in one atomic step, replacing any curves for the same
+     * symbols and keeping all other curves.
+     *
+     * @param curves The curves to add
+     * @return The curve set that was replaced.
+     */
+    public Map<String, Curve> putAll(Collection<? extends Curve> curves) {
+        while (true) {
+            Map<String, Curve> current = Curves.get();
+            Map<String, Curve> changes = new HashMap<>();
+            for (Curve curve : curves) {
+                changes.put(curve.getSymbol(), curve);
+            }
+
+            if (Curves.compareAndSet(current, withChanges(current, changes))) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Replaces the curve for the symbol with the result of the update, in one atomic step. The
+     * update may be applied more than once if other writers change the store at the same time, so
+     * should only create the new curve, such as by {@link Curve#withBucketVolume(int, double)}.
+     *
+     * @param symbol The symbol of the curve to update
+     * @param update The function creating the new curve from the current curve
+     * @return The updated curve, or null if there is no curve for the symbol.
+     */
+    public Curve update(String symbol, UnaryOperator<Curve> update) {
+        Map<String, Curve> updated = updateAll(List.of(symbol), update);
+        return updated.get(symbol);
+    }
+
+    /**
+     * Replaces the curve for each of the symbols with the result of the update, publishing all of
+     * the new curves in one atomic step. Symbols without a curve are ignored. The update may be
+     * applied more than once if other writers change the store at the same time.
+     *
+     * @param symbols The symbols of the curves to update
+     * @param update The function creating each new curve from the current curve
+     * @return The curve set after the update.
+     */
+    public Map<String, Curve> updateAll(Collection<String> symbols, UnaryOperator<Curve> update) {
+        while (true) {
+            Map<String, Curve> current = Curves.get();
+            Map<String, Curve> changes = new HashMap<>();
+            for (String symbol : symbols) {
+                Curve curve = current.get(symbol);
+                if (curve != null) {
+                    changes.put(symbol, update.apply(curve));
+                }
+            }
+
+            Map<String, Curve> published = withChanges(current, changes);
+            if (Curves.compareAndSet(current, published)) {
+                return published;
+            }
+        }
+    }
+
+    /**
+     * Removes the curve for the symbol from the store.
+     *
+     * @param symbol The symbol of the curve to remove
+     * @return The curve removed, or null if there was none.
+     */
+    public Curve remove(String symbol) {
+        while (true) {
+            Map<String, Curve> current = Curves.get();
+            Curve curve = current.get(symbol);
+            if (curve == null) {
+                return null;
+            }
+
+            Map<String, Curve> removal = Collections.singletonMap(symbol, null);
+            if (Curves.compareAndSet(current, withChanges(current, removal))) {
+                return curve;
+            }
+        }
+    }
+
+    /**
+     * Returns the immutable curve set with the changes given, where a symbol changed to null is
+     * removed. The new map is built directly from the entries kept and changed, rather than by
+     * copying the whole curve set into a mutable map and then copying that again.
+     */
+    private static Map<String, Curve> withChanges(Map<String, Curve> current,
+            Map<String, Curve> changes) {
+        List<Map.Entry<String, Curve>> entries =
+                new ArrayList<>(current.size() + changes.size());
+        for (Map.Entry<String, Curve> entry : current.entrySet()) {
+            if (!changes.containsKey(entry.getKey())) {
+                entries.add(entry);
+            }
+        }
+        for (Map.Entry<String, Curve> change : changes.entrySet()) {
+            if (change.getValue() != null) {
+                entries.add(Map.entry(change.getKey(), change.getValue()));
+            }
+        }
+
+        return Map.ofEntries(toArray(entries));
+    }
+
+    /**
+     * Returns the entries as an array typed for {@link Map#ofEntries(Map.Entry...)}. The array
+     * only ever holds the entries given, so the cast cannot fail.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map.Entry<String, Curve>[] toArray(List<Map.Entry<String, Curve>> entries) {
+        return entries.toArray((Map.Entry<String, Curve>[]) new Map.Entry<?, ?>[entries.size()]);
+    }
+
+    private static Map<String, Curve> toMap(Collection<? extends Curve> curves) {
+        Map<String, Curve> map = new HashMap<>();
+        for (Curve curve : curves) {
+            map.put(curve.getSymbol(), curve);
+        }
+
+        return Map.copyOf(map);
+    }
+
+    @Override
+    public String toString() {
+        return "CurveCount=" + size();
+    }
+}
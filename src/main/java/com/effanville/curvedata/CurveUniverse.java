@@ -0,0 +1,300 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Answers one query for every curve of a universe of symbols at once, such as the percentage of
+ * daily volume each symbol trades between 15:50 and 16:10.
+ * <p>
+ * The buckets of every curve are laid out one curve after another in a single set of primitive
+ * arrays, with the cumulative volume up until the start of each bucket, so a query over the whole
+ * universe is a pass through contiguous memory with one binary search per symbol, using the
+ * search and interpolation of {@link BucketColumns} over the range of each curve. The symbols are
+ * split into blocks that are queried in parallel. Results are returned as an array holding the
+ * value for each symbol at its index in {@link #getSymbols()}, giving exactly the values that the
+ * query of each curve on its own gives.
+ * <p>
+ * Curves whose buckets cannot be laid out in this way, because they are not ordered or have
+ * bucket times that are not whole seconds, are instead queried directly. The universe holds the
+ * curves as they were when it was created, so should be recreated when the curve set changes.
+ */
+public final class CurveUniverse {
+    private static final int BLOCK_SIZE = 1024;
+
+    private final String[] Symbols;
+    private final Map<String, Integer> Indexes;
+    private final int[] Offsets;
+    private final BucketColumns Columns;
+
+    /**
+     * The curve for each symbol whose buckets are not laid out in the arrays, otherwise null.
+     */
+    private final Curve[] Unindexed;
+
+    private CurveUniverse(List<? extends Curve> curves) {
+        int length = curves.size();
+        Symbols = new String[length];
+        Indexes = new HashMap<>(2 * length);
+        Offsets = new int[length + 1];
+        Unindexed = new Curve[length];
+
+        int bucketCount = 0;
+        for (Curve curve : curves) {
+            bucketCount += curve.numberBuckets();
+        }
+        int[] startSeconds = new int[bucketCount];
+        int[] endSeconds = new int[bucketCount];
+        double[] volumes = new double[bucketCount];
+        double[] volumesBefore = new double[bucketCount];
+
+        int offset = 0;
+        for (int index = 0; index < length; index++) {
+            Curve curve = curves.get(index);
+            Symbols[index] = curve.getSymbol();
+            Indexes.put(curve.getSymbol(), index);
+            Offsets[index] = offset;
+            if (addBuckets(curve, offset, startSeconds, endSeconds, volumes, volumesBefore)) {
+                offset += curve.numberBuckets();
+            } else {
+                Unindexed[index] = curve;
+            }
+        }
+        Offsets[length] = offset;
+
+        Columns = BucketColumns.ofSeconds(Arrays.copyOf(startSeconds, offset),
+                Arrays.copyOf(endSeconds, offset), Arrays.copyOf(volumes, offset),
+                Arrays.copyOf(volumesBefore, offset), true);
+    }
+
+    /**
+     * Creates the universe of the curves given, with the symbols in the order of the curves.
+     *
+     * @param curves The curves, each with a different symbol
+     * @return The universe of the curves.
+     * @throws IllegalArgumentException if two curves have the same symbol
+     */
+    public static CurveUniverse Of(Collection<? extends Curve> curves) {
+        List<Curve> list = new ArrayList<>(curves);
+        CurveUniverse universe = new CurveUniverse(list);
+        if (universe.Indexes.size() != list.size()) {
+            throw new IllegalArgumentException("Curves must each have a different symbol");
+        }
+
+        return universe;
+    }
+
+    /**
+     * Creates the universe of the curves currently held in the store, with the symbols sorted.
+     *
+     * @param store The store holding the curves
+     * @return The universe of the curves in the store.
+     */
+    public static CurveUniverse Of(CurveStore store) {
+        Map<String, Curve> snapshot = store.snapshot();
+        List<String> symbols = new ArrayList<>(snapshot.keySet());
+        symbols.sort(null);
+        List<Curve> curves = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            curves.add(snapshot.get(symbol));
+        }
+
+        return new CurveUniverse(curves);
+    }
+
+    /**
+     * Copies the buckets of the curve into the arrays from the offset given, returning false if
+     * the curve cannot be indexed.
+     */
+    private static boolean addBuckets(Curve curve, int offset, int[] startSeconds,
+            int[] endSeconds, double[] volumes, double[] volumesBefore) {
+        double volumeBefore = 0;
+        for (int index = 0; index < curve.numberBuckets(); index++) {
+            CurveBucket bucket = curve.getBucket(index);
+            LocalTime startTime = bucket.getStartTime();
+            LocalTime endTime = bucket.getEndTime();
+            if (startTime.getNano() != 0 || endTime.getNano() != 0 || startTime.isAfter(endTime)) {
+                return false;
+            }
+
+            int bucketIndex = offset + index;
+            startSeconds[bucketIndex] = startTime.toSecondOfDay();
+            endSeconds[bucketIndex] = endTime.toSecondOfDay();
+            if (index > 0 && endSeconds[bucketIndex - 1] > startSeconds[bucketIndex]) {
+                return false;
+            }
+
+            volumes[bucketIndex] = bucket.getPercentDayVolume();
+            volumesBefore[bucketIndex] = volumeBefore;
+            volumeBefore += bucket.getPercentDayVolume();
+        }
+
+        return true;
+    }
+
+    public int size() {
+        return Symbols.length;
+    }
+
+    /**
+     * Returns the symbols of the universe, in the order of the values returned by the queries.
+     */
+    public List<String> getSymbols() {
+        return List.of(Symbols);
+    }
+
+    public String getSymbol(int index) {
+        return Symbols[index];
+    }
+
+    /**
+     * Returns the index of the symbol in the values returned by the queries, or -1 if the symbol
+     * is not in the universe.
+     */
+    public int indexOf(String symbol) {
+        Integer index = Indexes.get(symbol);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the volume of every curve between the two times.
+     *
+     * @param start the time to calculate volume from
+     * @param end the time to calculate volume until
+     * @return the volume of the curve for each symbol, at the index of the symbol.
+     */
+    public double[] getVolumes(LocalTime start, LocalTime end) {
+        double[] volumes = new double[size()];
+        getVolumesNanos(start.toNanoOfDay(), end.toNanoOfDay(), volumes);
+        return volumes;
+    }
+
+    /**
+     * Calculates the volume of every curve between the two times, given as nanoseconds of the
+     * day, into the array given.
+     *
+     * @param startNanoOfDay the nanosecond of the day to calculate volume from
+     * @param endNanoOfDay the nanosecond of the day to calculate volume until
+     * @param volumes the array to hold the volume of the curve for each symbol
+     * @throws IllegalArgumentException if the array is not the size of the universe
+     */
+    public void getVolumesNanos(long startNanoOfDay, long endNanoOfDay, double[] volumes) {
+        checkResultLength(volumes);
+        forEachBlock(volumes, (from, to) -> {
+            for (int index = from; index < to; index++) {
+                volumes[index] = volume(index, startNanoOfDay, endNanoOfDay);
+            }
+        });
+    }
+
+    /**
+     * Returns the volume of every curve at the time relative to the volume between the start and
+     * end times.
+     *
+     * @param start the time to calculate volume from
+     * @param end the time to calculate volume until
+     * @param time the time to calculate the relative volume
+     * @return the relative volume of the curve for each symbol, at the index of the symbol.
+     */
+    public double[] getRelativeVolumes(LocalTime start, LocalTime end, LocalTime time) {
+        double[] volumes = new double[size()];
+        getRelativeVolumesNanos(start.toNanoOfDay(), end.toNanoOfDay(), time.toNanoOfDay(),
+                volumes);
+        return volumes;
+    }
+
+    /**
+     * Calculates the relative volume of every curve, with the times given as nanoseconds of the
+     * day, into the array given.
+     *
+     * @throws IllegalArgumentException if the array is not the size of the universe
+     */
+    public void getRelativeVolumesNanos(long startNanoOfDay, long endNanoOfDay, long nanoOfDay,
+            double[] volumes) {
+        checkResultLength(volumes);
+        forEachBlock(volumes, (from, to) -> {
+            for (int index = from; index < to; index++) {
+                volumes[index] =
+                        relativeVolume(index, startNanoOfDay, endNanoOfDay, nanoOfDay);
+            }
+        });
+    }
+
+    /**
+     * Returns the values of a query keyed by symbol.
+     *
+     * @param values the values returned by a query of this universe
+     * @return the value for each symbol, in the order of the symbols.
+     */
+    public Map<String, Double> toMap(double[] values) {
+        checkResultLength(values);
+        Map<String, Double> map = new LinkedHashMap<>(2 * values.length);
+        for (int index = 0; index < values.length; index++) {
+            map.put(Symbols[index], values[index]);
+        }
+
+        return map;
+    }
+
+    /**
+     * Returns the volume of the curve at the index between the times, matching
+     * {@link Curve#getVolumeNanos(long, long)}.
+     */
+    private double volume(int index, long startNanos, long endNanos) {
+        Curve curve = Unindexed[index];
+        if (curve != null) {
+            return curve.getVolumeNanos(startNanos, endNanos);
+        }
+
+        return Columns.volume(Offsets[index], Offsets[index + 1], startNanos, endNanos);
+    }
+
+    private double relativeVolume(int index, long startNanos, long endNanos, long nanoOfDay) {
+        Curve curve = Unindexed[index];
+        if (curve != null) {
+            return curve.getRelativeVolumeNanos(startNanos, endNanos, nanoOfDay);
+        }
+
+        return Columns.relativeVolume(Offsets[index], Offsets[index + 1], startNanos, endNanos,
+                nanoOfDay);
+    }
+
+    private void checkResultLength(double[] values) {
+        if (values.length != size()) {
+            throw new IllegalArgumentException("Expected " + size() + " values, but there are "
+                    + values.length);
+        }
+    }
+
+    /**
+     * Runs the query over blocks of consecutive symbols, in parallel when there is more than one
+     * block.
+     */
+    private void forEachBlock(double[] values, BlockQuery query) {
+        int blocks = (values.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (blocks <= 1) {
+            query.run(0, values.length);
+            return;
+        }
+
+        IntStream.range(0, blocks).parallel().forEach(block -> query.run(block * BLOCK_SIZE,
+                Math.min(values.length, (block + 1) * BLOCK_SIZE)));
+    }
+
+    @FunctionalInterface
+    private interface BlockQuery {
+        void run(int from, int to);
+    }
+
+    @Override
+    public String toString() {
+        return "SymbolCount=" + size() + ", BucketCount=" + Offsets[size()];
+    }
+}
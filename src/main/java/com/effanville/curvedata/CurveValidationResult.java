@@ -0,0 +1,42 @@
+package com.effanville.curvedata;
+
+import java.util.List;
+
+/**
+ * The outcome of validating a curve, holding the violations found.
+ */
+public final class CurveValidationResult {
+    private final String Symbol;
+    private final List<CurveViolation> Violations;
+
+    private CurveValidationResult(String symbol, List<CurveViolation> violations) {
+        Symbol = symbol;
+        Violations = List.copyOf(violations);
+    }
+
+    public static CurveValidationResult Of(String symbol, List<CurveViolation> violations) {
+        return new CurveValidationResult(symbol, violations);
+    }
+
+    public String getSymbol() {
+        return Symbol;
+    }
+
+    /**
+     * Returns the violations found. When validated in {@link ValidationMode#FAIL_FAST} mode this
+     * holds at most the first violation.
+     */
+    public List<CurveViolation> getViolations() {
+        return Violations;
+    }
+
+    public boolean isValid() {
+        return Violations.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Symbol='" + Symbol + "', Valid=" + isValid() + ", ViolationCount="
+                + Violations.size();
+    }
+}
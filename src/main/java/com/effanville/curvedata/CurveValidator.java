@@ -0,0 +1,180 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Validates curves against every {@link ValidationRule} in a single pass over the buckets of the
+ * curve, reporting each violation found with the rule broken, the bucket and the offending value.
+ * <p>
+ * In {@link ValidationMode#FAIL_FAST} mode validation stops at the first violation, which is the
+ * mode to use when reloading curves, while {@link ValidationMode#COLLECT_ALL} reports every
+ * violation for data quality reports. If given {@link CurveMetrics}, the time taken to validate
+ * each curve is recorded.
+ */
+public final class CurveValidator {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double VOLUME_TOLERANCE = 1e-8;
+
+    private final ValidationMode Mode;
+    private final CurveMetrics Metrics;
+
+    private CurveValidator(ValidationMode mode, CurveMetrics metrics) {
+        Mode = mode;
+        Metrics = metrics;
+    }
+
+    public static CurveValidator Of(ValidationMode mode) {
+        return new CurveValidator(mode, null);
+    }
+
+    public static CurveValidator Of(ValidationMode mode, CurveMetrics metrics) {
+        return new CurveValidator(mode, metrics);
+    }
+
+    /**
+     * Returns whether the curve is valid, stopping at the first violation and without recording
+     * what the violation was.
+     *
+     * @param curve The curve to validate
+     * @return true if the curve breaks none of the rules.
+     */
+    public boolean isValid(Curve curve) {
+        return check(curve, null);
+    }
+
+    /**
+     * Validates the curve, recording the violations found.
+     *
+     * @param curve The curve to validate
+     * @return The violations of the curve.
+     */
+    public CurveValidationResult validate(Curve curve) {
+        List<CurveViolation> violations = new ArrayList<>();
+        check(curve, violations);
+        return CurveValidationResult.Of(curve.getSymbol(), violations);
+    }
+
+    /**
+     * Validates each of the curves, validating the curves in parallel.
+     *
+     * @param curves The curves to validate
+     * @return The result for each curve, in the order of the curves given.
+     */
+    public List<CurveValidationResult> validateAll(Collection<? extends Curve> curves) {
+        return curves.parallelStream().map(this::validate).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns whether the range of buckets of the columns given is a valid curve, stopping at the
+     * first violation. The columns must hold times of the day. This validates curves held in
+     * columns without creating a {@link CurveBucket} for each of their buckets.
+     *
+     * @param columns The columns holding the buckets of the curve
+     * @param from The index of the first bucket of the curve
+     * @param to The index after the last bucket of the curve
+     * @return true if the curve breaks none of the rules.
+     */
+    public boolean isValid(BucketColumns columns, int from, int to) {
+        return check(from, to, columns::startNanos, columns::endNanos, columns::volume, null);
+    }
+
+    private boolean check(Curve curve, List<CurveViolation> violations) {
+        return check(0, curve.numberBuckets(),
+                index -> curve.getBucket(index).getStartTime().toNanoOfDay(),
+                index -> curve.getBucket(index).getEndTime().toNanoOfDay(),
+                index -> curve.getBucket(index).getPercentDayVolume(), violations);
+    }
+
+    /**
+     * Checks the rules, recording the time taken if metrics were given.
+     */
+    private boolean check(int from, int to, IntToLongFunction startNanos,
+            IntToLongFunction endNanos, IntToDoubleFunction volumes,
+            List<CurveViolation> violations) {
+        if (Metrics == null) {
+            return checkRules(from, to, startNanos, endNanos, volumes, violations);
+        }
+
+        long start = System.nanoTime();
+        boolean valid = checkRules(from, to, startNanos, endNanos, volumes, violations);
+        Metrics.record(CurveOperation.VALIDATE, System.nanoTime() - start);
+        return valid;
+    }
+
+    /**
+     * Checks the rules in one pass over the buckets from the first index given up until the last,
+     * with the bucket times as nanoseconds of the day. Violations are only recorded if a list is
+     * given, otherwise the check stops at the first violation.
+     */
+    private boolean checkRules(int from, int to, IntToLongFunction startNanos,
+            IntToLongFunction endNanos, IntToDoubleFunction volumes,
+            List<CurveViolation> violations) {
+        boolean failFast = violations == null || Mode == ValidationMode.FAIL_FAST;
+        boolean valid = true;
+        double totalVolume = 0;
+        long previousEnd = -1;
+        for (int index = from; index < to; index++) {
+            long start = startNanos.applyAsLong(index);
+            long end = endNanos.applyAsLong(index);
+            double volume = volumes.applyAsDouble(index);
+
+            if (index > from && previousEnd > start) {
+                valid = false;
+                if (violations != null) {
+                    violations.add(CurveViolation.Of(ValidationRule.OVERLAPPING_BUCKETS,
+                            index - from, secondsBetween(start, previousEnd),
+                            "Bucket starts at " + LocalTime.ofNanoOfDay(start)
+                                    + " before the previous bucket ends at "
+                                    + LocalTime.ofNanoOfDay(previousEnd)));
+                }
+                if (failFast)
+                    return false;
+            }
+
+            if (volume < 0) {
+                valid = false;
+                if (violations != null) {
+                    violations.add(CurveViolation.Of(ValidationRule.NEGATIVE_VOLUME, index - from,
+                            volume, "Bucket has negative volume " + volume));
+                }
+                if (failFast)
+                    return false;
+            }
+
+            if (start > end) {
+                valid = false;
+                if (violations != null) {
+                    violations.add(CurveViolation.Of(ValidationRule.START_AFTER_END, index - from,
+                            secondsBetween(end, start), "Bucket starts at "
+                                    + LocalTime.ofNanoOfDay(start) + " after it ends at "
+                                    + LocalTime.ofNanoOfDay(end)));
+                }
+                if (failFast)
+                    return false;
+            }
+
+            totalVolume += volume;
+            previousEnd = end;
+        }
+
+        if (!(Math.abs(totalVolume - 100) < VOLUME_TOLERANCE)) {
+            valid = false;
+            if (violations != null) {
+                violations.add(CurveViolation.Of(ValidationRule.VOLUME_NOT_100, -1, totalVolume,
+                        "Total volume is " + totalVolume + " rather than 100"));
+            }
+        }
+
+        return valid;
+    }
+
+    private static double secondsBetween(long startNanos, long endNanos) {
+        return (endNanos - startNanos) / NANOS_PER_SECOND;
+    }
+}
@@ -0,0 +1,53 @@
+package com.effanville.curvedata;
+
+/**
+ * A single failure of a curve to meet a {@link ValidationRule}.
+ */
+public final class CurveViolation {
+    private final ValidationRule Rule;
+    private final int BucketIndex;
+    private final double Value;
+    private final String Message;
+
+    private CurveViolation(ValidationRule rule, int bucketIndex, double value, String message) {
+        Rule = rule;
+        BucketIndex = bucketIndex;
+        Value = value;
+        Message = message;
+    }
+
+    public static CurveViolation Of(ValidationRule rule, int bucketIndex, double value,
+            String message) {
+        return new CurveViolation(rule, bucketIndex, value, message);
+    }
+
+    public ValidationRule getRule() {
+        return Rule;
+    }
+
+    /**
+     * Returns the index of the bucket breaking the rule, or -1 if the rule applies to the whole
+     * curve.
+     */
+    public int getBucketIndex() {
+        return BucketIndex;
+    }
+
+    /**
+     * Returns the value breaking the rule: the seconds of overlap for overlapping buckets, the
+     * volume for negative volume, the seconds the start is after the end, or the total volume.
+     */
+    public double getValue() {
+        return Value;
+    }
+
+    public String getMessage() {
+        return Message;
+    }
+
+    @Override
+    public String toString() {
+        return "Rule=" + Rule + ", Bucket=" + BucketIndex + ", Value=" + Value + ", Message='"
+                + Message + "'";
+    }
+}
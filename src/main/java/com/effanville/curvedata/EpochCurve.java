@@ -0,0 +1,359 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.CurveIndex.NANOS_PER_SECOND;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * An immutable volume curve whose buckets are placed on a time axis of nanoseconds since the
+ * epoch rather than times of the day, so that a curve can cross midnight and span several days,
+ * such as a futures session opening in the evening or an aggregate curve over a whole week.
+ * <p>
+ * As in {@link PackedCurve} the buckets are held column by column in primitive arrays along with
+ * the cumulative volume up until the start of each bucket, so the volume between two instants is
+ * found by a binary search and a single linear interpolation within a bucket, with the
+ * {@link BucketColumns} shared with the day curves. The buckets must be added in time order and
+ * must not overlap, but there may be gaps between them.
+ * <p>
+ * The volumes are kept as given, so a curve made from several day curves has a total volume of
+ * 100 for each day. {@link #getRelativeVolume(long, long, long)} gives volumes relative to any
+ * range of the curve.
+ */
+public final class EpochCurve {
+    private static final BucketType[] BUCKET_TYPES = BucketType.values();
+
+    private final String Symbol;
+    private final long[] StartNanos;
+    private final long[] EndNanos;
+    private final double[] Volumes;
+    private final byte[] Types;
+    private final double[] CumulativeVolumes;
+    private final BucketColumns Columns;
+
+    private EpochCurve(String symbol, long[] startNanos, long[] endNanos, double[] volumes,
+            byte[] types) {
+        Symbol = symbol;
+        StartNanos = startNanos;
+        EndNanos = endNanos;
+        Volumes = volumes;
+        Types = types;
+        CumulativeVolumes = new double[volumes.length + 1];
+        for (int index = 0; index < volumes.length; index++) {
+            CumulativeVolumes[index + 1] = CumulativeVolumes[index] + volumes[index];
+        }
+        Columns = BucketColumns.ofNanos(startNanos, endNanos, volumes, CumulativeVolumes, true);
+    }
+
+    /**
+     * Places the buckets of a day curve on the date given. A date on which the clocks change is
+     * handled as by {@link #Of(Curve, LocalDate, LocalTime, ZoneId)}.
+     *
+     * @param day The curve for the day
+     * @param date The date of the curve
+     * @param zone The time zone the times of the curve are in
+     * @return The curve for the date.
+     */
+    public static EpochCurve Of(Curve day, LocalDate date, ZoneId zone) {
+        return Of(day, date, LocalTime.MIN, zone);
+    }
+
+    /**
+     * Places the buckets of a day curve for a session crossing midnight, such as a futures session
+     * from 18:00 until 17:00 the next day. Buckets starting at or after the session start are
+     * placed on the date given, and those starting before it on the following date.
+     * <p>
+     * On a date when the clocks change, each bucket lasts no longer than it does on the clock.
+     * Buckets within the hour skipped when the clocks go forward are placed with no length at the
+     * instant of the change, keeping their volume, and the hour repeated when the clocks go back
+     * holds no volume, as the buckets are placed at the first occurrence of their times.
+     *
+     * @param day The curve for the session, with bucket times as times of the day
+     * @param date The date on which the session starts
+     * @param sessionStart The time of day at which the session starts
+     * @param zone The time zone the times of the curve are in
+     * @return The curve for the session.
+     * @throws IllegalArgumentException if a bucket spans the session start, or the buckets overlap
+     *             once placed
+     */
+    public static EpochCurve Of(Curve day, LocalDate date, LocalTime sessionStart, ZoneId zone) {
+        Builder builder = Builder.Of(day.getSymbol());
+        addSession(builder, day, date, sessionStart, zone);
+        return builder.build();
+    }
+
+    /**
+     * Joins the curves for several days into one curve, such as for a week long aggregate curve.
+     *
+     * @param symbol The symbol of the joined curve
+     * @param days The curve for each date
+     * @param zone The time zone the times of the curves are in
+     * @return The curve over all of the days.
+     * @throws IllegalArgumentException if the buckets of the days overlap once placed
+     */
+    public static EpochCurve Of(String symbol, SortedMap<LocalDate, ? extends Curve> days,
+            ZoneId zone) {
+        return Of(symbol, days, LocalTime.MIN, zone);
+    }
+
+    /**
+     * Joins the curves for several sessions crossing midnight into one curve, with each session
+     * placed as by {@link #Of(Curve, LocalDate, LocalTime, ZoneId)}.
+     *
+     * @param symbol The symbol of the joined curve
+     * @param days The curve for each session, keyed by the date on which the session starts
+     * @param sessionStart The time of day at which each session starts
+     * @param zone The time zone the times of the curves are in
+     * @return The curve over all of the sessions.
+     * @throws IllegalArgumentException if a bucket spans the session start, or the buckets overlap
+     *             once placed
+     */
+    public static EpochCurve Of(String symbol, SortedMap<LocalDate, ? extends Curve> days,
+            LocalTime sessionStart, ZoneId zone) {
+        Builder builder = Builder.Of(symbol);
+        for (Map.Entry<LocalDate, ? extends Curve> day : days.entrySet()) {
+            addSession(builder, day.getValue(), day.getKey(), sessionStart, zone);
+        }
+
+        return builder.build();
+    }
+
+    private static void addSession(Builder builder, Curve day, LocalDate date,
+            LocalTime sessionStart, ZoneId zone) {
+        LocalDate nextDate = date.plusDays(1);
+        int length = day.numberBuckets();
+        int firstInSession = 0;
+        while (firstInSession < length
+                && day.getBucket(firstInSession).getStartTime().isBefore(sessionStart)) {
+            firstInSession++;
+        }
+
+        for (int index = 0; index < length; index++) {
+            // buckets from the session start come first, followed by those after midnight
+            int bucketIndex = (firstInSession + index) % length;
+            CurveBucket bucket = day.getBucket(bucketIndex);
+            boolean afterMidnight = bucketIndex < firstInSession;
+            if (afterMidnight && bucket.getEndTime().isAfter(sessionStart)) {
+                throw new IllegalArgumentException("Bucket " + bucket + " of " + day.getSymbol()
+                        + " spans the session start " + sessionStart);
+            }
+
+            LocalDate bucketDate = afterMidnight ? nextDate : date;
+            long startNanos = toEpochNanos(bucketDate, bucket.getStartTime(), zone);
+            long clockNanos =
+                    bucket.getEndTime().toNanoOfDay() - bucket.getStartTime().toNanoOfDay();
+            long endNanos = Math.min(toEpochNanos(bucketDate, bucket.getEndTime(), zone),
+                    startNanos + clockNanos);
+            builder.addBucket(startNanos, endNanos, bucket.getPercentDayVolume(),
+                    bucket.getType());
+        }
+    }
+
+    /**
+     * Returns the time of day on the date as nanoseconds since the epoch. A time skipped when the
+     * clocks go forward is placed at the instant of the change, and a time repeated when the
+     * clocks go back is placed at its first occurrence.
+     */
+    private static long toEpochNanos(LocalDate date, LocalTime time, ZoneId zone) {
+        LocalDateTime dateTime = date.atTime(time);
+        ZoneOffsetTransition transition = zone.getRules().getTransition(dateTime);
+        if (transition != null && transition.isGap()) {
+            return toEpochNanos(transition.getInstant());
+        }
+
+        return toEpochNanos(dateTime.atZone(zone).toInstant());
+    }
+
+    /**
+     * Returns the instant as nanoseconds since the epoch.
+     *
+     * @throws ArithmeticException if the instant is too far from the epoch to be held in a long
+     */
+    public static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND),
+                instant.getNano());
+    }
+
+    public String getSymbol() {
+        return Symbol;
+    }
+
+    public int numberBuckets() {
+        return Volumes.length;
+    }
+
+    public long getStartEpochNanos(int index) {
+        return StartNanos[index];
+    }
+
+    public long getEndEpochNanos(int index) {
+        return EndNanos[index];
+    }
+
+    public Instant getStartTime(int index) {
+        return toInstant(StartNanos[index]);
+    }
+
+    public Instant getEndTime(int index) {
+        return toInstant(EndNanos[index]);
+    }
+
+    public double getBucketVolume(int index) {
+        return Volumes[index];
+    }
+
+    public BucketType getBucketType(int index) {
+        return BUCKET_TYPES[Types[index]];
+    }
+
+    /**
+     * Returns the sum of the volumes of every bucket of the curve.
+     */
+    public double getTotalVolume() {
+        return CumulativeVolumes[Volumes.length];
+    }
+
+    /**
+     * Returns the volume between the two instants.
+     *
+     * @param start the instant to calculate volume from
+     * @param end the instant to calculate volume until
+     * @return the volume between the start and end, or 0 if the end is before the start.
+     */
+    public double getVolume(Instant start, Instant end) {
+        return getVolume(toEpochNanos(start), toEpochNanos(end));
+    }
+
+    /**
+     * Returns the volume between the two times, given as nanoseconds since the epoch.
+     *
+     * @param startEpochNanos the time to calculate volume from
+     * @param endEpochNanos the time to calculate volume until
+     * @return the volume between the start and end, or 0 if the end is before the start.
+     */
+    public double getVolume(long startEpochNanos, long endEpochNanos) {
+        if (endEpochNanos < startEpochNanos)
+            return 0.0;
+
+        return getCumulativeVolume(endEpochNanos) - getCumulativeVolume(startEpochNanos);
+    }
+
+    /**
+     * Returns the volume at the instant relative to the volume between the start and end, as a
+     * percentage.
+     */
+    public double getRelativeVolume(Instant start, Instant end, Instant time) {
+        return getRelativeVolume(toEpochNanos(start), toEpochNanos(end), toEpochNanos(time));
+    }
+
+    /**
+     * Returns the volume at the time relative to the volume between the start and end, as a
+     * percentage, with all times given as nanoseconds since the epoch. Returns 0 if the time is
+     * not between the start and end.
+     */
+    public double getRelativeVolume(long startEpochNanos, long endEpochNanos, long epochNanos) {
+        if (epochNanos < startEpochNanos || epochNanos > endEpochNanos)
+            return 0.0;
+
+        double startVolume = getCumulativeVolume(startEpochNanos);
+        double timeVolume = getCumulativeVolume(epochNanos);
+        double endVolume = getCumulativeVolume(endEpochNanos);
+        return 100 * (timeVolume - startVolume) / (endVolume - startVolume);
+    }
+
+    /**
+     * Returns the cumulative volume of the curve up until the time given as nanoseconds since the
+     * epoch.
+     */
+    public double getCumulativeVolume(long epochNanos) {
+        return Columns.cumulativeVolume(0, Volumes.length, epochNanos);
+    }
+
+    private static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+
+    /**
+     * Builds an {@link EpochCurve} from buckets added in time order.
+     */
+    public static final class Builder {
+        private final String Symbol;
+        private long[] StartNanos = new long[16];
+        private long[] EndNanos = new long[16];
+        private double[] Volumes = new double[16];
+        private byte[] Types = new byte[16];
+        private int Count;
+
+        private Builder(String symbol) {
+            Symbol = symbol;
+        }
+
+        public static Builder Of(String symbol) {
+            return new Builder(symbol);
+        }
+
+        /**
+         * Adds a bucket after the buckets already added.
+         *
+         * @param startEpochNanos The start of the bucket, as nanoseconds since the epoch
+         * @param endEpochNanos The end of the bucket, as nanoseconds since the epoch
+         * @param volume The volume of the bucket
+         * @param type The type of the bucket
+         * @return This builder.
+         * @throws IllegalArgumentException if the bucket ends before it starts, or starts before
+         *             the end of the previous bucket
+         */
+        public Builder addBucket(long startEpochNanos, long endEpochNanos, double volume,
+                BucketType type) {
+            if (endEpochNanos < startEpochNanos) {
+                throw new IllegalArgumentException("Bucket of " + Symbol + " starting at "
+                        + toInstant(startEpochNanos) + " ends before it starts");
+            }
+            if (Count > 0 && startEpochNanos < EndNanos[Count - 1]) {
+                throw new IllegalArgumentException("Bucket of " + Symbol + " starting at "
+                        + toInstant(startEpochNanos) + " overlaps the previous bucket");
+            }
+
+            if (Count == Volumes.length) {
+                int capacity = 2 * Count;
+                StartNanos = Arrays.copyOf(StartNanos, capacity);
+                EndNanos = Arrays.copyOf(EndNanos, capacity);
+                Volumes = Arrays.copyOf(Volumes, capacity);
+                Types = Arrays.copyOf(Types, capacity);
+            }
+
+            StartNanos[Count] = startEpochNanos;
+            EndNanos[Count] = endEpochNanos;
+            Volumes[Count] = volume;
+            Types[Count] = (byte) type.ordinal();
+            Count++;
+            return this;
+        }
+
+        public Builder addBucket(Instant start, Instant end, double volume, BucketType type) {
+            return addBucket(toEpochNanos(start), toEpochNanos(end), volume, type);
+        }
+
+        /**
+         * Creates the curve from the buckets added so far. The builder can continue to be used
+         * afterwards without affecting the curve created.
+         */
+        public EpochCurve build() {
+            return new EpochCurve(Symbol, Arrays.copyOf(StartNanos, Count),
+                    Arrays.copyOf(EndNanos, Count), Arrays.copyOf(Volumes, Count),
+                    Arrays.copyOf(Types, Count));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Symbol='" + Symbol + "', BucketCount=" + numberBuckets();
+    }
+}
@@ -0,0 +1,34 @@
+package com.effanville.curvedata.IO;
+
+import java.time.LocalDate;
+import com.effanville.curvedata.CurveData;
+
+/**
+ * A curve read from a curve archive, along with the date it was written for.
+ */
+public final class CurveArchiveEntry {
+    private final LocalDate Date;
+    private final CurveData Curve;
+
+    private CurveArchiveEntry(LocalDate date, CurveData curve) {
+        Date = date;
+        Curve = curve;
+    }
+
+    public static CurveArchiveEntry Of(LocalDate date, CurveData curve) {
+        return new CurveArchiveEntry(date, curve);
+    }
+
+    public LocalDate getDate() {
+        return Date;
+    }
+
+    public CurveData getCurve() {
+        return Curve;
+    }
+
+    @Override
+    public String toString() {
+        return "Date=" + Date + ", Symbol='" + Curve.getSymbol() + "'";
+    }
+}
@@ -0,0 +1,82 @@
+package com.effanville.curvedata.IO;
+
+/**
+ * Layout of the curve archive file, written by {@link CurveArchiveWriter} and read by
+ * {@link CurveArchiveReader}, holding a sequence of dated curves such as years of daily curves.
+ * <p>
+ * The file starts with a header of
+ * <p>
+ * <code>int magic, int version</code>
+ * <p>
+ * in big endian order, followed by one record per curve, each a varint of the length of the
+ * record in bytes, at most {@link #MAX_RECORD_LENGTH}, followed by
+ * <p>
+ * <code>zigzag date delta, symbol, varint bucketCount, byte timeUnit, times, types, volumes</code>
+ * <p>
+ * where the date is the change in epoch day from the previous record and the symbol is a varint
+ * length followed by its UTF-8 bytes. Integers are written as varints of 7 bits per byte, with
+ * signed values zigzag encoded first.
+ * <ul>
+ * <li>Times are in whole seconds or nanoseconds of the day, as given by the time unit. For each
+ * bucket the zigzag length of the bucket is shifted left one bit, with the low bit set if the
+ * bucket does not start at the end of the previous bucket, followed in that case by the zigzag
+ * gap from the end of the previous bucket. The first bucket is measured from midnight, so
+ * contiguous buckets take no space for their start time.</li>
+ * <li>Bucket types are a varint count of runs, then for each run of buckets of the same type the
+ * ordinal of the {@link com.effanville.curvedata.BucketType} and a varint length of the run.</li>
+ * <li>Volumes start with a byte giving a decimal scale. Each volume is then a zigzag varint of
+ * the volume multiplied by ten to the power of the scale. The decimal form is only used when every
+ * volume of the curve is decoded to exactly the same double. Otherwise the scale is one of
+ * <ul>
+ * <li>{@link #RAW_VOLUMES}, with each volume an 8 byte double,</li>
+ * <li>{@link #XOR_PREVIOUS_BUCKET}, with each volume held relative to the volume of the bucket
+ * before it, or to zero for the first bucket,</li>
+ * <li>{@link #XOR_PREVIOUS_RECORD}, with each volume held relative to the volume of the same
+ * bucket of the previous record, which must have the same number of buckets,</li>
+ * </ul>
+ * whichever is smallest. A volume held relative to another is the exclusive or of the bits of the
+ * two. A zero exclusive or is a single zero byte. Otherwise it is a header byte with the high bit
+ * set, the number of leading zero bytes in bits 3 to 5 and the number of trailing zero bytes in
+ * bits 0 to 2, followed by the remaining bytes in big endian order. A volume changing little from
+ * the one it is held relative to shares its sign, exponent and leading bits of the mantissa, so
+ * takes few bytes.</li>
+ * </ul>
+ * Version 1 archives are the same, but only held volumes as decimals or raw doubles.
+ */
+final class CurveArchiveFormat {
+    static final int MAGIC = 0x41565243; // "CRVA"
+    static final int VERSION = 2;
+    static final int FIRST_VERSION = 1;
+
+    /**
+     * The largest record read, so a corrupt length cannot cause an allocation of gigabytes.
+     */
+    static final int MAX_RECORD_LENGTH = 1 << 26;
+
+    static final byte UNIT_SECONDS = 0;
+    static final byte UNIT_NANOS = 1;
+
+    static final int MAX_DECIMAL_SCALE = 15;
+    static final byte RAW_VOLUMES = (byte) 0xFF;
+    static final byte XOR_PREVIOUS_BUCKET = (byte) 0xFE;
+    static final byte XOR_PREVIOUS_RECORD = (byte) 0xFD;
+
+    /**
+     * Powers of ten up to the largest decimal scale, all of which are exact doubles.
+     */
+    static final double[] POWERS_OF_TEN = new double[MAX_DECIMAL_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int scale = 1; scale <= MAX_DECIMAL_SCALE; scale++) {
+            POWERS_OF_TEN[scale] = POWERS_OF_TEN[scale - 1] * 10;
+        }
+    }
+
+    private CurveArchiveFormat() {
+    }
+
+    static byte xorHeader(int leadingBytes, int trailingBytes) {
+        return (byte) (0x80 | leadingBytes << 3 | trailingBytes);
+    }
+}
@@ -0,0 +1,281 @@
+package com.effanville.curvedata.IO;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import com.effanville.curvedata.BucketType;
+import com.effanville.curvedata.CurveBucket;
+import com.effanville.curvedata.CurveData;
+
+/**
+ * Reads the curves of an archive written by a {@link CurveArchiveWriter} in the order they were
+ * written, decoding one curve at a time.
+ * <p>
+ * Only the record of the curve being read is held in memory, so e.g. a back test can iterate
+ * over years of daily curves without loading the whole archive. A reader is not thread safe.
+ */
+public final class CurveArchiveReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final BucketType[] TYPES = BucketType.values();
+
+    private final String Name;
+    private final DataInputStream Input;
+    private byte[] Record = new byte[256];
+    private int Position;
+    private int RecordLength;
+    private long EpochDay;
+    private double[] PreviousVolumes = new double[0];
+
+    private CurveArchiveReader(String name, InputStream input) throws IOException {
+        Name = name;
+        Input = new DataInputStream(new BufferedInputStream(input, BUFFER_SIZE));
+        try {
+            if (Input.readInt() != CurveArchiveFormat.MAGIC) {
+                throw new IOException(Name + " is not a curve archive file");
+            }
+            int version = Input.readInt();
+            if (version < CurveArchiveFormat.FIRST_VERSION
+                    || version > CurveArchiveFormat.VERSION) {
+                throw new IOException(
+                        Name + " has unsupported curve archive version " + version);
+            }
+        } catch (EOFException e) {
+            Input.close();
+            throw new IOException(Name + " is not a curve archive file", e);
+        } catch (IOException e) {
+            Input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the archive file given for reading.
+     *
+     * @param filePath The path of the archive file
+     * @return The reader, which must be closed once finished with.
+     * @throws IOException if the file cannot be read, or is not a curve archive file
+     */
+    public static CurveArchiveReader Of(String filePath) throws IOException {
+        return new CurveArchiveReader("File " + filePath,
+                Files.newInputStream(Path.of(filePath)));
+    }
+
+    /**
+     * Opens the archive in the stream given for reading. The stream is closed when the reader is
+     * closed.
+     */
+    public static CurveArchiveReader Of(InputStream input) throws IOException {
+        return new CurveArchiveReader("Stream", input);
+    }
+
+    /**
+     * Reads the next curve of the archive.
+     *
+     * @return The next curve with its date, or null if every curve has been read.
+     * @throws IOException if the archive cannot be read, or is truncated or corrupt
+     */
+    public CurveArchiveEntry readNext() throws IOException {
+        int first = Input.read();
+        if (first < 0) {
+            return null;
+        }
+
+        long length = first & 0x7F;
+        int shift = 7;
+        int next = first;
+        while ((next & 0x80) != 0) {
+            next = Input.read();
+            if (next < 0 || shift > 28) {
+                throw new IOException(Name + " has a corrupt curve archive record");
+            }
+            length |= (long) (next & 0x7F) << shift;
+            shift += 7;
+        }
+        if (length > CurveArchiveFormat.MAX_RECORD_LENGTH) {
+            throw new IOException(Name + " has a curve archive record of " + length
+                    + " bytes, more than the limit of " + CurveArchiveFormat.MAX_RECORD_LENGTH);
+        }
+
+        RecordLength = (int) length;
+        if (Record.length < RecordLength) {
+            Record = new byte[Math.max(RecordLength, 2 * Record.length)];
+        }
+        try {
+            Input.readFully(Record, 0, RecordLength);
+        } catch (EOFException e) {
+            throw new IOException(Name + " has a truncated curve archive record", e);
+        }
+
+        Position = 0;
+        try {
+            return decodeRecord();
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException
+                | DateTimeException e) {
+            throw new IOException(Name + " has a corrupt curve archive record", e);
+        }
+    }
+
+    private CurveArchiveEntry decodeRecord() {
+        EpochDay += readSigned();
+        LocalDate date = LocalDate.ofEpochDay(EpochDay);
+
+        int symbolLength = readLength();
+        checkRemaining(symbolLength);
+        String symbol = new String(Record, Position, symbolLength, StandardCharsets.UTF_8);
+        Position += symbolLength;
+
+        int length = readLength();
+        // every bucket takes at least one byte, so a longer count is corrupt
+        checkRemaining(length);
+        boolean wholeSeconds = readByte() == CurveArchiveFormat.UNIT_SECONDS;
+        long[] starts = new long[length];
+        long[] ends = new long[length];
+        long previousEnd = 0;
+        for (int index = 0; index < length; index++) {
+            long lengthAndFlag = readUnsigned();
+            long start = previousEnd;
+            if ((lengthAndFlag & 1) != 0) {
+                start += readSigned();
+            }
+            starts[index] = start;
+            ends[index] = start + unzigzag(lengthAndFlag >>> 1);
+            previousEnd = ends[index];
+        }
+
+        BucketType[] types = new BucketType[length];
+        int runs = readLength();
+        int bucket = 0;
+        for (int run = 0; run < runs; run++) {
+            int ordinal = readByte() & 0xFF;
+            int runLength = readLength();
+            if (ordinal >= TYPES.length || bucket + runLength > length) {
+                throw new IllegalArgumentException("Invalid bucket type run");
+            }
+            for (int index = 0; index < runLength; index++) {
+                types[bucket++] = TYPES[ordinal];
+            }
+        }
+        if (bucket != length) {
+            throw new IllegalArgumentException("Bucket types do not cover every bucket");
+        }
+
+        byte scale = readByte();
+        double[] volumes = new double[length];
+        for (int index = 0; index < length; index++) {
+            if (scale == CurveArchiveFormat.XOR_PREVIOUS_BUCKET) {
+                double reference = index == 0 ? 0.0 : volumes[index - 1];
+                volumes[index] = Double
+                        .longBitsToDouble(readXor() ^ Double.doubleToRawLongBits(reference));
+            } else if (scale == CurveArchiveFormat.XOR_PREVIOUS_RECORD) {
+                if (PreviousVolumes.length != length) {
+                    throw new IllegalArgumentException("No previous record to hold volumes from");
+                }
+                volumes[index] = Double.longBitsToDouble(
+                        readXor() ^ Double.doubleToRawLongBits(PreviousVolumes[index]));
+            } else if (scale == CurveArchiveFormat.RAW_VOLUMES) {
+                volumes[index] = readRawDouble();
+            } else {
+                volumes[index] = readSigned() / CurveArchiveFormat.POWERS_OF_TEN[scale];
+            }
+        }
+
+        CurveData.Builder builder = CurveData.Builder.Of(symbol);
+        for (int index = 0; index < length; index++) {
+            builder.addBucket(CurveBucket.Of(toTime(starts[index], wholeSeconds),
+                    toTime(ends[index], wholeSeconds), volumes[index], types[index]));
+        }
+        PreviousVolumes = volumes;
+
+        return CurveArchiveEntry.Of(date, builder.build());
+    }
+
+    private static LocalTime toTime(long value, boolean wholeSeconds) {
+        return wholeSeconds ? LocalTime.ofSecondOfDay(value) : LocalTime.ofNanoOfDay(value);
+    }
+
+    private double readRawDouble() {
+        checkRemaining(Long.BYTES);
+        long bits = 0;
+        for (int index = 0; index < Long.BYTES; index++) {
+            bits = (bits << 8) | (Record[Position++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    private long readXor() {
+        int header = readByte() & 0xFF;
+        if (header == 0) {
+            return 0;
+        }
+        if ((header & 0x80) == 0) {
+            throw new IllegalArgumentException("Invalid volume header " + header);
+        }
+
+        int leading = header >>> 3 & 0x7;
+        int trailing = header & 0x7;
+        int bytes = Long.BYTES - leading - trailing;
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Invalid volume header " + header);
+        }
+        checkRemaining(bytes);
+        long xor = 0;
+        for (int index = 0; index < bytes; index++) {
+            xor = (xor << 8) | (Record[Position++] & 0xFF);
+        }
+        return xor << (Byte.SIZE * trailing);
+    }
+
+    private int readLength() {
+        long value = readUnsigned();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid length " + value);
+        }
+        return (int) value;
+    }
+
+    private long readSigned() {
+        return unzigzag(readUnsigned());
+    }
+
+    private long readUnsigned() {
+        long value = 0;
+        int shift = 0;
+        byte next;
+        do {
+            checkRemaining(1);
+            next = Record[Position++];
+            value |= (long) (next & 0x7F) << shift;
+            shift += 7;
+        } while ((next & 0x80) != 0 && shift < 64);
+        return value;
+    }
+
+    private byte readByte() {
+        checkRemaining(1);
+        return Record[Position++];
+    }
+
+    private void checkRemaining(int bytes) {
+        if (bytes > RecordLength - Position) {
+            throw new IllegalArgumentException("Record ends unexpectedly");
+        }
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Input.close();
+    }
+}
@@ -0,0 +1,319 @@
+package com.effanville.curvedata.IO;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import com.effanville.curvedata.Curve;
+import com.effanville.curvedata.CurveBucket;
+
+/**
+ * Writes a sequence of dated curves into the compact archive format of
+ * {@link CurveArchiveFormat}, one curve at a time, to be read back in order by a
+ * {@link CurveArchiveReader}.
+ * <p>
+ * Bucket times are delta encoded, so contiguous buckets only cost their length, bucket types are
+ * run length encoded, and volumes with few decimal places are held as small integers. Other
+ * volumes, such as those of averaged curves, are held as the bits differing from the volume of the
+ * same bucket the day before, or of the bucket before, so only the changed bytes are written. The
+ * volumes are read back exactly as written. Only the encoding of the curve being written, and the
+ * volumes of the curve before it, are held in memory.
+ */
+public final class CurveArchiveWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final DataOutputStream Output;
+    private byte[] Record = new byte[256];
+    private int RecordLength;
+    private long PreviousEpochDay;
+    private double[] PreviousVolumes = new double[0];
+
+    private CurveArchiveWriter(OutputStream output) throws IOException {
+        Output = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+        Output.writeInt(CurveArchiveFormat.MAGIC);
+        Output.writeInt(CurveArchiveFormat.VERSION);
+    }
+
+    /**
+     * Creates a writer writing a new archive into the file given, replacing any existing file.
+     *
+     * @param filePath The path of the archive file
+     * @return The writer, which must be closed once every curve is written.
+     * @throws IOException if the file cannot be written
+     */
+    public static CurveArchiveWriter Of(String filePath) throws IOException {
+        return new CurveArchiveWriter(Files.newOutputStream(Path.of(filePath)));
+    }
+
+    /**
+     * Creates a writer writing a new archive into the stream given. The stream is closed when the
+     * writer is closed.
+     */
+    public static CurveArchiveWriter Of(OutputStream output) throws IOException {
+        return new CurveArchiveWriter(output);
+    }
+
+    /**
+     * Writes the curve for the date given after the curves already written. If the curve cannot
+     * be written, the archive is left as it was, so later curves are still written correctly.
+     *
+     * @param date The date of the curve
+     * @param curve The curve to write
+     * @throws IOException if the curve cannot be written, or its record would be longer than a
+     *         reader accepts
+     */
+    public void write(LocalDate date, Curve curve) throws IOException {
+        RecordLength = 0;
+        long epochDay = date.toEpochDay();
+        writeSigned(epochDay - PreviousEpochDay);
+
+        byte[] symbol = curve.getSymbol().getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(symbol.length);
+        ensureCapacity(symbol.length);
+        System.arraycopy(symbol, 0, Record, RecordLength, symbol.length);
+        RecordLength += symbol.length;
+
+        int length = curve.numberBuckets();
+        CurveBucket[] buckets = new CurveBucket[length];
+        boolean wholeSeconds = true;
+        for (int index = 0; index < length; index++) {
+            buckets[index] = curve.getBucket(index);
+            wholeSeconds = wholeSeconds && buckets[index].getStartTime().getNano() == 0
+                    && buckets[index].getEndTime().getNano() == 0;
+        }
+        writeUnsigned(length);
+        writeTimes(buckets, wholeSeconds);
+        writeTypes(buckets);
+        writeVolumes(buckets);
+        if (RecordLength > CurveArchiveFormat.MAX_RECORD_LENGTH) {
+            throw new IOException("Curve on " + date + " has an archive record of " + RecordLength
+                    + " bytes, more than the limit of " + CurveArchiveFormat.MAX_RECORD_LENGTH);
+        }
+
+        writeVarLong(Output, RecordLength);
+        Output.write(Record, 0, RecordLength);
+
+        // Only once the record is written do later records refer to it.
+        PreviousEpochDay = epochDay;
+        PreviousVolumes = new double[length];
+        for (int index = 0; index < length; index++) {
+            PreviousVolumes[index] = buckets[index].getPercentDayVolume();
+        }
+    }
+
+    private void writeTimes(CurveBucket[] buckets, boolean wholeSeconds) {
+        writeByte(wholeSeconds ? CurveArchiveFormat.UNIT_SECONDS : CurveArchiveFormat.UNIT_NANOS);
+        long previousEnd = 0;
+        for (CurveBucket bucket : buckets) {
+            long start = toUnit(bucket.getStartTime(), wholeSeconds);
+            long end = toUnit(bucket.getEndTime(), wholeSeconds);
+            long gap = start - previousEnd;
+            writeUnsigned(zigzag(end - start) << 1 | (gap != 0 ? 1 : 0));
+            if (gap != 0) {
+                writeSigned(gap);
+            }
+            previousEnd = end;
+        }
+    }
+
+    private void writeTypes(CurveBucket[] buckets) {
+        int runs = 0;
+        for (int index = 0; index < buckets.length; index++) {
+            if (index == 0 || buckets[index].getType() != buckets[index - 1].getType()) {
+                runs++;
+            }
+        }
+
+        writeUnsigned(runs);
+        int runStart = 0;
+        for (int index = 1; index <= buckets.length; index++) {
+            if (index == buckets.length
+                    || buckets[index].getType() != buckets[runStart].getType()) {
+                writeByte((byte) buckets[runStart].getType().ordinal());
+                writeUnsigned(index - runStart);
+                runStart = index;
+            }
+        }
+    }
+
+    private void writeVolumes(CurveBucket[] buckets) {
+        int scale = decimalScale(buckets);
+        if (scale < 0) {
+            double[] volumes = new double[buckets.length];
+            for (int index = 0; index < buckets.length; index++) {
+                volumes[index] = buckets[index].getPercentDayVolume();
+            }
+            writeVolumeBits(volumes);
+            return;
+        }
+
+        writeByte((byte) scale);
+        double power = CurveArchiveFormat.POWERS_OF_TEN[scale];
+        for (CurveBucket bucket : buckets) {
+            writeSigned(Math.round(bucket.getPercentDayVolume() * power));
+        }
+    }
+
+    /**
+     * Writes the volumes as raw doubles, or relative to the previous bucket or to the previous
+     * record, whichever is smallest.
+     */
+    private void writeVolumeBits(double[] volumes) {
+        byte mode = CurveArchiveFormat.RAW_VOLUMES;
+        long size = (long) Long.BYTES * volumes.length;
+        long bucketSize = xorSize(volumes, null);
+        if (bucketSize < size) {
+            mode = CurveArchiveFormat.XOR_PREVIOUS_BUCKET;
+            size = bucketSize;
+        }
+        if (PreviousVolumes.length == volumes.length && xorSize(volumes, PreviousVolumes) < size) {
+            mode = CurveArchiveFormat.XOR_PREVIOUS_RECORD;
+        }
+
+        writeByte(mode);
+        for (int index = 0; index < volumes.length; index++) {
+            long bits = Double.doubleToRawLongBits(volumes[index]);
+            if (mode == CurveArchiveFormat.RAW_VOLUMES) {
+                ensureCapacity(Long.BYTES);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    Record[RecordLength++] = (byte) (bits >>> shift);
+                }
+            } else {
+                double[] reference =
+                        mode == CurveArchiveFormat.XOR_PREVIOUS_RECORD ? PreviousVolumes : null;
+                writeXor(bits ^ referenceBits(volumes, reference, index));
+            }
+        }
+    }
+
+    /**
+     * Returns the bits of the volume the volume at the index is held relative to, the volume of
+     * the same bucket of the previous record if given, or else of the bucket before.
+     */
+    private static long referenceBits(double[] volumes, double[] previousVolumes, int index) {
+        if (previousVolumes != null) {
+            return Double.doubleToRawLongBits(previousVolumes[index]);
+        }
+        return index == 0 ? 0L : Double.doubleToRawLongBits(volumes[index - 1]);
+    }
+
+    private static long xorSize(double[] volumes, double[] previousVolumes) {
+        long size = 0;
+        for (int index = 0; index < volumes.length; index++) {
+            long xor = Double.doubleToRawLongBits(volumes[index])
+                    ^ referenceBits(volumes, previousVolumes, index);
+            size += xor == 0 ? 1
+                    : 1 + Long.BYTES - Long.numberOfLeadingZeros(xor) / Byte.SIZE
+                            - Long.numberOfTrailingZeros(xor) / Byte.SIZE;
+        }
+
+        return size;
+    }
+
+    /**
+     * Writes the bits differing from the reference volume as a header byte giving the number of
+     * leading and trailing zero bytes, followed by the bytes between them.
+     */
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            writeByte((byte) 0);
+            return;
+        }
+
+        int leading = Long.numberOfLeadingZeros(xor) / Byte.SIZE;
+        int trailing = Long.numberOfTrailingZeros(xor) / Byte.SIZE;
+        writeByte(CurveArchiveFormat.xorHeader(leading, trailing));
+        ensureCapacity(Long.BYTES);
+        for (int shift = 56 - Byte.SIZE * leading; shift >= Byte.SIZE * trailing;
+                shift -= Byte.SIZE) {
+            Record[RecordLength++] = (byte) (xor >>> shift);
+        }
+    }
+
+    /**
+     * Returns the smallest decimal scale at which every volume is decoded to exactly the same
+     * double, or -1 if there is none.
+     */
+    private static int decimalScale(CurveBucket[] buckets) {
+        int scale = 0;
+        for (CurveBucket bucket : buckets) {
+            double volume = bucket.getPercentDayVolume();
+            if (!Double.isFinite(volume)) {
+                return -1;
+            }
+            scale = Math.max(scale, BigDecimal.valueOf(volume).stripTrailingZeros().scale());
+            if (scale > CurveArchiveFormat.MAX_DECIMAL_SCALE) {
+                return -1;
+            }
+        }
+
+        double power = CurveArchiveFormat.POWERS_OF_TEN[scale];
+        for (CurveBucket bucket : buckets) {
+            double volume = bucket.getPercentDayVolume();
+            double scaled = Math.rint(volume * power);
+            if (Math.abs(scaled) >= 1L << 53 || Double.doubleToRawLongBits(volume) != Double
+                    .doubleToRawLongBits((long) scaled / power)) {
+                return -1;
+            }
+        }
+
+        return scale;
+    }
+
+    private static long toUnit(LocalTime time, boolean wholeSeconds) {
+        return wholeSeconds ? time.toSecondOfDay() : time.toNanoOfDay();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void writeSigned(long value) {
+        writeUnsigned(zigzag(value));
+    }
+
+    private void writeUnsigned(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            Record[RecordLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        Record[RecordLength++] = (byte) value;
+    }
+
+    private void writeByte(byte value) {
+        ensureCapacity(1);
+        Record[RecordLength++] = value;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (RecordLength + bytes > Record.length) {
+            Record = Arrays.copyOf(Record, Math.max(2 * Record.length, RecordLength + bytes));
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    public void flush() throws IOException {
+        Output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        Output.close();
+    }
+}
@@ -0,0 +1,56 @@
+package com.effanville.curvedata.IO;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the binary curve set file, written by {@link CurveBinaryWriter} and read by
+ * {@link CurveBinaryReader}. All values are little endian.
+ * <p>
+ * The file starts with a header of
+ * <p>
+ * <code>int magic, int version, int curveCount, int directoryOffset</code>
+ * <p>
+ * followed by the symbol directory, one fixed width entry per curve sorted by the UTF-8 bytes of
+ * the symbol
+ * <p>
+ * <code>int bucketOffset, int bucketCount, int symbolOffset, int symbolLength, byte flags</code>
+ * <p>
+ * padded to {@link #DIRECTORY_ENTRY_SIZE} bytes, then the UTF-8 bytes of every symbol, and finally
+ * the buckets of every curve as fixed width records sorted by start time
+ * <p>
+ * <code>int startSecond, int endSecond, double volume, double volumeBefore, byte bucketType</code>
+ * <p>
+ * where volumeBefore is the cumulative volume of the curve up until the start of the bucket and
+ * the bucket type is the ordinal of the {@link com.effanville.curvedata.BucketType}.
+ */
+final class CurveBinaryFormat {
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int MAGIC = 0x53565243; // "CRVS"
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int CURVE_COUNT_OFFSET = 8;
+    static final int DIRECTORY_OFFSET_OFFSET = 12;
+
+    static final int DIRECTORY_ENTRY_SIZE = 20;
+    static final int ENTRY_BUCKET_OFFSET = 0;
+    static final int ENTRY_BUCKET_COUNT = 4;
+    static final int ENTRY_SYMBOL_OFFSET = 8;
+    static final int ENTRY_SYMBOL_LENGTH = 12;
+    static final int ENTRY_FLAGS = 16;
+
+    /**
+     * Flag set when the buckets of the curve are ordered, so volumes can be found by binary search.
+     */
+    static final byte FLAG_ORDERED = 1;
+
+    static final int BUCKET_SIZE = 25;
+    static final int BUCKET_START = 0;
+    static final int BUCKET_END = 4;
+    static final int BUCKET_VOLUME = 8;
+    static final int BUCKET_VOLUME_BEFORE = 16;
+    static final int BUCKET_TYPE = 24;
+
+    private CurveBinaryFormat() {
+    }
+}
@@ -0,0 +1,45 @@
+package com.effanville.curvedata.IO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class that enables reading a binary curve set file, written by a {@link CurveBinaryWriter}, by
+ * mapping the file into memory with {@link FileChannel#map}.
+ */
+public class CurveBinaryReader {
+    /**
+     * Maps the curve set file into memory. The mapping stays valid until the curve set is garbage
+     * collected, so the file should not be changed while the curve set is in use.
+     *
+     * @param filePath The path of the binary curve set file
+     * @return The curves of the file.
+     * @throws IOException if the file cannot be mapped, or is not a curve set file
+     */
+    public MappedCurveSet readCurveSet(String filePath) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < CurveBinaryFormat.HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("File " + filePath + " is not a curve set file");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    .order(CurveBinaryFormat.BYTE_ORDER);
+        }
+
+        if (buffer.getInt(0) != CurveBinaryFormat.MAGIC) {
+            throw new IOException("File " + filePath + " is not a curve set file");
+        }
+        int version = buffer.getInt(4);
+        if (version != CurveBinaryFormat.VERSION) {
+            throw new IOException(
+                    "File " + filePath + " has unsupported curve set version " + version);
+        }
+
+        return new MappedCurveSet(buffer, buffer.getInt(CurveBinaryFormat.CURVE_COUNT_OFFSET),
+                buffer.getInt(CurveBinaryFormat.DIRECTORY_OFFSET_OFFSET));
+    }
+}
@@ -0,0 +1,131 @@
+package com.effanville.curvedata.IO;
+
+import static com.effanville.curvedata.IO.CurveBinaryFormat.BUCKET_SIZE;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.DIRECTORY_ENTRY_SIZE;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.HEADER_SIZE;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import com.effanville.curvedata.Curve;
+import com.effanville.curvedata.CurveBucket;
+
+/**
+ * Class that enables writing a set of curves into the binary format of
+ * {@link CurveBinaryFormat}, to be mapped back into memory by a {@link CurveBinaryReader}.
+ * <p>
+ * Bucket times are written as whole seconds of the day, so any fractions of a second are dropped.
+ */
+public class CurveBinaryWriter {
+    /**
+     * Writes the curves into the file given, replacing any existing file.
+     *
+     * @param curves The curves to write, each with a different symbol
+     * @param filePath The path of the file to write
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if two curves have the same symbol, or the curves are too
+     *             large for a single file
+     */
+    public void writeCurves(Collection<? extends Curve> curves, String filePath)
+            throws IOException {
+        List<Entry> entries = new ArrayList<>(curves.size());
+        long symbolBytes = 0;
+        long bucketCount = 0;
+        for (Curve curve : curves) {
+            Entry entry = new Entry(curve);
+            entries.add(entry);
+            symbolBytes += entry.Symbol.length;
+            bucketCount += curve.numberBuckets();
+        }
+        entries.sort((first, second) -> Arrays.compareUnsigned(first.Symbol, second.Symbol));
+        for (int index = 1; index < entries.size(); index++) {
+            if (Arrays.equals(entries.get(index - 1).Symbol, entries.get(index).Symbol)) {
+                throw new IllegalArgumentException(
+                        "Duplicate curve for " + entries.get(index).Source.getSymbol());
+            }
+        }
+
+        long fileSize = HEADER_SIZE + (long) entries.size() * DIRECTORY_ENTRY_SIZE + symbolBytes
+                + bucketCount * BUCKET_SIZE;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Curves need " + fileSize
+                    + " bytes, more than the " + Integer.MAX_VALUE + " allowed in a file");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize).order(CurveBinaryFormat.BYTE_ORDER);
+        buffer.putInt(CurveBinaryFormat.MAGIC);
+        buffer.putInt(CurveBinaryFormat.VERSION);
+        buffer.putInt(entries.size());
+        buffer.putInt(HEADER_SIZE);
+
+        int symbolOffset = HEADER_SIZE + entries.size() * DIRECTORY_ENTRY_SIZE;
+        int bucketOffset = (int) (symbolOffset + symbolBytes);
+        for (Entry entry : entries) {
+            int entryStart = buffer.position();
+            buffer.putInt(bucketOffset);
+            buffer.putInt(entry.Source.numberBuckets());
+            buffer.putInt(symbolOffset);
+            buffer.putInt(entry.Symbol.length);
+            buffer.put(writeBuckets(buffer, bucketOffset, entry.Source));
+            buffer.position(entryStart + DIRECTORY_ENTRY_SIZE);
+
+            buffer.put(symbolOffset, entry.Symbol);
+            symbolOffset += entry.Symbol.length;
+            bucketOffset += entry.Source.numberBuckets() * BUCKET_SIZE;
+        }
+
+        buffer.position(0);
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Writes the bucket records of the curve from the offset given, returning the flags for the
+     * curve.
+     */
+    private static byte writeBuckets(ByteBuffer buffer, int offset, Curve curve) {
+        boolean ordered = true;
+        double volumeBefore = 0;
+        int previousEnd = Integer.MIN_VALUE;
+        for (int index = 0; index < curve.numberBuckets(); index++) {
+            CurveBucket bucket = curve.getBucket(index);
+            int startSecond = bucket.getStartTime().toSecondOfDay();
+            int endSecond = bucket.getEndTime().toSecondOfDay();
+            double volume = bucket.getPercentDayVolume();
+            int record = offset + index * BUCKET_SIZE;
+            buffer.putInt(record + CurveBinaryFormat.BUCKET_START, startSecond);
+            buffer.putInt(record + CurveBinaryFormat.BUCKET_END, endSecond);
+            buffer.putDouble(record + CurveBinaryFormat.BUCKET_VOLUME, volume);
+            buffer.putDouble(record + CurveBinaryFormat.BUCKET_VOLUME_BEFORE, volumeBefore);
+            buffer.put(record + CurveBinaryFormat.BUCKET_TYPE, (byte) bucket.getType().ordinal());
+
+            volumeBefore += volume;
+            if (startSecond > endSecond || previousEnd > startSecond) {
+                ordered = false;
+            }
+            previousEnd = endSecond;
+        }
+
+        return ordered ? CurveBinaryFormat.FLAG_ORDERED : 0;
+    }
+
+    private static final class Entry {
+        private final Curve Source;
+        private final byte[] Symbol;
+
+        private Entry(Curve curve) {
+            Source = curve;
+            Symbol = curve.getSymbol().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
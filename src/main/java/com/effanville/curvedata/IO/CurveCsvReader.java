@@ -1,13 +1,18 @@
 package com.effanville.curvedata.IO;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalTime;
-import java.time.format.DateTimeParseException;
-import com.effanville.curvedata.BucketType;
+import java.util.function.Function;
 import com.effanville.curvedata.Curve;
 import com.effanville.curvedata.CurveBucket;
 import com.effanville.curvedata.CurveData;
+import com.effanville.curvedata.CurveInterner;
+import com.effanville.curvedata.CurveKey;
+import com.effanville.curvedata.CurveLoader;
+import com.effanville.curvedata.CurveMetrics;
+import com.effanville.curvedata.CurveOperation;
 
 /**
  * Class that enables reading curve data from a csv file. The csv format should be
@@ -17,30 +22,46 @@ import com.effanville.curvedata.CurveData;
  * where times are in the form HH:mm or HH:mm:ss
  * <p>
  * and where the bucketType is parsable by the BucketType enum specified in code
+ * <p>
+ * Lines are parsed straight from the bytes of the file by a {@link CurveLineParser}, so no
+ * Strings are created for each line.
+ * <p>
+ * If created with {@link CurveMetrics}, the time taken to read and to parse each file is recorded.
+ * If created with a {@link CurveInterner}, curves with the same buckets share a single copy of
+ * them, and a file with the same bytes as a file already read is not parsed again.
  */
 public class CurveCsvReader {
+    private final CurveMetrics Metrics;
+    private final CurveInterner Interner;
+
+    public CurveCsvReader() {
+        this(null, null);
+    }
+
+    public CurveCsvReader(CurveMetrics metrics) {
+        this(metrics, null);
+    }
+
+    public CurveCsvReader(CurveInterner interner) {
+        this(null, interner);
+    }
+
+    public CurveCsvReader(CurveMetrics metrics, CurveInterner interner) {
+        Metrics = metrics;
+        Interner = interner;
+    }
+
     /**
      * Loads a curve from a file specified. Returns null if the file doesnt exist 
-     * or there is an error in loading the file.
+     * or there is an error in loading the file. The curve returned is immutable, with
+     * the buckets sorted once after the whole file has been read.
      * @param symbol The symbol for the curve to be loaded
      * @param filePath The path to find the csv file to load.
      * @return
      */
     public Curve readCurve(String symbol, String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            Curve curve = CurveData.Of(symbol);
-            String line = "";
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("StartTime")) {
-                    // header line should be ignored
-                    continue;
-                }
-                CurveBucket bucket = ReadBucket(line);
-                if (bucket == null)
-                    continue;
-                curve.addBucket(bucket);
-            }
-            return curve;
+        try {
+            return loadCurve(symbol, filePath);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -48,18 +69,76 @@ public class CurveCsvReader {
         return null;
     }
 
-    private CurveBucket ReadBucket(String line)
-            throws DateTimeParseException, NumberFormatException, IllegalArgumentException {
-        String[] parts = line.split(",");
+    /**
+     * Loads a curve from a file specified, throwing the error that stopped the file from being
+     * loaded rather than returning null.
+     * @param symbol The symbol for the curve to be loaded
+     * @param filePath The path to find the csv file to load.
+     * @return The immutable curve loaded from the file.
+     * @throws IOException if the file cannot be read
+     * @throws CurveParseException if a line of the file cannot be parsed, giving the line and
+     *             column of the problem
+     */
+    public CurveData loadCurve(String symbol, String filePath) throws IOException {
+        long readStart = Metrics == null ? 0 : System.nanoTime();
+        byte[] bytes = Files.readAllBytes(Path.of(filePath));
+        if (Metrics != null) {
+            Metrics.record(CurveOperation.READ_FILE, System.nanoTime() - readStart);
+        }
 
-        if (parts.length < 4)
-            return null;
-        LocalTime startTime = LocalTime.parse(parts[0]);
-        LocalTime endTime = LocalTime.parse(parts[1]);
-        double volume = Double.valueOf(parts[2]);
-        BucketType bucketType = BucketType.valueOf(parts[3]);
+        if (Interner == null) {
+            return parse(symbol, bytes);
+        }
+
+        return Interner.intern(symbol, bytes, () -> parse(symbol, bytes));
+    }
+
+    /**
+     * Returns a loader for a {@link com.effanville.curvedata.CurveCache} reading the curve for
+     * each key with this reader, from the file given for the key.
+     * @param filePaths The path of the csv file holding the curve for each key
+     * @return The loader, throwing the error that stopped a file from being loaded.
+     */
+    public CurveLoader asLoader(Function<CurveKey, String> filePaths) {
+        return key -> loadCurve(key.getSymbol(), filePaths.apply(key));
+    }
+
+    /**
+     * Parses the curve for the symbol from the bytes of a curve file.
+     */
+    private CurveData parse(String symbol, byte[] bytes) {
+        long parseStart = Metrics == null ? 0 : System.nanoTime();
+        CurveData.Builder builder = CurveData.Builder.Of(symbol);
+        CurveLineParser parser = new CurveLineParser();
+        int lineNumber = 0;
+        int lineStart = 0;
+        while (lineStart < bytes.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n' && bytes[lineEnd] != '\r') {
+                lineEnd++;
+            }
+
+            lineNumber++;
+            if (parser.parseLine(bytes, lineStart, lineEnd, lineNumber)) {
+                LocalTime startTime = LocalTime.ofNanoOfDay(parser.getStartNanoOfDay());
+                LocalTime endTime = LocalTime.ofNanoOfDay(parser.getEndNanoOfDay());
+                builder.addBucket(
+                        CurveBucket.Of(startTime, endTime, parser.getVolume(), parser.getType()));
+            }
+
+            // lines end with any of \n, \r or \r\n
+            lineStart = lineEnd + 1;
+            if (lineEnd + 1 < bytes.length && bytes[lineEnd] == '\r'
+                    && bytes[lineEnd + 1] == '\n') {
+                lineStart++;
+            }
+        }
+
+        CurveData curve = builder.build();
+        if (Metrics != null) {
+            Metrics.record(CurveOperation.PARSE, System.nanoTime() - parseStart);
+        }
 
-        CurveBucket bucket = CurveBucket.Of(startTime, endTime, volume, bucketType);
-        return bucket;
+        return curve;
     }
 }
@@ -0,0 +1,90 @@
+package com.effanville.curvedata.IO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import com.effanville.curvedata.Curve;
+import com.effanville.curvedata.CurveBucket;
+
+/**
+ * Class that enables writing curves to csv files in the format read by {@link CurveCsvReader}.
+ * <p>
+ * Each line is built in a reused buffer and written through a single large buffered writer, so
+ * writing a file costs one write to the file system per buffer of lines rather than one per field.
+ * Volumes are written with {@link Double#toString(double)}, so read back exactly.
+ */
+public class CurveCsvWriter {
+    private static final String HEADER = "StartTime,EndTime,VolPercent,BucketType";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes the curve into the file given, replacing any existing file.
+     *
+     * @param curve The curve to write
+     * @param filePath The path of the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCurve(Curve curve, String filePath) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(Path.of(filePath)), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writeCurve(curve, writer);
+        }
+    }
+
+    /**
+     * Writes each curve into its own file in the directory, named by the symbol of the curve as
+     * read back by {@link CurveDirectoryLoader#loadDirectory(String)}. The curves are only
+     * iterated once, so may be generated as they are written.
+     *
+     * @param curves The curves to write
+     * @param directory The directory to write the files into, which must exist
+     * @throws IOException if any file cannot be written
+     * @throws IllegalArgumentException if the symbol of a curve contains a path separator or
+     *             "..", so would name a file outside the directory
+     */
+    public void writeCurves(Iterable<? extends Curve> curves, String directory)
+            throws IOException {
+        Path directoryPath = Path.of(directory);
+        for (Curve curve : curves) {
+            writeCurve(curve, fileFor(directoryPath, curve.getSymbol()).toString());
+        }
+    }
+
+    /**
+     * Returns the file in the directory named by the symbol, checking that the symbol cannot name
+     * a file anywhere else.
+     */
+    private static Path fileFor(Path directory, String symbol) {
+        Path file = directory.resolve(symbol + ".csv");
+        if (symbol.indexOf('/') >= 0 || symbol.indexOf('\\') >= 0 || symbol.contains("..")
+                || !directory.equals(file.getParent())) {
+            throw new IllegalArgumentException(
+                    "Symbol " + symbol + " cannot be used as the name of a curve file");
+        }
+
+        return file;
+    }
+
+    /**
+     * Writes the header and buckets of the curve to the writer, without closing it.
+     */
+    public void writeCurve(Curve curve, Writer writer) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        writer.write(HEADER);
+        writer.write(System.lineSeparator());
+        for (int index = 0; index < curve.numberBuckets(); index++) {
+            CurveBucket bucket = curve.getBucket(index);
+            line.setLength(0);
+            line.append(bucket.getStartTime()).append(',')
+                    .append(bucket.getEndTime()).append(',')
+                    .append(bucket.getPercentDayVolume()).append(',')
+                    .append(bucket.getBucketType())
+                    .append(System.lineSeparator());
+            writer.append(line);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.effanville.curvedata.IO;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import com.effanville.curvedata.Curve;
+import com.effanville.curvedata.CurveInterner;
+
+/**
+ * Loads many curve csv files at once, parsing the files in parallel on a fork join pool.
+ * <p>
+ * Files are either all the csv files in a directory, where the symbol of each curve is the name
+ * of its file without the <code>.csv</code> extension, or those listed in a manifest file with
+ * schema
+ * <p>
+ * <code>Symbol,FilePath</code>
+ * <p>
+ * where relative file paths are taken relative to the directory of the manifest, and each symbol
+ * is listed once. This header may be given as the first line of the manifest. A file that cannot
+ * be loaded does not stop the other files loading, instead the error is recorded against the file
+ * in the result.
+ */
+public final class CurveDirectoryLoader {
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String MANIFEST_HEADER = "Symbol,FilePath";
+
+    private final CurveCsvReader Reader;
+    private final int Parallelism;
+
+    private CurveDirectoryLoader(int parallelism, CurveInterner interner) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, was " + parallelism);
+        }
+        Parallelism = parallelism;
+        Reader = new CurveCsvReader(interner);
+    }
+
+    /**
+     * Creates a loader using all available processors.
+     */
+    public static CurveDirectoryLoader Of() {
+        return new CurveDirectoryLoader(Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * Creates a loader parsing at most the number of files given at once.
+     */
+    public static CurveDirectoryLoader Of(int parallelism) {
+        return new CurveDirectoryLoader(parallelism, null);
+    }
+
+    /**
+     * Creates a loader parsing at most the number of files given at once, sharing the buckets of
+     * curves with the same profile through the interner.
+     */
+    public static CurveDirectoryLoader Of(int parallelism, CurveInterner interner) {
+        return new CurveDirectoryLoader(parallelism, interner);
+    }
+
+    /**
+     * Loads every csv file in the directory given.
+     *
+     * @param directory The directory containing the curve files
+     * @return The curves loaded and the errors for any files that could not be loaded.
+     * @throws IOException if the directory cannot be listed
+     */
+    public CurveLoadResult loadDirectory(String directory) throws IOException {
+        Map<String, String> files = new LinkedHashMap<>();
+        try (DirectoryStream<Path> stream =
+                Files.newDirectoryStream(Path.of(directory), "*" + CSV_EXTENSION)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                String symbol = fileName.substring(0, fileName.length() - CSV_EXTENSION.length());
+                files.put(symbol, file.toString());
+            }
+        }
+
+        return load(files);
+    }
+
+    /**
+     * Loads every curve file listed in the manifest given. A symbol listed more than once is
+     * loaded from its first file, with an error in the result for each later line listing it.
+     *
+     * @param manifestPath The path of the manifest file
+     * @return The curves loaded and the errors for any files that could not be loaded.
+     * @throws IOException if the manifest cannot be read
+     */
+    public CurveLoadResult loadManifest(String manifestPath) throws IOException {
+        Path manifestDirectory = Path.of(manifestPath).toAbsolutePath().getParent();
+        Map<String, String> files = new LinkedHashMap<>();
+        List<CurveLoadError> duplicates = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(manifestPath))) {
+            String line = "";
+            boolean firstLine = true;
+            while ((line = reader.readLine()) != null) {
+                boolean header = firstLine && line.trim().equals(MANIFEST_HEADER);
+                firstLine = false;
+                if (line.isBlank() || header) {
+                    // header line should be ignored
+                    continue;
+                }
+                int separator = line.indexOf(',');
+                if (separator < 0) {
+                    throw new IOException(
+                            "Manifest line is not of the form " + MANIFEST_HEADER + ": " + line);
+                }
+                String symbol = line.substring(0, separator).trim();
+                Path file = manifestDirectory.resolve(line.substring(separator + 1).trim());
+                if (files.containsKey(symbol)) {
+                    duplicates.add(CurveLoadError.Of(symbol, file.toString(),
+                            new IllegalArgumentException("Symbol " + symbol
+                                    + " is listed more than once in manifest " + manifestPath)));
+                    continue;
+                }
+                files.put(symbol, file.toString());
+            }
+        }
+
+        CurveLoadResult result = load(files);
+        if (duplicates.isEmpty()) {
+            return result;
+        }
+
+        List<CurveLoadError> errors = new ArrayList<>(result.getErrors());
+        errors.addAll(duplicates);
+        return CurveLoadResult.Of(result.getCurves(), errors);
+    }
+
+    /**
+     * Loads the curve for each symbol from the file path given for it.
+     *
+     * @param files The file path of the curve for each symbol
+     * @return The curves loaded, in the order of the symbols given, and the errors for any files
+     *         that could not be loaded.
+     */
+    public CurveLoadResult load(Map<String, String> files) {
+        ForkJoinPool pool = newPool();
+        try {
+            return load(files, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Loads the curve for each symbol from the file path given for it, parsing the files on the
+     * pool given rather than on a pool created for the load, so that a caller loading files
+     * repeatedly can keep one pool for all of its loads.
+     *
+     * @param files The file path of the curve for each symbol
+     * @param pool The pool to parse the files on, which is not shut down
+     * @return The curves loaded, in the order of the symbols given, and the errors for any files
+     *         that could not be loaded.
+     */
+    public CurveLoadResult load(Map<String, String> files, ForkJoinPool pool) {
+        List<ForkJoinTask<Object>> tasks = new ArrayList<>(files.size());
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            tasks.add(pool.submit(() -> loadFile(file.getKey(), file.getValue())));
+        }
+
+        List<Curve> curves = new ArrayList<>(files.size());
+        List<CurveLoadError> errors = new ArrayList<>();
+        for (ForkJoinTask<Object> task : tasks) {
+            Object outcome = task.join();
+            if (outcome instanceof Curve) {
+                curves.add((Curve) outcome);
+            } else {
+                errors.add((CurveLoadError) outcome);
+            }
+        }
+
+        return CurveLoadResult.Of(curves, errors);
+    }
+
+    /**
+     * Creates a pool parsing at most the number of files this loader was created for at once.
+     */
+    public ForkJoinPool newPool() {
+        return new ForkJoinPool(Parallelism);
+    }
+
+    /**
+     * Returns either the curve loaded from the file, or the error explaining why it could not be.
+     */
+    private Object loadFile(String symbol, String filePath) {
+        try {
+            return Reader.loadCurve(symbol, filePath);
+        } catch (Exception e) {
+            return CurveLoadError.Of(symbol, filePath, e);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.effanville.curvedata.IO;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import com.effanville.curvedata.Curve;
+import com.effanville.curvedata.CurveStore;
+import com.effanville.curvedata.CurveValidationResult;
+import com.effanville.curvedata.CurveValidator;
+import com.effanville.curvedata.ValidationMode;
+
+/**
+ * Keeps a {@link CurveStore} up to date with the curve csv files in a directory, reloading each
+ * file as it is republished. The symbol of each curve is the name of its file without the
+ * <code>.csv</code> extension, as for {@link CurveDirectoryLoader#loadDirectory(String)}.
+ * <p>
+ * Changes are found by a {@link WatchService} on a single background thread. A file is only
+ * reloaded once no change has been seen to it for the debounce period, so a file still being
+ * written is not read part way through. The files that have settled are parsed and validated
+ * together on a pool kept for the life of the watcher, and every valid curve among them is put
+ * into the store in one atomic step. A file that cannot be parsed, or whose curve is not valid,
+ * leaves the previous curve for the symbol in the store, with the error kept until the file is
+ * next loaded successfully. If the reload as a whole fails, the failure is kept as the error of
+ * each of its files and watching continues. Deleting a file also leaves its curve in the store.
+ * <p>
+ * Readers of the store are never blocked by a reload, as the store publishes each new curve set
+ * with a single atomic swap.
+ */
+public final class CurveDirectoryWatcher implements Closeable {
+    private static final String CSV_EXTENSION = ".csv";
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(500);
+
+    private final Path Directory;
+    private final CurveStore Store;
+    private final long DebounceNanos;
+    private final CurveDirectoryLoader Loader = CurveDirectoryLoader.Of();
+    private final CurveValidator Validator = CurveValidator.Of(ValidationMode.FAIL_FAST);
+    private final Map<String, CurveLoadError> Errors = new ConcurrentHashMap<>();
+    private final AtomicLong ReloadCount = new AtomicLong();
+
+    /**
+     * The time each changed file was last seen to change, in order of the first change. Only
+     * used by the watching thread.
+     */
+    private final Map<String, Long> Pending = new LinkedHashMap<>();
+    private WatchService Watcher;
+    private ForkJoinPool Pool;
+    private Thread WatchThread;
+    private volatile boolean Running;
+
+    private CurveDirectoryWatcher(Path directory, CurveStore store, Duration debounce) {
+        if (debounce.isNegative()) {
+            throw new IllegalArgumentException("Debounce must not be negative, was " + debounce);
+        }
+        Directory = directory;
+        Store = store;
+        DebounceNanos = debounce.toNanos();
+    }
+
+    /**
+     * Creates a watcher reloading files once they have not changed for half a second.
+     */
+    public static CurveDirectoryWatcher Of(String directory, CurveStore store) {
+        return new CurveDirectoryWatcher(Path.of(directory), store, DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * Creates a watcher reloading files once they have not changed for the debounce period.
+     */
+    public static CurveDirectoryWatcher Of(String directory, CurveStore store, Duration debounce) {
+        return new CurveDirectoryWatcher(Path.of(directory), store, debounce);
+    }
+
+    /**
+     * Starts watching the directory, first loading every curve file already in it. Files changed
+     * while the existing files are loaded are reloaded once they settle.
+     *
+     * @throws IOException if the directory cannot be watched or listed
+     * @throws IllegalStateException if the watcher has already been started
+     */
+    public synchronized void start() throws IOException {
+        if (Watcher != null) {
+            throw new IllegalStateException("Watcher for " + Directory + " already started");
+        }
+
+        Watcher = Directory.getFileSystem().newWatchService();
+        Pool = Loader.newPool();
+        try {
+            Directory.register(Watcher, ENTRY_CREATE, ENTRY_MODIFY);
+            reload(listFiles());
+        } catch (IOException | RuntimeException e) {
+            Watcher.close();
+            Pool.shutdown();
+            throw e;
+        }
+
+        Running = true;
+        WatchThread = new Thread(this::watch, "curve-watcher-" + Directory.getFileName());
+        WatchThread.setDaemon(true);
+        WatchThread.start();
+    }
+
+    /**
+     * Stops watching the directory, waiting for any reload in progress to finish. The store keeps
+     * the curves last loaded.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        Running = false;
+        if (Watcher == null) {
+            return;
+        }
+
+        Watcher.close();
+        try {
+            if (WatchThread != null) {
+                WatchThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            Pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the number of curves put into the store since the watcher was started.
+     */
+    public long getReloadCount() {
+        return ReloadCount.get();
+    }
+
+    /**
+     * Returns the error for each symbol whose file last failed to load, for which the store still
+     * holds the previous curve, if any.
+     *
+     * @return An immutable map of symbol to the error loading its file.
+     */
+    public Map<String, CurveLoadError> getErrors() {
+        return Map.copyOf(Errors);
+    }
+
+    private void watch() {
+        try {
+            while (Running) {
+                WatchKey key = waitForChange();
+                if (key != null) {
+                    recordChanges(key);
+                }
+
+                reloadSettled();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // the watcher has been closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the next change to the directory, or until the first pending file has settled.
+     */
+    private WatchKey waitForChange() throws InterruptedException {
+        if (Pending.isEmpty()) {
+            return Watcher.take();
+        }
+
+        long firstChange = Long.MAX_VALUE;
+        for (long changeTime : Pending.values()) {
+            firstChange = Math.min(firstChange, changeTime);
+        }
+
+        long wait = firstChange + DebounceNanos - System.nanoTime();
+        return Watcher.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+    }
+
+    private void recordChanges(WatchKey key) {
+        long now = System.nanoTime();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // changes have been missed, so every file must be checked
+                try {
+                    for (String symbol : listFiles().keySet()) {
+                        Pending.put(symbol, now);
+                    }
+                } catch (IOException e) {
+                    // the directory cannot be listed, so only the changes seen are reloaded
+                }
+                continue;
+            }
+
+            String fileName = event.context().toString();
+            if (fileName.endsWith(CSV_EXTENSION)) {
+                Pending.put(fileName.substring(0, fileName.length() - CSV_EXTENSION.length()),
+                        now);
+            }
+        }
+
+        key.reset();
+    }
+
+    private void reloadSettled() {
+        long now = System.nanoTime();
+        Map<String, String> files = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, Long>> iterator = Pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> change = iterator.next();
+            if (now - change.getValue() >= DebounceNanos) {
+                Path file = Directory.resolve(change.getKey() + CSV_EXTENSION);
+                if (Files.isRegularFile(file)) {
+                    files.put(change.getKey(), file.toString());
+                }
+                iterator.remove();
+            }
+        }
+
+        if (files.isEmpty()) {
+            return;
+        }
+
+        try {
+            reload(files);
+        } catch (RuntimeException e) {
+            // the previous curves are kept, and watching continues so later changes are reloaded
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                Errors.put(file.getKey(), CurveLoadError.Of(file.getKey(), file.getValue(), e));
+            }
+        }
+    }
+
+    /**
+     * Parses and validates the files given, putting every valid curve into the store at once.
+     */
+    private void reload(Map<String, String> files) {
+        CurveLoadResult result = Loader.load(files, Pool);
+        List<Curve> valid = new ArrayList<>(result.getCurves().size());
+        for (Curve curve : result.getCurves()) {
+            CurveValidationResult validation = Validator.validate(curve);
+            if (validation.isValid()) {
+                valid.add(curve);
+            } else {
+                String symbol = curve.getSymbol();
+                Errors.put(symbol, CurveLoadError.Of(symbol, files.get(symbol),
+                        new IllegalArgumentException("Curve for " + symbol + " is not valid: "
+                                + validation.getViolations().get(0).getMessage())));
+            }
+        }
+        for (CurveLoadError error : result.getErrors()) {
+            Errors.put(error.getSymbol(), error);
+        }
+
+        if (!valid.isEmpty()) {
+            Store.putAll(valid);
+            for (Curve curve : valid) {
+                Errors.remove(curve.getSymbol());
+            }
+            ReloadCount.addAndGet(valid.size());
+        }
+    }
+
+    private Map<String, String> listFiles() throws IOException {
+        Map<String, String> files = new HashMap<>();
+        try (DirectoryStream<Path> stream =
+                Files.newDirectoryStream(Directory, "*" + CSV_EXTENSION)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                String symbol = fileName.substring(0, fileName.length() - CSV_EXTENSION.length());
+                files.put(symbol, file.toString());
+            }
+        }
+
+        return files;
+    }
+
+    @Override
+    public String toString() {
+        return "Directory=" + Directory + ", ReloadCount=" + getReloadCount();
+    }
+}
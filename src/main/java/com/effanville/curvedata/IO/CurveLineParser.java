@@ -0,0 +1,296 @@
+package com.effanville.curvedata.IO;
+
+import java.nio.charset.StandardCharsets;
+import com.effanville.curvedata.BucketType;
+
+/**
+ * Parses a line of a curve csv file straight from the bytes of the file, without creating any
+ * intermediate Strings. The parsed values of the last line are held in the parser, so a single
+ * parser can be reused for every line of a file.
+ * <p>
+ * The format accepted is exactly that of splitting the line on commas and parsing the fields with
+ * {@link java.time.LocalTime#parse(CharSequence)}, {@link Double#valueOf(String)} and
+ * {@link BucketType#valueOf(String)}. Lines with fewer than four fields, once trailing empty
+ * fields are dropped, are skipped, as are header lines starting with <code>StartTime</code>, and
+ * any fields after the fourth are ignored.
+ * <p>
+ * Times are of the form HH:mm, HH:mm:ss or HH:mm:ss.fraction and are read directly into the
+ * nanosecond of the day. Volumes written as plain decimals with up to 15 significant digits are
+ * read directly as these can be converted exactly with a single multiplication or division by a
+ * power of ten. Any other volume, for example one with 17 significant digits, NaN or a hex
+ * float, is handed to {@link Double#parseDouble(String)} so the value is always exactly that of
+ * {@link Double#valueOf(String)}.
+ */
+final class CurveLineParser {
+    private static final byte[] HEADER = "StartTime".getBytes(StandardCharsets.US_ASCII);
+    private static final BucketType[] BUCKET_TYPES = BucketType.values();
+    private static final byte[][] BUCKET_TYPE_NAMES = new byte[BUCKET_TYPES.length][];
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        for (int index = 0; index < BUCKET_TYPES.length; index++) {
+            BUCKET_TYPE_NAMES[index] =
+                    BUCKET_TYPES[index].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int index = 1; index < POWERS_OF_TEN.length; index++) {
+            POWERS_OF_TEN[index] = POWERS_OF_TEN[index - 1] * 10;
+        }
+    }
+
+    private long StartNanoOfDay;
+    private long EndNanoOfDay;
+    private double Volume;
+    private BucketType Type;
+
+    long getStartNanoOfDay() {
+        return StartNanoOfDay;
+    }
+
+    long getEndNanoOfDay() {
+        return EndNanoOfDay;
+    }
+
+    double getVolume() {
+        return Volume;
+    }
+
+    BucketType getType() {
+        return Type;
+    }
+
+    /**
+     * Parses the line held in the bytes from start up to but excluding end.
+     *
+     * @return true if the line held a bucket, or false if the line should be skipped.
+     * @throws CurveParseException if the line is not a valid bucket
+     */
+    boolean parseLine(byte[] bytes, int start, int end, int lineNumber) {
+        if (startsWith(bytes, start, end, HEADER)) {
+            // header line should be ignored
+            return false;
+        }
+
+        int firstComma = indexOfComma(bytes, start, end);
+        int secondComma = indexOfComma(bytes, firstComma + 1, end);
+        int thirdComma = indexOfComma(bytes, secondComma + 1, end);
+        if (thirdComma >= end || !hasNonEmptyField(bytes, thirdComma + 1, end)) {
+            return false;
+        }
+
+        int fourthComma = indexOfComma(bytes, thirdComma + 1, end);
+        StartNanoOfDay = parseTime(bytes, start, firstComma, start, lineNumber);
+        EndNanoOfDay = parseTime(bytes, firstComma + 1, secondComma, start, lineNumber);
+        Volume = parseVolume(bytes, secondComma + 1, thirdComma, start, lineNumber);
+        Type = parseBucketType(bytes, thirdComma + 1, fourthComma, start, lineNumber);
+        return true;
+    }
+
+    private static long parseTime(byte[] bytes, int start, int end, int lineStart,
+            int lineNumber) {
+        int position = start;
+        int hour = parseTwoDigits(bytes, position, end, lineStart, lineNumber);
+        position += 2;
+        expect(bytes, position, end, ':', lineStart, lineNumber);
+        position++;
+        int minute = parseTwoDigits(bytes, position, end, lineStart, lineNumber);
+        position += 2;
+
+        int second = 0;
+        long nanos = 0;
+        if (position < end) {
+            expect(bytes, position, end, ':', lineStart, lineNumber);
+            position++;
+            second = parseTwoDigits(bytes, position, end, lineStart, lineNumber);
+            position += 2;
+            if (position < end) {
+                expect(bytes, position, end, '.', lineStart, lineNumber);
+                position++;
+                int digits = 0;
+                long scale = 100_000_000L;
+                while (position < end && digits < 9 && isDigit(bytes[position])) {
+                    nanos += (bytes[position] - '0') * scale;
+                    scale /= 10;
+                    digits++;
+                    position++;
+                }
+                if (position < end) {
+                    throw error(lineNumber, position, lineStart,
+                            "Unexpected text '" + text(bytes, position, end) + "' in time");
+                }
+            }
+        }
+
+        if (hour > 23) {
+            throw error(lineNumber, start, lineStart, "Invalid hour " + hour + " in time");
+        }
+        if (minute > 59) {
+            throw error(lineNumber, start + 3, lineStart, "Invalid minute " + minute + " in time");
+        }
+        if (second > 59) {
+            throw error(lineNumber, start + 6, lineStart, "Invalid second " + second + " in time");
+        }
+
+        return (hour * 3600L + minute * 60L + second) * NANOS_PER_SECOND + nanos;
+    }
+
+    private static int parseTwoDigits(byte[] bytes, int position, int end, int lineStart,
+            int lineNumber) {
+        for (int index = position; index < position + 2; index++) {
+            if (index >= end || !isDigit(bytes[index])) {
+                throw error(lineNumber, index, lineStart, "Expected a digit in time");
+            }
+        }
+
+        return (bytes[position] - '0') * 10 + (bytes[position + 1] - '0');
+    }
+
+    private static void expect(byte[] bytes, int position, int end, char expected, int lineStart,
+            int lineNumber) {
+        if (position >= end || bytes[position] != expected) {
+            throw error(lineNumber, position, lineStart, "Expected '" + expected + "' in time");
+        }
+    }
+
+    private static double parseVolume(byte[] bytes, int start, int end, int lineStart,
+            int lineNumber) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (bytes[position] == '-' || bytes[position] == '+')) {
+            negative = bytes[position] == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        for (; position < end; position++) {
+            byte value = bytes[position];
+            if (isDigit(value)) {
+                digits++;
+                if (mantissa != 0 || value != '0') {
+                    significantDigits++;
+                }
+                mantissa = mantissa * 10 + (value - '0');
+                if (fraction) {
+                    exponent--;
+                }
+                if (significantDigits > 15) {
+                    return parseVolumeFallback(bytes, start, end, lineStart, lineNumber);
+                }
+            } else if (value == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+
+        if (digits == 0) {
+            return parseVolumeFallback(bytes, start, end, lineStart, lineNumber);
+        }
+
+        if (position < end && (bytes[position] == 'e' || bytes[position] == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < end && (bytes[position] == '-' || bytes[position] == '+')) {
+                negativeExponent = bytes[position] == '-';
+                position++;
+            }
+            int exponentDigits = 0;
+            int exponentValue = 0;
+            for (; position < end && isDigit(bytes[position]); position++) {
+                exponentDigits++;
+                if (exponentDigits > 3) {
+                    return parseVolumeFallback(bytes, start, end, lineStart, lineNumber);
+                }
+                exponentValue = exponentValue * 10 + (bytes[position] - '0');
+            }
+            if (exponentDigits == 0) {
+                return parseVolumeFallback(bytes, start, end, lineStart, lineNumber);
+            }
+            exponent += negativeExponent ? -exponentValue : exponentValue;
+        }
+
+        if (position < end || mantissa > MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) {
+            return parseVolumeFallback(bytes, start, end, lineStart, lineNumber);
+        }
+
+        double volume = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+                : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -volume : volume;
+    }
+
+    private static double parseVolumeFallback(byte[] bytes, int start, int end, int lineStart,
+            int lineNumber) {
+        String volume = text(bytes, start, end);
+        try {
+            return Double.parseDouble(volume);
+        } catch (NumberFormatException e) {
+            throw new CurveParseException(lineNumber, start - lineStart + 1,
+                    "Invalid volume '" + volume + "'", e);
+        }
+    }
+
+    private static BucketType parseBucketType(byte[] bytes, int start, int end, int lineStart,
+            int lineNumber) {
+        for (int index = 0; index < BUCKET_TYPE_NAMES.length; index++) {
+            byte[] name = BUCKET_TYPE_NAMES[index];
+            if (name.length == end - start && startsWith(bytes, start, end, name)) {
+                return BUCKET_TYPES[index];
+            }
+        }
+
+        throw error(lineNumber, start, lineStart,
+                "Unknown bucket type '" + text(bytes, start, end) + "'");
+    }
+
+    private static boolean startsWith(byte[] bytes, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int index = 0; index < prefix.length; index++) {
+            if (bytes[start + index] != prefix[index]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int indexOfComma(byte[] bytes, int start, int end) {
+        for (int index = start; index < end; index++) {
+            if (bytes[index] == ',') {
+                return index;
+            }
+        }
+
+        return end;
+    }
+
+    private static boolean hasNonEmptyField(byte[] bytes, int start, int end) {
+        for (int index = start; index < end; index++) {
+            if (bytes[index] != ',') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static String text(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static CurveParseException error(int lineNumber, int position, int lineStart,
+            String message) {
+        return new CurveParseException(lineNumber, position - lineStart + 1, message);
+    }
+}
@@ -0,0 +1,41 @@
+package com.effanville.curvedata.IO;
+
+/**
+ * The reason a single curve file could not be loaded.
+ */
+public final class CurveLoadError {
+    private final String Symbol;
+    private final String FilePath;
+    private final Exception Cause;
+
+    private CurveLoadError(String symbol, String filePath, Exception cause) {
+        Symbol = symbol;
+        FilePath = filePath;
+        Cause = cause;
+    }
+
+    public static CurveLoadError Of(String symbol, String filePath, Exception cause) {
+        return new CurveLoadError(symbol, filePath, cause);
+    }
+
+    public String getSymbol() {
+        return Symbol;
+    }
+
+    public String getFilePath() {
+        return FilePath;
+    }
+
+    public Exception getCause() {
+        return Cause;
+    }
+
+    public String getMessage() {
+        return Cause.getClass().getSimpleName() + ": " + Cause.getMessage();
+    }
+
+    @Override
+    public String toString() {
+        return "Symbol='" + Symbol + "', File=" + FilePath + ", Error=" + getMessage();
+    }
+}
@@ -0,0 +1,39 @@
+package com.effanville.curvedata.IO;
+
+import java.util.List;
+import com.effanville.curvedata.Curve;
+
+/**
+ * The outcome of loading many curve files, holding every curve that was loaded along with the
+ * error for each file that could not be.
+ */
+public final class CurveLoadResult {
+    private final List<Curve> Curves;
+    private final List<CurveLoadError> Errors;
+
+    private CurveLoadResult(List<Curve> curves, List<CurveLoadError> errors) {
+        Curves = List.copyOf(curves);
+        Errors = List.copyOf(errors);
+    }
+
+    public static CurveLoadResult Of(List<Curve> curves, List<CurveLoadError> errors) {
+        return new CurveLoadResult(curves, errors);
+    }
+
+    public List<Curve> getCurves() {
+        return Curves;
+    }
+
+    public List<CurveLoadError> getErrors() {
+        return Errors;
+    }
+
+    public boolean hasErrors() {
+        return !Errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "CurveCount=" + Curves.size() + ", ErrorCount=" + Errors.size();
+    }
+}
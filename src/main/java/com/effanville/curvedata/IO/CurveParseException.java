@@ -0,0 +1,36 @@
+package com.effanville.curvedata.IO;
+
+/**
+ * Thrown when a line of a curve csv file cannot be parsed, recording the line and column of the
+ * file where the problem was found.
+ */
+public class CurveParseException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final int LineNumber;
+    private final int Column;
+
+    public CurveParseException(int lineNumber, int column, String message) {
+        this(lineNumber, column, message, null);
+    }
+
+    public CurveParseException(int lineNumber, int column, String message, Throwable cause) {
+        super("Line " + lineNumber + ", column " + column + ": " + message, cause);
+        LineNumber = lineNumber;
+        Column = column;
+    }
+
+    /**
+     * Returns the line of the file, counting from 1, that could not be parsed.
+     */
+    public int getLineNumber() {
+        return LineNumber;
+    }
+
+    /**
+     * Returns the column of the line, counting from 1, where the problem was found.
+     */
+    public int getColumn() {
+        return Column;
+    }
+}
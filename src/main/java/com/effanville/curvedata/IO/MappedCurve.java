@@ -0,0 +1,192 @@
+package com.effanville.curvedata.IO;
+
+import static com.effanville.curvedata.IO.CurveBinaryFormat.BUCKET_END;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.BUCKET_SIZE;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.BUCKET_START;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.BUCKET_VOLUME;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.BUCKET_VOLUME_BEFORE;
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+import com.effanville.curvedata.BucketColumns;
+import com.effanville.curvedata.BucketType;
+import com.effanville.curvedata.Curve;
+import com.effanville.curvedata.CurveBucket;
+import com.effanville.curvedata.CurveSessions;
+import com.effanville.curvedata.CurveValidator;
+import com.effanville.curvedata.ValidationMode;
+
+/**
+ * A Curve served directly from the bucket records of a mapped binary curve set file, without
+ * copying the buckets onto the heap. Queries find the bucket by binary search over the records
+ * and use the cumulative volume stored with each record, with the search and interpolation of
+ * {@link BucketColumns}, giving exactly the volumes of the curve that was written.
+ * <p>
+ * Only absolute reads are made from the buffer, so the curve can be queried from any number of
+ * threads.
+ */
+public final class MappedCurve implements Curve {
+    private static final BucketType[] BUCKET_TYPES = BucketType.values();
+    private static final CurveValidator FAIL_FAST_VALIDATOR =
+            CurveValidator.Of(ValidationMode.FAIL_FAST);
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final String Symbol;
+    private final ByteBuffer Buffer;
+    private final int BucketOffset;
+    private final int BucketCount;
+    private final BucketColumns Columns;
+    private final CurveSessions.Holder Sessions = CurveSessions.Holder.Of();
+
+    MappedCurve(String symbol, ByteBuffer buffer, int bucketOffset, int bucketCount,
+            boolean ordered) {
+        Symbol = symbol;
+        Buffer = buffer;
+        BucketOffset = bucketOffset;
+        BucketCount = bucketCount;
+        Columns = new MappedColumns(ordered);
+    }
+
+    @Override
+    public String getSymbol() {
+        return Symbol;
+    }
+
+    @Override
+    public int numberBuckets() {
+        return BucketCount;
+    }
+
+    @Override
+    public CurveBucket getBucket(int index) {
+        int record = record(index);
+        return CurveBucket.Of(LocalTime.ofSecondOfDay(startSecond(index)),
+                LocalTime.ofSecondOfDay(endSecond(index)), volume(index),
+                BUCKET_TYPES[Buffer.get(record + CurveBinaryFormat.BUCKET_TYPE)]);
+    }
+
+    /**
+     * Mapped curves are read only, so buckets cannot be added.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addBucket(CurveBucket bucket) {
+        throw new UnsupportedOperationException("Curve for " + Symbol + " is immutable");
+    }
+
+    /**
+     * Validates the curve with the rules of {@link CurveValidator}, reading the mapped columns
+     * directly.
+     */
+    @Override
+    public Boolean isValid() {
+        return FAIL_FAST_VALIDATOR.isValid(Columns, 0, BucketCount);
+    }
+
+    @Override
+    public double getVolume(LocalTime start, LocalTime end) {
+        return getVolumeNanos(start.toNanoOfDay(), end.toNanoOfDay());
+    }
+
+    @Override
+    public double getVolumeNanos(long startNanoOfDay, long endNanoOfDay) {
+        return Columns.volume(0, BucketCount, startNanoOfDay, endNanoOfDay);
+    }
+
+    @Override
+    public double getRelativeVolume(LocalTime start, LocalTime end, LocalTime time) {
+        return getRelativeVolumeNanos(start.toNanoOfDay(), end.toNanoOfDay(), time.toNanoOfDay());
+    }
+
+    @Override
+    public double getRelativeVolumeNanos(long startNanoOfDay, long endNanoOfDay,
+            long nanoOfDay) {
+        return Columns.relativeVolume(0, BucketCount, startNanoOfDay, endNanoOfDay, nanoOfDay);
+    }
+
+    @Override
+    public LocalTime getTimeForVolume(LocalTime start, double volume) {
+        if (!Columns.isOrdered()) {
+            return Curve.super.getTimeForVolume(start, volume);
+        }
+
+        long nanoOfDay = Columns.nanosForVolume(0, BucketCount, start.toNanoOfDay(), volume);
+        return nanoOfDay < 0 ? null : LocalTime.ofNanoOfDay(nanoOfDay);
+    }
+
+    @Override
+    public LocalTime[] getEqualVolumeTimes(LocalTime start, LocalTime end, int slices) {
+        if (!Columns.isOrdered()) {
+            return Curve.super.getEqualVolumeTimes(start, end, slices);
+        }
+
+        return Columns.timesOfDayForVolumes(0, BucketCount, start,
+                Curve.equalVolumeSlices(getVolume(start, end), slices));
+    }
+
+    @Override
+    public CurveSessions getSessions() {
+        return Sessions.get(this);
+    }
+
+    @Override
+    public void getCumulativeVolumes(int[] secondsOfDay, double[] volumes) {
+        Curve.checkCumulativeVolumeArguments(secondsOfDay, volumes);
+        Columns.cumulativeVolumes(0, BucketCount, secondsOfDay, volumes);
+    }
+
+    private int record(int index) {
+        return BucketOffset + index * BUCKET_SIZE;
+    }
+
+    private int startSecond(int index) {
+        return Buffer.getInt(record(index) + BUCKET_START);
+    }
+
+    private int endSecond(int index) {
+        return Buffer.getInt(record(index) + BUCKET_END);
+    }
+
+    private double volume(int index) {
+        return Buffer.getDouble(record(index) + BUCKET_VOLUME);
+    }
+
+    /**
+     * The columns of the bucket records of this curve, read from the mapped buffer.
+     */
+    private final class MappedColumns extends BucketColumns {
+        private MappedColumns(boolean ordered) {
+            super(ordered);
+        }
+
+        @Override
+        protected int size() {
+            return BucketCount;
+        }
+
+        @Override
+        protected long startNanos(int index) {
+            return startSecond(index) * NANOS_PER_SECOND;
+        }
+
+        @Override
+        protected long endNanos(int index) {
+            return endSecond(index) * NANOS_PER_SECOND;
+        }
+
+        @Override
+        protected double volume(int index) {
+            return MappedCurve.this.volume(index);
+        }
+
+        @Override
+        protected double volumeBefore(int index) {
+            return Buffer.getDouble(record(index) + BUCKET_VOLUME_BEFORE);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Symbol='" + Symbol + "', BucketCount=" + BucketCount;
+    }
+}
@@ -0,0 +1,139 @@
+package com.effanville.curvedata.IO;
+
+import static com.effanville.curvedata.IO.CurveBinaryFormat.DIRECTORY_ENTRY_SIZE;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.ENTRY_BUCKET_COUNT;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.ENTRY_BUCKET_OFFSET;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.ENTRY_FLAGS;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.ENTRY_SYMBOL_LENGTH;
+import static com.effanville.curvedata.IO.CurveBinaryFormat.ENTRY_SYMBOL_OFFSET;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import com.effanville.curvedata.CurveLoader;
+
+/**
+ * The curves of a binary curve set file mapped into memory by a {@link CurveBinaryReader}.
+ * <p>
+ * Nothing is read from the file when it is opened beyond its header. Looking up a symbol is a
+ * binary search of the symbol directory in the mapped file, and the {@link MappedCurve} returned
+ * reads its buckets straight from the mapping, so a process can query any symbol without
+ * deserializing the whole file.
+ */
+public final class MappedCurveSet {
+    private final ByteBuffer Buffer;
+    private final int CurveCount;
+    private final int DirectoryOffset;
+
+    MappedCurveSet(ByteBuffer buffer, int curveCount, int directoryOffset) {
+        Buffer = buffer;
+        CurveCount = curveCount;
+        DirectoryOffset = directoryOffset;
+    }
+
+    public int size() {
+        return CurveCount;
+    }
+
+    /**
+     * Returns the curve for the symbol, or null if the file has no such curve.
+     *
+     * @param symbol The symbol of the curve to return
+     * @return The curve for the symbol, read from the mapped file.
+     */
+    public MappedCurve get(String symbol) {
+        byte[] symbolBytes = symbol.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = CurveCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compareSymbol(mid, symbolBytes);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return curve(mid, symbol);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns a loader of the curves of this file for a
+     * {@link com.effanville.curvedata.CurveCache}, looking up the symbol of each key. The file
+     * holds one variant of each curve, so the lookback and type of day of the key are not used.
+     */
+    public CurveLoader asLoader() {
+        return key -> {
+            MappedCurve curve = get(key.getSymbol());
+            if (curve == null) {
+                throw new IOException("No curve for " + key.getSymbol() + " in the curve set");
+            }
+            return curve;
+        };
+    }
+
+    /**
+     * Returns the curve at the index given in the directory, where curves are sorted by symbol.
+     */
+    public MappedCurve get(int index) {
+        return curve(index, symbol(index));
+    }
+
+    /**
+     * Returns the symbols of every curve in the file, sorted by their UTF-8 bytes.
+     */
+    public List<String> symbols() {
+        List<String> symbols = new ArrayList<>(CurveCount);
+        for (int index = 0; index < CurveCount; index++) {
+            symbols.add(symbol(index));
+        }
+
+        return symbols;
+    }
+
+    private MappedCurve curve(int index, String symbol) {
+        int entry = entry(index);
+        return new MappedCurve(symbol, Buffer, Buffer.getInt(entry + ENTRY_BUCKET_OFFSET),
+                Buffer.getInt(entry + ENTRY_BUCKET_COUNT),
+                (Buffer.get(entry + ENTRY_FLAGS) & CurveBinaryFormat.FLAG_ORDERED) != 0);
+    }
+
+    private String symbol(int index) {
+        int entry = entry(index);
+        byte[] symbolBytes = new byte[Buffer.getInt(entry + ENTRY_SYMBOL_LENGTH)];
+        Buffer.get(Buffer.getInt(entry + ENTRY_SYMBOL_OFFSET), symbolBytes);
+        return new String(symbolBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the symbol at the index in the directory with the symbol given, as unsigned bytes.
+     */
+    private int compareSymbol(int index, byte[] symbolBytes) {
+        int entry = entry(index);
+        int offset = Buffer.getInt(entry + ENTRY_SYMBOL_OFFSET);
+        int length = Buffer.getInt(entry + ENTRY_SYMBOL_LENGTH);
+        int common = Math.min(length, symbolBytes.length);
+        for (int position = 0; position < common; position++) {
+            int comparison = Integer.compare(Buffer.get(offset + position) & 0xFF,
+                    symbolBytes[position] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        return Integer.compare(length, symbolBytes.length);
+    }
+
+    private int entry(int index) {
+        return DirectoryOffset + index * DIRECTORY_ENTRY_SIZE;
+    }
+
+    @Override
+    public String toString() {
+        return "CurveCount=" + CurveCount;
+    }
+}
@@ -0,0 +1,185 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+
+/**
+ * A Curve recording the count and latency of the queries made of another curve into
+ * {@link CurveMetrics}, counting every query and timing a sample of them at the interval of the
+ * metrics. Only the volume queries are
+ * recorded, while all other methods are passed straight to the curve. Updated copies of the curve
+ * are instrumented with the same metrics.
+ */
+public final class InstrumentedCurve implements Curve {
+    private final Curve Delegate;
+    private final CurveMetrics Metrics;
+
+    private InstrumentedCurve(Curve delegate, CurveMetrics metrics) {
+        Delegate = delegate;
+        Metrics = metrics;
+    }
+
+    public static InstrumentedCurve Of(Curve curve, CurveMetrics metrics) {
+        return new InstrumentedCurve(curve, metrics);
+    }
+
+    /**
+     * Returns the curve being instrumented.
+     */
+    public Curve getDelegate() {
+        return Delegate;
+    }
+
+    @Override
+    public String getSymbol() {
+        return Delegate.getSymbol();
+    }
+
+    @Override
+    public int numberBuckets() {
+        return Delegate.numberBuckets();
+    }
+
+    @Override
+    public CurveBucket getBucket(int index) {
+        return Delegate.getBucket(index);
+    }
+
+    @Override
+    public void addBucket(CurveBucket bucket) {
+        Delegate.addBucket(bucket);
+    }
+
+    @Override
+    public Boolean isValid() {
+        return Delegate.isValid();
+    }
+
+    @Override
+    public double getVolume(LocalTime start, LocalTime end) {
+        if (!Metrics.shouldSample(CurveOperation.GET_VOLUME)) {
+            return Delegate.getVolume(start, end);
+        }
+
+        long startNanos = System.nanoTime();
+        double volume = Delegate.getVolume(start, end);
+        Metrics.recordSample(CurveOperation.GET_VOLUME, System.nanoTime() - startNanos);
+        return volume;
+    }
+
+    @Override
+    public double getRelativeVolume(LocalTime start, LocalTime end, LocalTime time) {
+        if (!Metrics.shouldSample(CurveOperation.GET_RELATIVE_VOLUME)) {
+            return Delegate.getRelativeVolume(start, end, time);
+        }
+
+        long startNanos = System.nanoTime();
+        double volume = Delegate.getRelativeVolume(start, end, time);
+        Metrics.recordSample(CurveOperation.GET_RELATIVE_VOLUME, System.nanoTime() - startNanos);
+        return volume;
+    }
+
+    @Override
+    public double getVolumeNanos(long startNanoOfDay, long endNanoOfDay) {
+        if (!Metrics.shouldSample(CurveOperation.GET_VOLUME)) {
+            return Delegate.getVolumeNanos(startNanoOfDay, endNanoOfDay);
+        }
+
+        long startNanos = System.nanoTime();
+        double volume = Delegate.getVolumeNanos(startNanoOfDay, endNanoOfDay);
+        Metrics.recordSample(CurveOperation.GET_VOLUME, System.nanoTime() - startNanos);
+        return volume;
+    }
+
+    @Override
+    public double getRelativeVolumeNanos(long startNanoOfDay, long endNanoOfDay,
+            long nanoOfDay) {
+        if (!Metrics.shouldSample(CurveOperation.GET_RELATIVE_VOLUME)) {
+            return Delegate.getRelativeVolumeNanos(startNanoOfDay, endNanoOfDay, nanoOfDay);
+        }
+
+        long startNanos = System.nanoTime();
+        double volume = Delegate.getRelativeVolumeNanos(startNanoOfDay, endNanoOfDay, nanoOfDay);
+        Metrics.recordSample(CurveOperation.GET_RELATIVE_VOLUME, System.nanoTime() - startNanos);
+        return volume;
+    }
+
+    @Override
+    public void getCumulativeVolumes(int[] secondsOfDay, double[] volumes) {
+        if (!Metrics.shouldSample(CurveOperation.GET_CUMULATIVE_VOLUMES)) {
+            Delegate.getCumulativeVolumes(secondsOfDay, volumes);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        Delegate.getCumulativeVolumes(secondsOfDay, volumes);
+        Metrics.recordSample(CurveOperation.GET_CUMULATIVE_VOLUMES, System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public CurveSessions getSessions() {
+        return Delegate.getSessions();
+    }
+
+    @Override
+    public double getSessionVolume(BucketType type) {
+        if (!Metrics.shouldSample(CurveOperation.GET_SESSION_VOLUME)) {
+            return Delegate.getSessionVolume(type);
+        }
+
+        long startNanos = System.nanoTime();
+        double volume = Delegate.getSessionVolume(type);
+        Metrics.recordSample(CurveOperation.GET_SESSION_VOLUME, System.nanoTime() - startNanos);
+        return volume;
+    }
+
+    @Override
+    public double getVolume(LocalTime start, LocalTime end, BucketType type) {
+        if (!Metrics.shouldSample(CurveOperation.GET_VOLUME_OF_TYPE)) {
+            return Delegate.getVolume(start, end, type);
+        }
+
+        long startNanos = System.nanoTime();
+        double volume = Delegate.getVolume(start, end, type);
+        Metrics.recordSample(CurveOperation.GET_VOLUME_OF_TYPE, System.nanoTime() - startNanos);
+        return volume;
+    }
+
+    @Override
+    public LocalTime getTimeForVolume(LocalTime start, double volume) {
+        if (!Metrics.shouldSample(CurveOperation.GET_TIME_FOR_VOLUME)) {
+            return Delegate.getTimeForVolume(start, volume);
+        }
+
+        long startNanos = System.nanoTime();
+        LocalTime time = Delegate.getTimeForVolume(start, volume);
+        Metrics.recordSample(CurveOperation.GET_TIME_FOR_VOLUME, System.nanoTime() - startNanos);
+        return time;
+    }
+
+    @Override
+    public LocalTime[] getEqualVolumeTimes(LocalTime start, LocalTime end, int slices) {
+        if (!Metrics.shouldSample(CurveOperation.GET_EQUAL_VOLUME_TIMES)) {
+            return Delegate.getEqualVolumeTimes(start, end, slices);
+        }
+
+        long startNanos = System.nanoTime();
+        LocalTime[] times = Delegate.getEqualVolumeTimes(start, end, slices);
+        Metrics.recordSample(CurveOperation.GET_EQUAL_VOLUME_TIMES, System.nanoTime() - startNanos);
+        return times;
+    }
+
+    @Override
+    public Curve withBucketVolume(int index, double volume) {
+        return new InstrumentedCurve(Delegate.withBucketVolume(index, volume), Metrics);
+    }
+
+    @Override
+    public Curve withVolumesScaledFrom(LocalTime time, double factor) {
+        return new InstrumentedCurve(Delegate.withVolumesScaledFrom(time, factor), Metrics);
+    }
+
+    @Override
+    public String toString() {
+        return Delegate.toString();
+    }
+}
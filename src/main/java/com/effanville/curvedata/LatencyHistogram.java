@@ -0,0 +1,116 @@
+package com.effanville.curvedata;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of latencies in nanoseconds, with a bucket for each power of two. Recording
+ * a latency is a few atomic increments, so latencies can be recorded from many threads at once on
+ * a hot path, at the cost of only knowing percentiles to within a factor of two.
+ */
+public final class LatencyHistogram {
+    private static final int NUMBER_BUCKETS = 64;
+
+    private final LongAdder Count = new LongAdder();
+    private final LongAdder TimedCount = new LongAdder();
+    private final LongAdder TotalNanos = new LongAdder();
+    private final AtomicLongArray Buckets = new AtomicLongArray(NUMBER_BUCKETS);
+
+    LatencyHistogram() {
+    }
+
+    /**
+     * Counts a call and records its latency.
+     */
+    public void record(long nanos) {
+        count();
+        recordTimed(nanos);
+    }
+
+    /**
+     * Counts a call, whose latency may not be measured.
+     */
+    void count() {
+        Count.increment();
+    }
+
+    /**
+     * Records the latency of a call already counted.
+     */
+    void recordTimed(long nanos) {
+        TimedCount.increment();
+        TotalNanos.add(nanos);
+        Buckets.incrementAndGet(bucketOf(nanos));
+    }
+
+    /**
+     * Returns the number of calls, whether their latency was measured or not.
+     */
+    public long getCount() {
+        return Count.sum();
+    }
+
+    /**
+     * Returns the number of calls whose latency was measured.
+     */
+    public long getTimedCount() {
+        return TimedCount.sum();
+    }
+
+    public long getTotalNanos() {
+        return TotalNanos.sum();
+    }
+
+    public double getMeanNanos() {
+        long timedCount = getTimedCount();
+        return timedCount == 0 ? 0 : (double) getTotalNanos() / timedCount;
+    }
+
+    /**
+     * Returns an upper bound of the latency below which the fraction of the measured calls given
+     * fall, e.g. 0.99 for the 99th percentile.
+     *
+     * @param fraction The fraction of calls, between 0 and 1
+     * @return The upper bound of the latency in nanoseconds, or 0 if no latency was measured.
+     */
+    public long getPercentileNanos(double fraction) {
+        long[] counts = new long[NUMBER_BUCKETS];
+        long total = 0;
+        for (int index = 0; index < NUMBER_BUCKETS; index++) {
+            counts[index] = Buckets.get(index);
+            total += counts[index];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int index = 0; index < NUMBER_BUCKETS; index++) {
+            seen += counts[index];
+            if (seen >= Math.max(1, target)) {
+                return upperBound(index);
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * The bucket of a latency is the number of bits needed to hold it, so bucket i holds latencies
+     * from 2^(i-1) up to 2^i - 1.
+     */
+    private static int bucketOf(long nanos) {
+        return Math.min(NUMBER_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= NUMBER_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "Count=" + getCount() + ", Mean=" + Math.round(getMeanNanos()) + "ns, P50="
+                + getPercentileNanos(0.5) + "ns, P99=" + getPercentileNanos(0.99) + "ns";
+    }
+}
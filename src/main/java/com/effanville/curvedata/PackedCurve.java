@@ -0,0 +1,209 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+
+/**
+ * An immutable implementation of a Curve storing the buckets column by column in primitive arrays,
+ * rather than as a list of {@link CurveBucket} objects. Start and end times are held as seconds of
+ * the day, volumes as doubles and bucket types as the ordinal of the {@link BucketType}, so a
+ * curve costs a fixed number of bytes per bucket and queries do not follow any references.
+ * <p>
+ * Bucket times are held to the whole second, so any fractions of a second in the buckets of the
+ * curve this is created from are dropped. Otherwise the volumes returned are exactly those of the
+ * {@link CurveData} the curve was created from. The buckets of that curve must be sorted by start
+ * time, as they are in any {@link Curve}.
+ */
+public final class PackedCurve implements Curve {
+    private static final BucketType[] BUCKET_TYPES = BucketType.values();
+    private static final CurveValidator FAIL_FAST_VALIDATOR =
+            CurveValidator.Of(ValidationMode.FAIL_FAST);
+
+    private final String Symbol;
+    private final CurveIndex Index;
+    private final byte[] Types;
+    private CurveSessions.Holder Sessions = CurveSessions.Holder.Of();
+
+    private PackedCurve(String symbol, CurveIndex index, byte[] types) {
+        Symbol = symbol;
+        Index = index;
+        Types = types;
+    }
+
+    /**
+     * Creates the packed form of the curve given.
+     *
+     * @param curve The curve to pack
+     * @return The packed curve with the same symbol and buckets
+     */
+    public static PackedCurve Of(Curve curve) {
+        int length = curve.numberBuckets();
+        int[] startSeconds = new int[length];
+        int[] endSeconds = new int[length];
+        double[] volumes = new double[length];
+        byte[] types = new byte[length];
+        for (int index = 0; index < length; index++) {
+            CurveBucket bucket = curve.getBucket(index);
+            startSeconds[index] = bucket.getStartTime().toSecondOfDay();
+            endSeconds[index] = bucket.getEndTime().toSecondOfDay();
+            volumes[index] = bucket.getPercentDayVolume();
+            types[index] = (byte) bucket.getType().ordinal();
+        }
+
+        return new PackedCurve(curve.getSymbol(),
+                new CurveIndex(startSeconds, endSeconds, volumes), types);
+    }
+
+    /**
+     * Creates an immutable {@link CurveData} with the same symbol and buckets as this curve.
+     *
+     * @return The unpacked curve.
+     */
+    public CurveData toCurveData() {
+        CurveData.Builder builder = CurveData.Builder.Of(Symbol);
+        for (int index = 0; index < numberBuckets(); index++) {
+            builder.addBucket(getBucket(index));
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    public String getSymbol() {
+        return Symbol;
+    }
+
+    @Override
+    public int numberBuckets() {
+        return Index.numberBuckets();
+    }
+
+    /**
+     * Returns a new bucket holding the values stored at the index given.
+     */
+    @Override
+    public CurveBucket getBucket(int index) {
+        return CurveBucket.Of(LocalTime.ofSecondOfDay(Index.startSecond(index)),
+                LocalTime.ofSecondOfDay(Index.endSecond(index)), Index.volume(index),
+                BUCKET_TYPES[Types[index]]);
+    }
+
+    /**
+     * Returns the curve for another symbol, sharing the buckets of this curve.
+     *
+     * @param symbol The symbol of the new curve
+     * @return The curve for the symbol.
+     */
+    public PackedCurve withSymbol(String symbol) {
+        PackedCurve curve = new PackedCurve(symbol, Index, Types);
+        curve.Sessions = Sessions;
+        return curve;
+    }
+
+    /**
+     * Returns a copy of the curve with the volume of one bucket replaced, sharing the bucket times
+     * and types with this curve and updating the cumulative volumes from the bucket changed.
+     */
+    @Override
+    public PackedCurve withBucketVolume(int index, double volume) {
+        return new PackedCurve(Symbol, Index.withVolume(index, volume), Types);
+    }
+
+    /**
+     * Returns a copy of the curve with the volume of every bucket starting at or after the time
+     * multiplied by the factor, sharing the bucket times and types with this curve and updating
+     * the cumulative volumes from the first bucket scaled.
+     */
+    @Override
+    public PackedCurve withVolumesScaledFrom(LocalTime time, double factor) {
+        // Bucket times are whole seconds, so a bucket starts at or after the time if it starts
+        // at or after the first whole second at or after the time.
+        int seconds = time.toSecondOfDay() + (time.getNano() == 0 ? 0 : 1);
+        int low = 0;
+        int high = numberBuckets();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Index.startSecond(mid) < seconds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return new PackedCurve(Symbol, Index.withVolumesScaled(low, factor), Types);
+    }
+
+    /**
+     * Packed curves are immutable, so buckets cannot be added.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addBucket(CurveBucket bucket) {
+        throw new UnsupportedOperationException("Curve for " + Symbol + " is immutable");
+    }
+
+    /**
+     * Validates the curve with the rules of {@link CurveValidator}, reading the bucket columns
+     * directly.
+     */
+    @Override
+    public Boolean isValid() {
+        return FAIL_FAST_VALIDATOR.isValid(Index.columns(), 0, numberBuckets());
+    }
+
+    @Override
+    public double getVolume(LocalTime start, LocalTime end) {
+        return getVolumeNanos(start.toNanoOfDay(), end.toNanoOfDay());
+    }
+
+    @Override
+    public double getVolumeNanos(long startNanoOfDay, long endNanoOfDay) {
+        return Index.volume(startNanoOfDay, endNanoOfDay);
+    }
+
+    @Override
+    public double getRelativeVolume(LocalTime start, LocalTime end, LocalTime time) {
+        return getRelativeVolumeNanos(start.toNanoOfDay(), end.toNanoOfDay(), time.toNanoOfDay());
+    }
+
+    @Override
+    public double getRelativeVolumeNanos(long startNanoOfDay, long endNanoOfDay,
+            long nanoOfDay) {
+        return Index.relativeVolume(startNanoOfDay, endNanoOfDay, nanoOfDay);
+    }
+
+    @Override
+    public LocalTime getTimeForVolume(LocalTime start, double volume) {
+        if (!Index.isOrdered()) {
+            return Curve.super.getTimeForVolume(start, volume);
+        }
+
+        long nanoOfDay = Index.nanoOfDayForVolume(start.toNanoOfDay(), volume);
+        return nanoOfDay < 0 ? null : LocalTime.ofNanoOfDay(nanoOfDay);
+    }
+
+    @Override
+    public LocalTime[] getEqualVolumeTimes(LocalTime start, LocalTime end, int slices) {
+        if (!Index.isOrdered()) {
+            return Curve.super.getEqualVolumeTimes(start, end, slices);
+        }
+
+        return Index.timesForVolumes(start, Curve.equalVolumeSlices(getVolume(start, end), slices));
+    }
+
+    @Override
+    public CurveSessions getSessions() {
+        return Sessions.get(this);
+    }
+
+    @Override
+    public void getCumulativeVolumes(int[] secondsOfDay, double[] volumes) {
+        Curve.checkCumulativeVolumeArguments(secondsOfDay, volumes);
+        Index.cumulativeVolumes(secondsOfDay, volumes);
+    }
+
+    @Override
+    public String toString() {
+        return "Symbol='" + Symbol + "', BucketCount=" + numberBuckets();
+    }
+}
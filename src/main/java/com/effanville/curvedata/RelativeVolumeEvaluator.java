@@ -0,0 +1,168 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+
+/**
+ * Evaluates the relative volume of a curve for a fixed window, giving the same values as
+ * {@link Curve#getRelativeVolume(LocalTime, LocalTime, LocalTime)} for the start and end of the
+ * window, e.g. for a live order evaluating its schedule on every tick.
+ * <p>
+ * The cumulative volumes at the start and end of the window are calculated once. The bucket
+ * containing the time is then found from the bucket of the previous call, so when the times
+ * evaluated move forward each call costs constant time amortised over the window, and no objects
+ * are created. A time before the previous time is found by binary search. The interpolation within
+ * the bucket is that of {@link BucketColumns}, so the values are exactly those of the curve.
+ * <p>
+ * The buckets of the curve must be ordered, not overlapping and each start before they end for
+ * the buckets to be precomputed. For any other curve each call is passed on to the curve. An
+ * evaluator is not thread safe, so each thread should create its own.
+ */
+public final class RelativeVolumeEvaluator {
+    private final Curve Source;
+    private final long StartNanos;
+    private final long EndNanos;
+    private final boolean Ordered;
+    private final boolean Outside;
+    private final double StartVolume;
+    private final double WindowVolume;
+    private final int Length;
+    private final BucketColumns Columns;
+
+    /**
+     * The bucket last found, the last bucket starting before the previous time evaluated, or -1
+     * if none did.
+     */
+    private int Bucket = -1;
+    private long PreviousNanos = Long.MIN_VALUE;
+
+    private RelativeVolumeEvaluator(Curve curve, long startNanos, long endNanos) {
+        Source = curve;
+        StartNanos = startNanos;
+        EndNanos = endNanos;
+
+        int length = curve.numberBuckets();
+        long[] bucketStarts = new long[length];
+        long[] bucketEnds = new long[length];
+        double[] volumes = new double[length];
+        double[] volumesBefore = new double[length];
+        boolean ordered = true;
+        double volumeBefore = 0;
+        for (int index = 0; index < length; index++) {
+            CurveBucket bucket = curve.getBucket(index);
+            bucketStarts[index] = bucket.getStartTime().toNanoOfDay();
+            bucketEnds[index] = bucket.getEndTime().toNanoOfDay();
+            volumes[index] = bucket.getPercentDayVolume();
+            volumesBefore[index] = volumeBefore;
+            volumeBefore += volumes[index];
+            if (bucketStarts[index] > bucketEnds[index]
+                    || (index > 0 && bucketEnds[index - 1] > bucketStarts[index])) {
+                ordered = false;
+            }
+        }
+        Ordered = ordered;
+        Length = length;
+        Columns = BucketColumns.ofNanos(bucketStarts, bucketEnds, volumes, volumesBefore, ordered);
+        Outside = Columns.isOutside(0, length, startNanos, endNanos);
+        if (!Ordered || Outside) {
+            StartVolume = 0;
+            WindowVolume = 0;
+            return;
+        }
+
+        StartVolume = Columns.cumulativeVolume(0, length, startNanos);
+        WindowVolume = Columns.cumulativeVolume(0, length, endNanos) - StartVolume;
+        Bucket = Columns.countStartsBefore(0, length, startNanos) - 1;
+        PreviousNanos = startNanos;
+    }
+
+    /**
+     * Creates the evaluator for the curve and the window given.
+     *
+     * @param curve The curve to evaluate
+     * @param start The start of the window
+     * @param end The end of the window
+     * @return The evaluator for the window.
+     */
+    public static RelativeVolumeEvaluator Of(Curve curve, LocalTime start, LocalTime end) {
+        return new RelativeVolumeEvaluator(curve, start.toNanoOfDay(), end.toNanoOfDay());
+    }
+
+    /**
+     * Creates the evaluator for the curve and the window given as nanoseconds of the day.
+     */
+    public static RelativeVolumeEvaluator Of(Curve curve, long startNanoOfDay,
+            long endNanoOfDay) {
+        return new RelativeVolumeEvaluator(curve, startNanoOfDay, endNanoOfDay);
+    }
+
+    public Curve getCurve() {
+        return Source;
+    }
+
+    /**
+     * Returns the volume of the curve between the start and end of the window.
+     */
+    public double getWindowVolume() {
+        if (!Ordered) {
+            return Source.getVolumeNanos(StartNanos, EndNanos);
+        }
+
+        return WindowVolume;
+    }
+
+    /**
+     * Returns the volume at the time relative to the volume of the window, as a percentage.
+     *
+     * @param time the time to calculate the relative volume
+     * @return the relative volume, or 0 if the time is not within the window.
+     */
+    public double relativeVolumeAt(LocalTime time) {
+        return relativeVolumeAtNanos(time.toNanoOfDay());
+    }
+
+    /**
+     * Returns the volume at the time, given as the nanosecond of the day, relative to the volume
+     * of the window, as a percentage.
+     *
+     * @param nanoOfDay the nanosecond of the day to calculate the relative volume
+     * @return the relative volume, or 0 if the time is not within the window.
+     */
+    public double relativeVolumeAtNanos(long nanoOfDay) {
+        if (!Ordered) {
+            return Source.getRelativeVolumeNanos(StartNanos, EndNanos, nanoOfDay);
+        }
+
+        if (Outside)
+            return 0.0;
+
+        if (nanoOfDay < StartNanos || nanoOfDay > EndNanos)
+            return 0.0;
+
+        double timeVolume = cumulativeVolume(nanoOfDay);
+        return 100 * (timeVolume - StartVolume) / WindowVolume;
+    }
+
+    /**
+     * Returns the cumulative volume of the curve up until the time, moving on from the bucket of
+     * the previous time.
+     */
+    private double cumulativeVolume(long nanoOfDay) {
+        // The bucket containing the time is the last to start strictly before it.
+        if (nanoOfDay >= PreviousNanos) {
+            while (Bucket + 1 < Length && Columns.startNanos(Bucket + 1) < nanoOfDay) {
+                Bucket++;
+            }
+        } else {
+            Bucket = Columns.countStartsBefore(0, Length, nanoOfDay) - 1;
+        }
+        PreviousNanos = nanoOfDay;
+
+        return Bucket < 0 ? 0 : Columns.cumulativeVolumeInBucket(Bucket, nanoOfDay);
+    }
+
+    @Override
+    public String toString() {
+        return "Symbol='" + Source.getSymbol() + "', Start=" + LocalTime.ofNanoOfDay(StartNanos)
+                + ", End=" + LocalTime.ofNanoOfDay(EndNanos);
+    }
+}
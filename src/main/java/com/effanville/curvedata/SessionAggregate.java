@@ -0,0 +1,79 @@
+package com.effanville.curvedata;
+
+import java.time.LocalTime;
+
+/**
+ * The aggregate of all buckets of a curve with the same {@link BucketType}, giving the total
+ * volume of the session, the times it spans and the range of buckets it covers.
+ */
+public final class SessionAggregate {
+    private final BucketType Type;
+    private final double Volume;
+    private final LocalTime StartTime;
+    private final LocalTime EndTime;
+    private final int FirstBucketIndex;
+    private final int LastBucketIndex;
+    private final int BucketCount;
+
+    SessionAggregate(BucketType type, double volume, LocalTime startTime, LocalTime endTime,
+            int firstBucketIndex, int lastBucketIndex, int bucketCount) {
+        Type = type;
+        Volume = volume;
+        StartTime = startTime;
+        EndTime = endTime;
+        FirstBucketIndex = firstBucketIndex;
+        LastBucketIndex = lastBucketIndex;
+        BucketCount = bucketCount;
+    }
+
+    public BucketType getType() {
+        return Type;
+    }
+
+    /**
+     * Returns the total volume of all buckets of the session.
+     */
+    public double getVolume() {
+        return Volume;
+    }
+
+    /**
+     * Returns the earliest start time of the buckets of the session.
+     */
+    public LocalTime getStartTime() {
+        return StartTime;
+    }
+
+    /**
+     * Returns the latest end time of the buckets of the session.
+     */
+    public LocalTime getEndTime() {
+        return EndTime;
+    }
+
+    /**
+     * Returns the index in the curve of the first bucket of the session.
+     */
+    public int getFirstBucketIndex() {
+        return FirstBucketIndex;
+    }
+
+    /**
+     * Returns the index in the curve of the last bucket of the session. Buckets of other sessions
+     * may lie between the first and last bucket, e.g. an intraday close between two continuous
+     * trading sessions.
+     */
+    public int getLastBucketIndex() {
+        return LastBucketIndex;
+    }
+
+    public int getBucketCount() {
+        return BucketCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Type=" + Type + ", Vol=" + Volume + ", Start=" + StartTime + ", End=" + EndTime
+                + ", Buckets=" + FirstBucketIndex + "-" + LastBucketIndex;
+    }
+}
@@ -0,0 +1,15 @@
+package com.effanville.curvedata;
+
+/**
+ * How much of a curve a {@link CurveValidator} checks.
+ */
+public enum ValidationMode {
+    /**
+     * Stop at the first violation, for when only whether the curve is valid matters.
+     */
+    FAIL_FAST,
+    /**
+     * Check the whole curve and report every violation.
+     */
+    COLLECT_ALL;
+}
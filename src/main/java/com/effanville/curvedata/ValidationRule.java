@@ -0,0 +1,23 @@
+package com.effanville.curvedata;
+
+/**
+ * The rules a curve is validated against, as described on {@link CurveData#isValid()}.
+ */
+public enum ValidationRule {
+    /**
+     * A bucket starts before the previous bucket ends.
+     */
+    OVERLAPPING_BUCKETS,
+    /**
+     * A bucket has negative volume.
+     */
+    NEGATIVE_VOLUME,
+    /**
+     * A bucket starts after it ends.
+     */
+    START_AFTER_END,
+    /**
+     * The volume of all buckets does not sum to 100.
+     */
+    VOLUME_NOT_100;
+}
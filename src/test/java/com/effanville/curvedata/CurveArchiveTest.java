@@ -0,0 +1,194 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.SAMPLE_CURVE_FILE;
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.effanville.curvedata.IO.CurveArchiveEntry;
+import com.effanville.curvedata.IO.CurveArchiveReader;
+import com.effanville.curvedata.IO.CurveArchiveWriter;
+
+public class CurveArchiveTest {
+    @Test
+    public void roundTripTest(@TempDir Path directory) throws IOException {
+        List<Curve> curves = List.of(readSampleCurve(), subSecondCurve(),
+                CurveGenerator.hongKong(Duration.ofSeconds(30)).withVariation(0.3, 5)
+                        .generate("1 HK"),
+                PackedCurve.Of(readSampleCurve()), CurveData.Of("Empty"));
+        List<LocalDate> dates = List.of(LocalDate.parse("2024-01-02"),
+                LocalDate.parse("2024-01-03"), LocalDate.parse("2023-12-29"),
+                LocalDate.parse("2024-03-01"), LocalDate.parse("2024-03-01"));
+        String file = directory.resolve("curves.crva").toString();
+        try (CurveArchiveWriter writer = CurveArchiveWriter.Of(file)) {
+            for (int index = 0; index < curves.size(); index++) {
+                writer.write(dates.get(index), curves.get(index));
+            }
+        }
+
+        try (CurveArchiveReader reader = CurveArchiveReader.Of(file)) {
+            for (int index = 0; index < curves.size(); index++) {
+                CurveArchiveEntry entry = reader.readNext();
+                assertEquals(dates.get(index), entry.getDate());
+                assertSameBuckets(curves.get(index), entry.getCurve());
+            }
+            assertNull(reader.readNext());
+            assertNull(reader.readNext());
+        }
+    }
+
+    @Test
+    public void archiveIsSmallerThanCsvTest(@TempDir Path directory) throws IOException {
+        CurveData sample = readSampleCurve();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int days = 250;
+        try (CurveArchiveWriter writer = CurveArchiveWriter.Of(output)) {
+            LocalDate date = LocalDate.parse("2024-01-01");
+            for (int day = 0; day < days; day++) {
+                writer.write(date.plusDays(day), sample);
+            }
+        }
+
+        long csvSize = Files.size(Path.of(SAMPLE_CURVE_FILE));
+        assertTrue(output.size() * 3L < csvSize * days);
+
+        int count = 0;
+        try (CurveArchiveReader reader =
+                CurveArchiveReader.Of(new ByteArrayInputStream(output.toByteArray()))) {
+            for (CurveArchiveEntry entry = reader.readNext(); entry != null;
+                    entry = reader.readNext()) {
+                assertEquals(LocalDate.parse("2024-01-01").plusDays(count), entry.getDate());
+                assertEquals(sample.numberBuckets(), entry.getCurve().numberBuckets());
+                count++;
+            }
+        }
+        assertEquals(days, count);
+    }
+
+    @Test
+    public void computedVolumesAreCompactTest() throws IOException {
+        // averaged curves have volumes such as 35/30 with no short decimal form
+        CurveData computed = CurveGenerator.hongKong(Duration.ofMinutes(1))
+                .withVariation(0.3, 11).generate("1 HK");
+        int buckets = computed.numberBuckets();
+        int days = 250;
+        List<Curve> curves = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            int bucket = day % buckets;
+            curves.add(computed.withBucketVolume(bucket,
+                    computed.getBucket(bucket).getPercentDayVolume() * 35 / 30));
+        }
+
+        ByteArrayOutputStream history = new ByteArrayOutputStream();
+        try (CurveArchiveWriter writer = CurveArchiveWriter.Of(history)) {
+            for (int day = 0; day < days; day++) {
+                writer.write(LocalDate.parse("2024-01-01").plusDays(day), curves.get(day));
+            }
+        }
+
+        // version 1 wrote every one of these volumes as an 8 byte double
+        assertTrue(history.size() * 2L < (long) days * buckets * Long.BYTES);
+        try (CurveArchiveReader reader =
+                CurveArchiveReader.Of(new ByteArrayInputStream(history.toByteArray()))) {
+            for (int day = 0; day < days; day++) {
+                assertSameBuckets(curves.get(day), reader.readNext().getCurve());
+            }
+            assertNull(reader.readNext());
+        }
+    }
+
+    @Test
+    public void failedWriteLeavesArchiveUnchangedTest() throws IOException {
+        Curve untyped = CurveData.Builder.Of("Untyped")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("16:00"), 100,
+                        null))
+                .build();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (CurveArchiveWriter writer = CurveArchiveWriter.Of(output)) {
+            writer.write(LocalDate.parse("2024-01-02"), readSampleCurve());
+            assertThrows(RuntimeException.class,
+                    () -> writer.write(LocalDate.parse("2024-02-01"), untyped));
+            writer.write(LocalDate.parse("2024-01-03"), readSampleCurve());
+        }
+
+        try (CurveArchiveReader reader =
+                CurveArchiveReader.Of(new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals(LocalDate.parse("2024-01-02"), reader.readNext().getDate());
+            CurveArchiveEntry next = reader.readNext();
+            assertEquals(LocalDate.parse("2024-01-03"), next.getDate());
+            assertSameBuckets(readSampleCurve(), next.getCurve());
+            assertNull(reader.readNext());
+        }
+    }
+
+    @Test
+    public void invalidArchiveTest() throws IOException {
+        assertThrows(IOException.class,
+                () -> CurveArchiveReader.Of(new ByteArrayInputStream(new byte[] {1, 2, 3})));
+        assertThrows(IOException.class, () -> CurveArchiveReader
+                .Of(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 0, 0, 0, 1})));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (CurveArchiveWriter writer = CurveArchiveWriter.Of(output)) {
+            writer.write(LocalDate.parse("2024-01-02"), readSampleCurve());
+        }
+        byte[] truncated = Arrays.copyOf(output.toByteArray(), output.size() - 10);
+        try (CurveArchiveReader reader =
+                CurveArchiveReader.Of(new ByteArrayInputStream(truncated))) {
+            assertThrows(IOException.class, reader::readNext);
+        }
+
+        // a record length of 2^28 - 1 bytes is refused before anything is allocated
+        byte[] oversized = new byte[] {0x41, 0x56, 0x52, 0x43, 0, 0, 0, 2, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, 0x7F};
+        try (CurveArchiveReader reader =
+                CurveArchiveReader.Of(new ByteArrayInputStream(oversized))) {
+            IOException error = assertThrows(IOException.class, reader::readNext);
+            assertTrue(error.getMessage().contains("limit"));
+        }
+    }
+
+    private static void assertSameBuckets(Curve expected, Curve actual) {
+        assertEquals(expected.getSymbol(), actual.getSymbol());
+        List<CurveBucket> expectedBuckets = new ArrayList<>();
+        for (int index = 0; index < expected.numberBuckets(); index++) {
+            expectedBuckets.add(expected.getBucket(index));
+        }
+        assertEquals(expectedBuckets.size(), actual.numberBuckets());
+        for (int index = 0; index < actual.numberBuckets(); index++) {
+            CurveBucket bucket = actual.getBucket(index);
+            CurveBucket expectedBucket = expectedBuckets.get(index);
+            assertEquals(expectedBucket.getStartTime(), bucket.getStartTime());
+            assertEquals(expectedBucket.getEndTime(), bucket.getEndTime());
+            assertEquals(expectedBucket.getType(), bucket.getType());
+            assertEquals(Double.doubleToRawLongBits(expectedBucket.getPercentDayVolume()),
+                    Double.doubleToRawLongBits(bucket.getPercentDayVolume()));
+        }
+    }
+
+    private static Curve subSecondCurve() {
+        return CurveData.Builder.Of("Sub second")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:30:00.5"),
+                        10, BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:30:00.5"), LocalTime.parse("12:00"),
+                        39.125, BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("13:00"), LocalTime.parse("16:00"),
+                        50.875, BucketType.CONT_TRADING))
+                .build();
+    }
+}
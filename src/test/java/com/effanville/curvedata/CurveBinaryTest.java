@@ -0,0 +1,101 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.SAMPLE_CURVE_FILE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.effanville.curvedata.IO.CurveBinaryReader;
+import com.effanville.curvedata.IO.CurveBinaryWriter;
+import com.effanville.curvedata.IO.CurveCsvReader;
+import com.effanville.curvedata.IO.MappedCurve;
+import com.effanville.curvedata.IO.MappedCurveSet;
+
+public class CurveBinaryTest {
+    @Test
+    public void mappedCurvesMatchWrittenCurvesTest(@TempDir Path directory) throws IOException {
+        Curve sample = new CurveCsvReader().loadCurve("Generic HK", SAMPLE_CURVE_FILE);
+        Curve overlapping = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:10"), 50,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:05"), LocalTime.parse("09:15"), 50,
+                        BucketType.CONT_TRADING))
+                .build();
+        Curve falling = CurveData.Builder.Of("2 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("10:00"), 60,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("10:00"), LocalTime.parse("11:00"), -20,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("11:00"), LocalTime.parse("12:00"), 60,
+                        BucketType.CONT_TRADING))
+                .build();
+        Path file = directory.resolve("curves.bin");
+        new CurveBinaryWriter().writeCurves(List.of(sample, overlapping, falling),
+                file.toString());
+
+        MappedCurveSet curves = new CurveBinaryReader().readCurveSet(file.toString());
+
+        assertEquals(3, curves.size());
+        assertEquals(List.of("1 HK", "2 HK", "Generic HK"), curves.symbols());
+        assertNull(curves.get("5 HK"));
+        for (Curve curve : List.of(sample, overlapping, falling)) {
+            MappedCurve mapped = curves.get(curve.getSymbol());
+            assertEquals(curve.getSymbol(), mapped.getSymbol());
+            assertEquals(curve.numberBuckets(), mapped.numberBuckets());
+            assertEquals(curve.isValid(), mapped.isValid());
+            for (int index = 0; index < curve.numberBuckets(); index++) {
+                assertEquals(curve.getBucket(index).toString(), mapped.getBucket(index).toString());
+            }
+            int[] secondsOfDay = new int[] {0, 32_400, 33_000, 45_000, 58_200, 86_399};
+            double[] expected = new double[secondsOfDay.length];
+            double[] volumes = new double[secondsOfDay.length];
+            curve.getCumulativeVolumes(secondsOfDay, expected);
+            mapped.getCumulativeVolumes(secondsOfDay, volumes);
+            for (int index = 0; index < secondsOfDay.length; index++) {
+                assertEquals(expected[index], volumes[index], 0.0);
+            }
+            for (int second = 0; second < 86_400; second += 89) {
+                LocalTime time = LocalTime.ofSecondOfDay(second);
+                assertEquals(curve.getVolume(LocalTime.MIN, time),
+                        mapped.getVolume(LocalTime.MIN, time), 0.0);
+                assertEquals(curve.getRelativeVolume(LocalTime.parse("09:00"),
+                        LocalTime.parse("12:00"), time),
+                        mapped.getRelativeVolume(LocalTime.parse("09:00"), LocalTime.parse("12:00"),
+                                time),
+                        0.0);
+            }
+            LocalTime start = LocalTime.parse("09:12:17");
+            for (double volume = 0.5; volume < 101; volume += 3.25) {
+                assertEquals(curve.getTimeForVolume(start, volume),
+                        mapped.getTimeForVolume(start, volume));
+            }
+            assertEquals(Arrays.asList(curve.getEqualVolumeTimes(start, LocalTime.NOON, 7)),
+                    Arrays.asList(mapped.getEqualVolumeTimes(start, LocalTime.NOON, 7)));
+        }
+    }
+
+    @Test
+    public void duplicateSymbolsCannotBeWrittenTest(@TempDir Path directory) {
+        Curve curve = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:10"), 100,
+                        BucketType.OPEN_AUCTION))
+                .build();
+        Path file = directory.resolve("curves.bin");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new CurveBinaryWriter().writeCurves(List.of(curve, curve), file.toString()));
+    }
+
+    @Test
+    public void csvFileIsNotCurveSetTest() {
+        assertThrows(IOException.class, () -> new CurveBinaryReader()
+                .readCurveSet("src/test/resources/example-curve.csv"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.effanville.curvedata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class CurveBlenderTest {
+    @Test
+    public void averageOfSameBucketsTest() {
+        CurveAverage average = CurveAverage.Of(twoBucketCurve("1 HK", 40, 60));
+        average.add(twoBucketCurve("1 HK", 40, 60), 1.0);
+        average.add(twoBucketCurve("1 HK", 20, 80), 3.0);
+
+        CurveData curve = average.toCurve();
+
+        assertEquals(2, average.numberCurves());
+        assertEquals(4.0, average.getTotalWeight(), 0.0);
+        assertEquals(true, curve.doesVolumeSumTo100());
+        assertEquals(25.0, curve.getBucket(0).getPercentDayVolume(), 1e-10);
+        assertEquals(75.0, curve.getBucket(1).getPercentDayVolume(), 1e-10);
+        assertEquals(BucketType.OPEN_AUCTION, curve.getBucket(0).getType());
+    }
+
+    @Test
+    public void averageOfDifferentBucketsTest() {
+        CurveAverage average = CurveAverage.Of(twoBucketCurve("1 HK", 40, 60));
+        CurveData finer = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:05"), 10,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:05"), LocalTime.parse("09:10"), 10,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:10"), LocalTime.parse("09:30"), 80,
+                        BucketType.CONT_TRADING))
+                .build();
+        average.add(finer, 1.0);
+
+        CurveData curve = average.toCurve();
+
+        assertEquals(2, curve.numberBuckets());
+        assertEquals(20.0, curve.getBucket(0).getPercentDayVolume(), 1e-10);
+        assertEquals(80.0, curve.getBucket(1).getPercentDayVolume(), 1e-10);
+        assertThrows(IllegalStateException.class,
+                () -> CurveAverage.Of(twoBucketCurve("1 HK", 40, 60)).toCurve());
+    }
+
+    @Test
+    public void blendEqualWeightsTest() {
+        List<List<CurveData>> days = List.of(
+                List.of(twoBucketCurve("1 HK", 40, 60), twoBucketCurve("5 HK", 50, 50)),
+                List.of(twoBucketCurve("1 HK", 20, 80)),
+                List.of(twoBucketCurve("1 HK", 30, 70), twoBucketCurve("5 HK", 10, 90)));
+
+        Map<String, CurveData> curves = CurveBlender.Of().blend(days);
+
+        assertEquals(List.of("1 HK", "5 HK"), List.copyOf(curves.keySet()));
+        assertEquals(30.0, curves.get("1 HK").getBucket(0).getPercentDayVolume(), 1e-10);
+        assertEquals(30.0, curves.get("5 HK").getBucket(0).getPercentDayVolume(), 1e-10);
+        assertEquals(true, curves.get("5 HK").isValid());
+    }
+
+    @Test
+    public void blendExponentialDecayTest() {
+        List<List<CurveData>> days = List.of(
+                List.of(twoBucketCurve("1 HK", 40, 60), twoBucketCurve("5 HK", 50, 50)),
+                List.of(twoBucketCurve("1 HK", 20, 80)),
+                List.of(twoBucketCurve("1 HK", 30, 70), twoBucketCurve("5 HK", 10, 90)));
+
+        Map<String, CurveData> curves = CurveBlender.Of(0.5).blend(days);
+
+        // Weights of 0.25, 0.5 and 1 for 1 HK, and 0.25 and 1 for 5 HK who has no second day.
+        assertEquals((0.25 * 40 + 0.5 * 20 + 30) / 1.75,
+                curves.get("1 HK").getBucket(0).getPercentDayVolume(), 1e-10);
+        assertEquals((0.25 * 50 + 10) / 1.25,
+                curves.get("5 HK").getBucket(0).getPercentDayVolume(), 1e-10);
+        assertEquals(true, curves.get("1 HK").doesVolumeSumTo100());
+        assertThrows(IllegalArgumentException.class, () -> CurveBlender.Of(0.0));
+    }
+
+    private static CurveData twoBucketCurve(String symbol, double open, double continuous) {
+        return CurveData.Builder.Of(symbol)
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:10"), open,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:10"), LocalTime.parse("09:30"),
+                        continuous, BucketType.CONT_TRADING))
+                .build();
+    }
+}
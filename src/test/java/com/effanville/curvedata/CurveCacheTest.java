@@ -0,0 +1,200 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.SAMPLE_CURVE_FILE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.effanville.curvedata.IO.CurveBinaryReader;
+import com.effanville.curvedata.IO.CurveBinaryWriter;
+import com.effanville.curvedata.IO.CurveCsvReader;
+
+public class CurveCacheTest {
+    @Test
+    public void keysDistinguishVariantsTest() {
+        CurveKey oneWeek = CurveKey.Of("1 HK", Period.ofWeeks(1), CurveKey.NORMAL_DAY);
+
+        assertEquals(oneWeek, CurveKey.Of("1 HK", Period.ofDays(7), "NORMAL"));
+        assertEquals(oneWeek.hashCode(),
+                CurveKey.Of("1 HK", Period.ofDays(7), "NORMAL").hashCode());
+        assertNotEquals(oneWeek, CurveKey.Of("1 HK", Period.ofWeeks(2), CurveKey.NORMAL_DAY));
+        assertNotEquals(oneWeek, CurveKey.Of("1 HK", Period.ofWeeks(1), "EXPIRY"));
+        assertNotEquals(oneWeek, CurveKey.Of("1 HK"));
+    }
+
+    @Test
+    public void loadsOnFirstAccessAndEvictsLeastRecentlyUsedTest() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        CurveCache cache = CurveCache.Of(key -> {
+            loads.incrementAndGet();
+            return curve(key.getSymbol(), 1);
+        }, 2);
+
+        Curve first = cache.get(CurveKey.Of("1 HK"));
+        assertSame(first, cache.get(CurveKey.Of("1 HK")));
+        cache.get(CurveKey.Of("5 HK"));
+        cache.get(CurveKey.Of("1 HK"));
+        cache.get(CurveKey.Of("700 HK"));
+
+        assertEquals(3, loads.get());
+        assertSame(first, cache.getIfPresent(CurveKey.Of("1 HK")));
+        assertNull(cache.getIfPresent(CurveKey.Of("5 HK")));
+        CurveCacheStats stats = cache.stats();
+        assertEquals(3, stats.getHits());
+        assertEquals(3, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    public void evictsByEstimatedBytesTest() throws IOException {
+        CurveCache cache = CurveCache.Of(key -> curve(key.getSymbol(), 10),
+                3 * CurveCache.estimateBytes(curve("1 HK", 10)), CurveCache::estimateBytes);
+
+        for (int index = 0; index < 5; index++) {
+            cache.get(CurveKey.Of(index + " HK"));
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.stats().getEvictions());
+        assertEquals(3 * CurveCache.estimateBytes(curve("1 HK", 10)), cache.stats().getWeight());
+    }
+
+    @Test
+    public void concurrentMissesLoadOnceTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CurveCache cache = CurveCache.Of(key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return curve(key.getSymbol(), 1);
+        }, 10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Curve>> results = new ArrayList<>();
+            for (int index = 0; index < 8; index++) {
+                results.add(executor.submit(() -> cache.get(CurveKey.Of("1 HK"))));
+            }
+            loading.await();
+            Thread.sleep(50);
+            release.countDown();
+
+            Curve curve = results.get(0).get();
+            for (Future<Curve> result : results) {
+                assertSame(curve, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void loadFailingWithErrorReleasesWaitingThreadsTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CurveCache cache = CurveCache.Of(key -> {
+            if (loads.incrementAndGet() > 1) {
+                return curve(key.getSymbol(), 1);
+            }
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            throw new AssertionError("Load failed");
+        }, 10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Curve> loader = executor.submit(() -> cache.get(CurveKey.Of("1 HK")));
+            loading.await();
+            Future<Curve> waiter = executor.submit(() -> cache.get(CurveKey.Of("1 HK")));
+            Thread.sleep(50);
+            release.countDown();
+
+            ExecutionException loadError = assertThrows(ExecutionException.class,
+                    () -> loader.get(5, TimeUnit.SECONDS));
+            assertTrue(loadError.getCause() instanceof AssertionError);
+            ExecutionException waitError = assertThrows(ExecutionException.class,
+                    () -> waiter.get(5, TimeUnit.SECONDS));
+            assertSame(loadError.getCause(), waitError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals("1 HK", cache.get(CurveKey.Of("1 HK")).getSymbol());
+    }
+
+    @Test
+    public void failedLoadIsRetriedTest() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        CurveCache cache = CurveCache.Of(key -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IOException("Missing file");
+            }
+            return curve(key.getSymbol(), 1);
+        }, 10);
+
+        assertThrows(IOException.class, () -> cache.get(CurveKey.Of("1 HK")));
+        assertEquals("1 HK", cache.get(CurveKey.Of("1 HK")).getSymbol());
+        assertEquals(1, cache.stats().getLoadFailures());
+    }
+
+    @Test
+    public void loadsThroughReadersTest(@TempDir Path directory) throws IOException {
+        CurveCache csvCache = CurveCache.Of(new CurveCsvReader().asLoader(
+                key -> key.getSymbol().equals("HK") ? SAMPLE_CURVE_FILE : "missing.csv"), 10);
+        Curve fromCsv = csvCache.get(CurveKey.Of("HK"));
+        assertEquals(100.0, fromCsv.getVolume(LocalTime.MIN, LocalTime.MAX), 1e-9);
+        assertThrows(IOException.class, () -> csvCache.get(CurveKey.Of("XX")));
+
+        Path file = directory.resolve("curves.bin");
+        new CurveBinaryWriter().writeCurves(List.of(fromCsv), file.toString());
+        CurveCache mappedCache = CurveCache.Of(
+                new CurveBinaryReader().readCurveSet(file.toString()).asLoader(), 10);
+        assertEquals(fromCsv.getVolume(LocalTime.MIN, LocalTime.NOON),
+                mappedCache.get(CurveKey.Of("HK")).getVolume(LocalTime.MIN, LocalTime.NOON),
+                0.0);
+        assertThrows(IOException.class, () -> mappedCache.get(CurveKey.Of("XX")));
+    }
+
+    private static Curve curve(String symbol, int numberBuckets) {
+        CurveData.Builder builder = CurveData.Builder.Of(symbol);
+        for (int index = 0; index < numberBuckets; index++) {
+            builder.addBucket(CurveBucket.Of(LocalTime.ofSecondOfDay(60 * index),
+                    LocalTime.ofSecondOfDay(60 * index + 60), 100.0 / numberBuckets,
+                    BucketType.CONT_TRADING));
+        }
+
+        return builder.build();
+    }
+}
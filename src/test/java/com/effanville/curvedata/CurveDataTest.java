@@ -1,7 +1,10 @@
 package com.effanville.curvedata;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 import org.junit.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -110,6 +113,54 @@ public class CurveDataTest {
         assertEquals(false, curve.isValid());
     }
 
+    @Test
+    public void addBucketsSortsBucketsTest() {
+        CurveData curve = CurveData.Of("1 HK");
+        LocalTime start = LocalTime.parse("09:00:00");
+        LocalTime end = LocalTime.parse("09:05:00");
+        LocalTime end2 = LocalTime.parse("09:10:00");
+        curve.addBuckets(List.of(CurveBucket.Of(end, end2, 25, BucketType.OPEN_AUCTION),
+                CurveBucket.Of(start, end, 75, BucketType.OPEN_AUCTION)));
+
+        assertEquals(start, curve.getStartTime());
+        assertEquals(true, curve.isValid());
+    }
+
+    @Test
+    public void builderSortsBucketsTest() {
+        LocalTime start = LocalTime.parse("09:00:00");
+        LocalTime end = LocalTime.parse("09:05:00");
+        LocalTime end2 = LocalTime.parse("09:10:00");
+        CurveData curve = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(end, end2, 25, BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(start, end, 75, BucketType.OPEN_AUCTION))
+                .build();
+
+        assertEquals(start, curve.getStartTime());
+        assertEquals(2, curve.numberBuckets());
+        assertEquals(true, curve.isValid());
+        assertEquals(75, curve.getVolume(start, end), 1e-8);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void builtCurveIsImmutableTest() {
+        LocalTime start = LocalTime.parse("09:00:00");
+        LocalTime end = LocalTime.parse("09:05:00");
+        CurveData curve = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(start, end, 100, BucketType.OPEN_AUCTION))
+                .build();
+
+        curve.addBucket(CurveBucket.Of(end, end, 0, BucketType.CONT_TRADING));
+    }
+
+    @ParameterizedTest
+    @MethodSource("providerForGetVolume")
+    public void builtCurveGetVolumeTests(LocalTime start, LocalTime end, double expectedVolume) {
+        Curve curve = CurveData.Builder.Of("1 HK").addBuckets(reversedTestBuckets()).build();
+        double curveVolume = curve.getVolume(start, end);
+        assertEquals(expectedVolume, curveVolume, 1e-8);
+    }
+
     private static Stream<Arguments> providerForGetVolume() {
         return Stream.of(
                 Arguments.of(LocalTime.parse("09:00:00"),
@@ -136,6 +187,44 @@ public class CurveDataTest {
         assertEquals(expectedVolume, curveVolume, 1e-8);
     }
 
+    @Test
+    public void getCumulativeVolumesMatchesGetVolumeTest() {
+        Curve curve = setupTestCurve();
+        int[] secondsOfDay = new int[] {0, 32_400, 32_400, 32_550, 32_700, 33_000, 36_000, 39_599,
+                50_000};
+        double[] volumes = new double[secondsOfDay.length];
+        curve.getCumulativeVolumes(secondsOfDay, volumes);
+
+        for (int index = 0; index < secondsOfDay.length; index++) {
+            LocalTime time = LocalTime.ofSecondOfDay(secondsOfDay[index]);
+            assertEquals(curve.getVolume(LocalTime.MIN, time), volumes[index], 0.0);
+        }
+        assertEquals(100, volumes[secondsOfDay.length - 1], 1e-8);
+    }
+
+    @Test
+    public void getCumulativeVolumesRequiresSecondsOfDayTest() {
+        Curve curve = setupTestCurve();
+        Curve packed = PackedCurve.Of(curve);
+        // sub-second bucket times cannot be indexed, so the default of Curve is used
+        Curve unindexed = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"),
+                        LocalTime.parse("09:00:00.5"), 100, BucketType.OPEN_AUCTION))
+                .build();
+        for (Curve queried : List.of(curve, packed, unindexed)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> queried.getCumulativeVolumes(new int[] {0, 86_400}, new double[2]));
+            assertThrows(IllegalArgumentException.class,
+                    () -> queried.getCumulativeVolumes(new int[] {-1, 0}, new double[2]));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getCumulativeVolumesRequiresSortedTimesTest() {
+        Curve curve = setupTestCurve();
+        curve.getCumulativeVolumes(new int[] {36_000, 32_400}, new double[2]);
+    }
+
     private static Stream<Arguments> providerForGetRelativeVolume() {
         return Stream.of(
                 Arguments.of(LocalTime.parse("09:00:00"),
@@ -191,4 +280,16 @@ public class CurveDataTest {
                 BucketType.CONT_TRADING));
         return curve;
     }
+
+    /**
+     * Returns the buckets of the test curve in reverse order, so that they must be sorted.
+     */
+    private List<CurveBucket> reversedTestBuckets() {
+        Curve curve = setupTestCurve();
+        List<CurveBucket> buckets = new ArrayList<>();
+        for (int index = curve.numberBuckets() - 1; index >= 0; index--) {
+            buckets.add(curve.getBucket(index));
+        }
+        return buckets;
+    }
 }
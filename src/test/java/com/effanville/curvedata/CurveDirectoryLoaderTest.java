@@ -0,0 +1,78 @@
+package com.effanville.curvedata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+import com.effanville.curvedata.IO.CurveDirectoryLoader;
+import com.effanville.curvedata.IO.CurveLoadResult;
+
+public class CurveDirectoryLoaderTest {
+    @Test
+    public void canLoadDirectoryTest() throws IOException {
+        CurveDirectoryLoader loader = CurveDirectoryLoader.Of(2);
+        CurveLoadResult result = loader.loadDirectory("src/test/resources");
+
+        assertEquals(1, result.getCurves().size());
+        assertEquals("example-curve", result.getCurves().get(0).getSymbol());
+        assertEquals(8, result.getCurves().get(0).numberBuckets());
+        assertEquals(1, result.getErrors().size());
+        assertEquals("invalid-example-curve", result.getErrors().get(0).getSymbol());
+    }
+
+    @Test
+    public void canLoadManifestTest() throws IOException {
+        CurveDirectoryLoader loader = CurveDirectoryLoader.Of();
+        CurveLoadResult result = loader.loadManifest("src/test/resources/manifests/example-manifest.csv");
+
+        assertEquals(1, result.getCurves().size());
+        assertEquals("5 HK", result.getCurves().get(0).getSymbol());
+        assertEquals(2, result.getErrors().size());
+        assertEquals("1 HK", result.getErrors().get(0).getSymbol());
+        assertEquals("700 HK", result.getErrors().get(1).getSymbol());
+    }
+
+    @Test
+    public void duplicateManifestSymbolIsAnErrorTest() throws IOException {
+        CurveDirectoryLoader loader = CurveDirectoryLoader.Of();
+        CurveLoadResult result =
+                loader.loadManifest("src/test/resources/manifests/duplicate-manifest.csv");
+
+        assertEquals(2, result.getCurves().size());
+        assertEquals("5 HK", result.getCurves().get(0).getSymbol());
+        assertEquals(8, result.getCurves().get(0).numberBuckets());
+        assertEquals(1, result.getErrors().size());
+        assertEquals("5 HK", result.getErrors().get(0).getSymbol());
+        assertTrue(result.getErrors().get(0).getFilePath().endsWith("invalid-example-curve.csv"));
+    }
+
+    @Test
+    public void onlyFirstLineHeaderIsSkippedTest() throws IOException {
+        CurveDirectoryLoader loader = CurveDirectoryLoader.Of();
+        CurveLoadResult result =
+                loader.loadManifest("src/test/resources/manifests/symbol-prefix-manifest.csv");
+
+        assertEquals(2, result.getCurves().size());
+        assertEquals("SymbolX", result.getCurves().get(0).getSymbol());
+        assertEquals("Symbol", result.getCurves().get(1).getSymbol());
+        assertEquals(0, result.getErrors().size());
+    }
+
+    @Test
+    public void loadKeepsOrderOfSymbolsTest() {
+        Map<String, String> files = new LinkedHashMap<>();
+        for (int index = 0; index < 20; index++) {
+            files.put(index + " HK", "src/test/resources/example-curve.csv");
+        }
+
+        CurveLoadResult result = CurveDirectoryLoader.Of(4).load(files);
+
+        assertEquals(false, result.hasErrors());
+        assertEquals(20, result.getCurves().size());
+        for (int index = 0; index < 20; index++) {
+            assertEquals(index + " HK", result.getCurves().get(index).getSymbol());
+        }
+    }
+}
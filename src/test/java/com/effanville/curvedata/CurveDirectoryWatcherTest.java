@@ -0,0 +1,141 @@
+package com.effanville.curvedata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.effanville.curvedata.IO.CurveCsvWriter;
+import com.effanville.curvedata.IO.CurveDirectoryWatcher;
+import com.effanville.curvedata.IO.CurveParseException;
+
+public class CurveDirectoryWatcherTest {
+    private static final Duration DEBOUNCE = Duration.ofMillis(50);
+
+    @Test
+    public void existingFilesLoadedOnStartTest(@TempDir Path directory) throws IOException {
+        CurveCsvWriter writer = new CurveCsvWriter();
+        writer.writeCurves(CurveGenerator.hongKong(Duration.ofMinutes(5)).generate("HK", 3),
+                directory.toString());
+        CurveStore store = CurveStore.Of();
+
+        try (CurveDirectoryWatcher watcher =
+                CurveDirectoryWatcher.Of(directory.toString(), store, DEBOUNCE)) {
+            watcher.start();
+
+            assertEquals(3, store.size());
+            assertEquals(3, watcher.getReloadCount());
+            assertTrue(watcher.getErrors().isEmpty());
+        }
+    }
+
+    @Test
+    public void changedFileIsReloadedTest(@TempDir Path directory) throws Exception {
+        CurveCsvWriter writer = new CurveCsvWriter();
+        String file = directory.resolve("5 HK.csv").toString();
+        writer.writeCurve(curve(0), file);
+        CurveStore store = CurveStore.Of();
+
+        try (CurveDirectoryWatcher watcher =
+                CurveDirectoryWatcher.Of(directory.toString(), store, DEBOUNCE)) {
+            watcher.start();
+            Curve original = store.get("5 HK");
+            assertNotNull(original);
+
+            writer.writeCurve(curve(1), file);
+            awaitCondition(() -> store.get("5 HK") != original);
+
+            assertEquals(curve(1).getBucket(5).getPercentDayVolume(),
+                    store.get("5 HK").getBucket(5).getPercentDayVolume(), 0.0);
+            assertTrue(watcher.getReloadCount() >= 2);
+        }
+    }
+
+    @Test
+    public void fileWrittenInTwoChunksIsReloadedOnceTest(@TempDir Path directory)
+            throws Exception {
+        CurveCsvWriter writer = new CurveCsvWriter();
+        Path file = directory.resolve("5 HK.csv");
+        writer.writeCurve(curve(0), file.toString());
+        Path staged = Files.createDirectory(directory.resolve("staged")).resolve("5 HK.csv");
+        writer.writeCurve(curve(1), staged.toString());
+        byte[] bytes = Files.readAllBytes(staged);
+        CurveStore store = CurveStore.Of();
+        Duration debounce = Duration.ofSeconds(1);
+
+        try (CurveDirectoryWatcher watcher =
+                CurveDirectoryWatcher.Of(directory.toString(), store, debounce)) {
+            watcher.start();
+            Curve original = store.get("5 HK");
+
+            // the first chunk ends part way through a line, so is not a valid curve file
+            Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+            long secondChunk = System.nanoTime() + debounce.toNanos() / 4;
+            while (System.nanoTime() < secondChunk) {
+                assertTrue(watcher.getErrors().isEmpty());
+                Thread.sleep(5);
+            }
+            Files.write(file, Arrays.copyOfRange(bytes, bytes.length / 2, bytes.length),
+                    StandardOpenOption.APPEND);
+            awaitCondition(() -> store.get("5 HK") != original);
+            Thread.sleep(2 * debounce.toMillis());
+
+            assertEquals(2, watcher.getReloadCount());
+            assertTrue(watcher.getErrors().isEmpty());
+            assertEquals(curve(1).numberBuckets(), store.get("5 HK").numberBuckets());
+        }
+    }
+
+    @Test
+    public void invalidFileKeepsPreviousCurveTest(@TempDir Path directory) throws Exception {
+        CurveCsvWriter writer = new CurveCsvWriter();
+        String file = directory.resolve("5 HK.csv").toString();
+        writer.writeCurve(curve(0), file);
+        CurveStore store = CurveStore.Of();
+
+        try (CurveDirectoryWatcher watcher =
+                CurveDirectoryWatcher.Of(directory.toString(), store, DEBOUNCE)) {
+            watcher.start();
+            Curve original = store.get("5 HK");
+
+            CurveData halfVolume = CurveGenerator.Of()
+                    .addSession(BucketType.CONT_TRADING, LocalTime.parse("09:30"),
+                            LocalTime.parse("16:00"), 50.0)
+                    .generate("5 HK");
+            writer.writeCurve(halfVolume, file);
+            awaitCondition(() -> watcher.getErrors().containsKey("5 HK"));
+            assertSame(original, store.get("5 HK"));
+
+            Files.writeString(Path.of(file), "09:00,not a time,5,OPEN_AUCTION");
+            awaitCondition(() -> watcher.getErrors().get("5 HK")
+                    .getCause() instanceof CurveParseException);
+            assertSame(original, store.get("5 HK"));
+
+            writer.writeCurve(curve(2), file);
+            awaitCondition(() -> store.get("5 HK") != original);
+            assertTrue(!watcher.getErrors().containsKey("5 HK"));
+        }
+    }
+
+    private static CurveData curve(long seed) {
+        return CurveGenerator.hongKong(Duration.ofMinutes(5)).withVariation(0.2, seed)
+                .generate("5 HK");
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for reload", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.effanville.curvedata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.effanville.curvedata.IO.CurveCsvReader;
+
+public class CurveGeneratorTest {
+    @Test
+    public void hongKongGeneratorMatchesSampleCurveTest() {
+        CurveData sample = (CurveData) new CurveCsvReader().readCurve("Generic HK",
+                "src/main/resources/Generic_HK.csv");
+
+        CurveData generated = CurveGenerator.hongKong(Duration.ofMinutes(5)).generate("Generic HK");
+
+        assertEquals(sample.numberBuckets(), generated.numberBuckets());
+        for (int index = 0; index < sample.numberBuckets(); index++) {
+            assertBucketEquals(sample.getBucket(index), generated.getBucket(index));
+        }
+    }
+
+    @Test
+    public void customSessionsTest() {
+        CurveGenerator generator = CurveGenerator.Of()
+                .addSession(BucketType.OPEN_AUCTION, LocalTime.parse("08:00"),
+                        LocalTime.parse("08:05"), 5)
+                .addSession(BucketType.CONT_TRADING, LocalTime.parse("08:05"),
+                        LocalTime.parse("08:12"), 95, Duration.ofMinutes(2));
+
+        CurveData curve = generator.generate("VOD LN");
+
+        assertEquals(5, curve.numberBuckets());
+        assertEquals(LocalTime.parse("08:11"), curve.getBucket(4).getStartTime());
+        assertEquals(LocalTime.parse("08:12"), curve.getBucket(4).getEndTime());
+        assertEquals(95.0 / 7, curve.getBucket(4).getPercentDayVolume(), 1e-10);
+        assertEquals(true, curve.isValid());
+        assertThrows(IllegalArgumentException.class, () -> generator.addSession(
+                BucketType.CLOSE_AUCTION, LocalTime.parse("08:10"), LocalTime.parse("08:20"), 0));
+    }
+
+    @Test
+    public void variationKeepsSessionVolumesTest() {
+        CurveGenerator generator =
+                CurveGenerator.hongKong(Duration.ofMinutes(1)).withVariation(0.5, 42);
+
+        List<CurveData> curves = generator.generate("SYM", 3);
+
+        assertEquals("SYM2", curves.get(2).getSymbol());
+        assertNotEquals(curves.get(0).getBucket(20).getPercentDayVolume(),
+                curves.get(1).getBucket(20).getPercentDayVolume(), 0.0);
+        assertEquals(curves.get(1).getBucket(20).getPercentDayVolume(),
+                generator.generate("SYM1").getBucket(20).getPercentDayVolume(), 0.0);
+        for (CurveData curve : curves) {
+            assertEquals(true, curve.isValid());
+            assertEquals(35.0, curve.getVolume(LocalTime.parse("09:30"), LocalTime.parse("12:00")),
+                    1e-10);
+        }
+    }
+
+    private static void assertBucketEquals(CurveBucket expected, CurveBucket actual) {
+        assertEquals(expected.getStartTime(), actual.getStartTime());
+        assertEquals(expected.getEndTime(), actual.getEndTime());
+        assertEquals(expected.getPercentDayVolume(), actual.getPercentDayVolume(), 0.0);
+        assertEquals(expected.getType(), actual.getType());
+    }
+}
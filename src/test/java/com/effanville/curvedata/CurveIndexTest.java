@@ -0,0 +1,94 @@
+package com.effanville.curvedata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class CurveIndexTest {
+    @Test
+    public void indexMatchesBucketWalkTest() {
+        List<CurveBucket> buckets = setupTestBuckets();
+        CurveIndex index = CurveIndex.Of(buckets);
+
+        long endOfTest = 12 * 3600 * 1_000_000_000L;
+        for (long nanoOfDay = 0; nanoOfDay < endOfTest; nanoOfDay += 7_250_000_000L) {
+            LocalTime time = LocalTime.ofNanoOfDay(nanoOfDay);
+            assertEquals(walkBuckets(buckets, time), index.cumulativeVolume(nanoOfDay), 0.0);
+        }
+    }
+
+    @Test
+    public void indexMatchesBucketWalkAtBucketBoundariesTest() {
+        List<CurveBucket> buckets = setupTestBuckets();
+        CurveIndex index = CurveIndex.Of(buckets);
+
+        for (CurveBucket bucket : buckets) {
+            for (LocalTime time : new LocalTime[] {bucket.getStartTime(), bucket.getEndTime(),
+                    bucket.getStartTime().plusNanos(1), bucket.getEndTime().minusNanos(1)}) {
+                assertEquals(walkBuckets(buckets, time), index.cumulativeVolume(time.toNanoOfDay()),
+                        0.0);
+            }
+        }
+    }
+
+    @Test
+    public void overlappingBucketsMatchBucketWalkTest() {
+        List<CurveBucket> buckets = new ArrayList<>();
+        buckets.add(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:30"), 40,
+                BucketType.OPEN_AUCTION));
+        buckets.add(CurveBucket.Of(LocalTime.parse("09:10"), LocalTime.parse("10:00"), 60,
+                BucketType.CONT_TRADING));
+        CurveIndex index = CurveIndex.Of(buckets);
+
+        for (int minute = 8 * 60; minute < 11 * 60; minute += 5) {
+            LocalTime time = LocalTime.ofSecondOfDay(minute * 60);
+            assertEquals(walkBuckets(buckets, time), index.cumulativeVolume(time.toNanoOfDay()),
+                    0.0);
+        }
+    }
+
+    @Test
+    public void subSecondBucketsAreNotIndexedTest() {
+        List<CurveBucket> buckets = new ArrayList<>();
+        buckets.add(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:30:00.5"), 100,
+                BucketType.OPEN_AUCTION));
+        assertNull(CurveIndex.Of(buckets));
+    }
+
+    private static double walkBuckets(List<CurveBucket> buckets, LocalTime time) {
+        double timeVolume = 0;
+        for (CurveBucket bucket : buckets) {
+            if (time.isAfter(bucket.getEndTime())) {
+                timeVolume += bucket.getPercentDayVolume();
+            } else if (time.isAfter(bucket.getStartTime())) {
+                Duration numerator = Duration.between(bucket.getStartTime(), time);
+                Duration denum = Duration.between(bucket.getStartTime(), bucket.getEndTime());
+                double volumeTime = (double) numerator.toNanos() / (double) denum.toNanos();
+                timeVolume += volumeTime * bucket.getPercentDayVolume();
+            }
+        }
+
+        return timeVolume;
+    }
+
+    private static List<CurveBucket> setupTestBuckets() {
+        List<CurveBucket> buckets = new ArrayList<>();
+        buckets.add(CurveBucket.Of(LocalTime.parse("00:00"), LocalTime.parse("09:00"), 0,
+                BucketType.MARKET_CLOSED));
+        buckets.add(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:05"), 5.3,
+                BucketType.OPEN_AUCTION));
+        buckets.add(CurveBucket.Of(LocalTime.parse("09:05"), LocalTime.parse("09:05"), 0.7,
+                BucketType.CONT_TRADING));
+        buckets.add(CurveBucket.Of(LocalTime.parse("09:05"), LocalTime.parse("09:10"), 24.1,
+                BucketType.CONT_TRADING));
+        buckets.add(CurveBucket.Of(LocalTime.parse("09:10"), LocalTime.parse("10:10:07"), 59.9,
+                BucketType.CONT_TRADING));
+        buckets.add(CurveBucket.Of(LocalTime.parse("10:30"), LocalTime.parse("11:00"), 10,
+                BucketType.CLOSE_AUCTION));
+        return buckets;
+    }
+}
@@ -0,0 +1,118 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.SAMPLE_CURVE_FILE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.effanville.curvedata.IO.CurveCsvReader;
+import com.effanville.curvedata.IO.CurveDirectoryLoader;
+import com.effanville.curvedata.IO.CurveLoadResult;
+
+public class CurveInternerTest {
+    @Test
+    public void identicalFilesShareProfileTest() {
+        Map<String, String> files = new LinkedHashMap<>();
+        for (int index = 0; index < 50; index++) {
+            files.put(index + " HK", SAMPLE_CURVE_FILE);
+        }
+        CurveInterner interner = CurveInterner.Of();
+
+        CurveLoadResult result = CurveDirectoryLoader.Of(4, interner).load(files);
+
+        assertEquals(50, result.getCurves().size());
+        assertEquals(1, interner.numberProfiles());
+        assertEquals(49, interner.getSharedCount());
+        Curve first = result.getCurves().get(0);
+        for (int index = 0; index < 50; index++) {
+            Curve curve = result.getCurves().get(index);
+            assertEquals(index + " HK", curve.getSymbol());
+            assertSame(first.getBucket(10), curve.getBucket(10));
+            assertEquals(first.getVolume(LocalTime.parse("09:45"), LocalTime.parse("15:10")),
+                    curve.getVolume(LocalTime.parse("09:45"), LocalTime.parse("15:10")), 0.0);
+        }
+    }
+
+    @Test
+    public void sameBucketsInDifferentFilesShareProfileTest(@TempDir Path directory)
+            throws IOException {
+        Path file = directory.resolve("copy.csv");
+        String contents = Files.readString(Path.of(SAMPLE_CURVE_FILE)).replace("\n", "\r\n");
+        Files.writeString(file, contents);
+        CurveInterner interner = CurveInterner.Of();
+        CurveCsvReader reader = new CurveCsvReader(interner);
+
+        CurveData sample = reader.loadCurve("Generic HK", SAMPLE_CURVE_FILE);
+        CurveData copy = reader.loadCurve("1 HK", file.toString());
+
+        assertEquals(1, interner.numberProfiles());
+        assertEquals("1 HK", copy.getSymbol());
+        assertSame(sample.getBucket(0), copy.getBucket(0));
+    }
+
+    @Test
+    public void clearDropsProfilesTest() throws IOException {
+        CurveInterner interner = CurveInterner.Of();
+        CurveCsvReader reader = new CurveCsvReader(interner);
+        CurveData first = reader.loadCurve("1 HK", SAMPLE_CURVE_FILE);
+        CurveData shared = reader.loadCurve("2 HK", SAMPLE_CURVE_FILE);
+        assertSame(first.getBucket(0), shared.getBucket(0));
+
+        interner.clear();
+        CurveData afterClear = reader.loadCurve("3 HK", SAMPLE_CURVE_FILE);
+
+        assertEquals(1, interner.numberProfiles());
+        assertNotSame(first.getBucket(0), afterClear.getBucket(0));
+        assertSame(first.getBucket(0), shared.getBucket(0));
+    }
+
+    @Test
+    public void differentCurvesAreNotSharedTest() {
+        CurveInterner interner = CurveInterner.Of();
+        List<CurveData> curves = CurveGenerator.hongKong(Duration.ofMinutes(5))
+                .withVariation(0.2, 3).generate("HK", 5);
+        for (CurveData curve : curves) {
+            assertSame(curve.getBucket(0), interner.intern(curve).getBucket(0));
+        }
+        assertEquals(5, interner.numberProfiles());
+
+        CurveData generic = CurveGenerator.hongKong(Duration.ofMinutes(5)).generate("A");
+        CurveData same = CurveGenerator.hongKong(Duration.ofMinutes(5)).generate("B");
+        CurveData interned = interner.intern(generic);
+        assertSame(interned.getBucket(3), interner.intern(same).getBucket(3));
+        assertEquals("B", interner.intern(same).getSymbol());
+
+        PackedCurve packed = PackedCurve.Of(same);
+        assertSame(packed, interner.intern(packed));
+        PackedCurve packedCopy = interner.intern(PackedCurve.Of(generic));
+        assertEquals("A", packedCopy.getSymbol());
+        assertEquals(7, interner.numberProfiles());
+    }
+
+    @Test
+    public void mutableCurveIsCopiedTest() {
+        CurveData mutable = CurveData.Of("1 HK");
+        mutable.addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("10:00"), 100,
+                BucketType.CONT_TRADING));
+        CurveInterner interner = CurveInterner.Of();
+
+        CurveData interned = interner.intern(mutable);
+        mutable.addBucket(CurveBucket.Of(LocalTime.parse("10:00"), LocalTime.parse("11:00"), 0,
+                BucketType.CONT_TRADING));
+
+        assertNotSame(mutable, interned);
+        assertEquals(1, interned.numberBuckets());
+        assertEquals(1, interner.intern(CurveData.Builder.Of("2 HK")
+                .addBucket(interned.getBucket(0)).build()).numberBuckets());
+        assertEquals(1, interner.numberProfiles());
+    }
+}
@@ -0,0 +1,86 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+
+public class CurveMetricsTest {
+    @Test
+    public void instrumentedCurveRecordsQueriesTest() throws IOException {
+        CurveMetrics metrics = CurveMetrics.Of();
+        CurveData curve = readSampleCurve();
+        Curve instrumented = InstrumentedCurve.Of(curve, metrics);
+
+        for (int index = 0; index < 10; index++) {
+            assertEquals(curve.getVolume(LocalTime.MIN, LocalTime.parse("10:00")),
+                    instrumented.getVolume(LocalTime.MIN, LocalTime.parse("10:00")), 0.0);
+        }
+        instrumented.getRelativeVolume(LocalTime.parse("09:00"), LocalTime.parse("16:10"),
+                LocalTime.parse("12:00"));
+
+        LatencyHistogram volumes = metrics.getHistogram(CurveOperation.GET_VOLUME);
+        assertEquals(10, volumes.getCount());
+        assertEquals(10, volumes.getTimedCount());
+        assertTrue(volumes.getPercentileNanos(0.99) >= volumes.getPercentileNanos(0.5));
+        assertEquals(1, metrics.getHistogram(CurveOperation.GET_RELATIVE_VOLUME).getCount());
+        assertEquals(0, metrics.getHistogram(CurveOperation.GET_TIME_FOR_VOLUME).getCount());
+
+        instrumented.getVolume(LocalTime.MIN, LocalTime.NOON, BucketType.CONT_TRADING);
+        instrumented.getEqualVolumeTimes(LocalTime.parse("09:00"), LocalTime.parse("16:10"), 4);
+        assertEquals(1, metrics.getHistogram(CurveOperation.GET_VOLUME_OF_TYPE).getCount());
+        assertEquals(1, metrics.getHistogram(CurveOperation.GET_EQUAL_VOLUME_TIMES).getCount());
+        assertEquals(0, metrics.getHistogram(CurveOperation.GET_SESSION_VOLUME).getCount());
+        assertEquals(0, metrics.getHistogram(CurveOperation.GET_TIME_FOR_VOLUME).getCount());
+
+        Curve updated = instrumented.withBucketVolume(1, 4.0);
+        updated.getVolume(LocalTime.MIN, LocalTime.MAX);
+        assertEquals(11, volumes.getCount());
+    }
+
+    @Test
+    public void sampledMetricsCountEveryCallTest() {
+        CurveMetrics metrics = CurveMetrics.Of(16);
+        Curve instrumented = InstrumentedCurve.Of(readSampleCurve(), metrics);
+
+        for (int index = 0; index < 10_000; index++) {
+            instrumented.getVolume(LocalTime.MIN, LocalTime.ofSecondOfDay(index));
+        }
+
+        LatencyHistogram volumes = metrics.getHistogram(CurveOperation.GET_VOLUME);
+        assertTrue(volumes.getTimedCount() > 0 && volumes.getTimedCount() < 2_000);
+        assertEquals(10_000, volumes.getCount());
+        assertThrows(IllegalArgumentException.class, () -> CurveMetrics.Of(3));
+    }
+
+    @Test
+    public void readerAndValidatorRecordTimingsTest() {
+        CurveMetrics metrics = CurveMetrics.Of();
+        CurveData curve = readSampleCurve(metrics);
+
+        CurveValidator.Of(ValidationMode.COLLECT_ALL, metrics).validate(curve);
+
+        assertEquals(1, metrics.getHistogram(CurveOperation.READ_FILE).getCount());
+        assertEquals(1, metrics.getHistogram(CurveOperation.PARSE).getCount());
+        assertEquals(1, metrics.getHistogram(CurveOperation.VALIDATE).getCount());
+        assertTrue(metrics.toString().contains("PARSE"));
+    }
+
+    @Test
+    public void histogramPercentilesTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+        for (int index = 0; index < 99; index++) {
+            histogram.record(100);
+        }
+        histogram.record(1_000_000);
+
+        assertEquals(127, histogram.getPercentileNanos(0.5));
+        assertEquals(127, histogram.getPercentileNanos(0.99));
+        assertEquals((1L << 20) - 1, histogram.getPercentileNanos(1.0));
+        assertEquals((99 * 100 + 1_000_000) / 100.0, histogram.getMeanNanos(), 1e-10);
+    }
+}
@@ -0,0 +1,78 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.effanville.curvedata.IO.CurveBinaryReader;
+import com.effanville.curvedata.IO.CurveBinaryWriter;
+
+public class CurvePrimitiveQueryTest {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @Test
+    public void primitiveQueriesMatchTimeQueriesTest(@TempDir Path directory)
+            throws IOException {
+        CurveData curve = readSampleCurve();
+        Path file = directory.resolve("curves.bin");
+        new CurveBinaryWriter().writeCurves(List.of(curve), file.toString());
+        Curve mapped = new CurveBinaryReader().readCurveSet(file.toString()).get("Generic HK");
+
+        int startSecond = LocalTime.parse("09:17:30").toSecondOfDay();
+        for (Curve implementation : List.of(curve, PackedCurve.Of(curve), mapped)) {
+            for (int second = 0; second < 86_400; second += 97) {
+                LocalTime start = LocalTime.ofSecondOfDay(startSecond);
+                LocalTime end = LocalTime.ofSecondOfDay(second);
+                assertEquals(implementation.getVolume(start, end),
+                        implementation.getVolume(startSecond, second), 0.0);
+                assertEquals(implementation.getRelativeVolume(LocalTime.MIN, LocalTime.MAX, end),
+                        implementation.getRelativeVolume(0, 86_399, second), 1e-12);
+
+                LocalTime fractionalEnd = end.plusNanos(250_000_000L);
+                assertEquals(implementation.getVolume(start, fractionalEnd),
+                        implementation.getVolumeNanos(start.toNanoOfDay(),
+                                fractionalEnd.toNanoOfDay()),
+                        0.0);
+            }
+        }
+    }
+
+    @Test
+    public void subSecondTimesAreInterpolatedTest(@TempDir Path directory) throws IOException {
+        CurveData curve = readSampleCurve();
+        Path file = directory.resolve("curves.bin");
+        new CurveBinaryWriter().writeCurves(List.of(curve), file.toString());
+        Curve mapped = new CurveBinaryReader().readCurveSet(file.toString()).get("Generic HK");
+
+        CurveBucket bucket = curve.getBucket(2);
+        long startNanos = bucket.getStartTime().toNanoOfDay();
+        double expected = bucket.getPercentDayVolume() / 600;
+        for (Curve implementation : List.of(curve, PackedCurve.Of(curve), mapped)) {
+            assertEquals(expected,
+                    implementation.getVolumeNanos(startNanos, startNanos + NANOS_PER_SECOND / 2),
+                    1e-12);
+            assertEquals(expected, implementation.getVolume(bucket.getStartTime(),
+                    bucket.getStartTime().plusNanos(NANOS_PER_SECOND / 2)), 1e-12);
+        }
+    }
+
+    @Test
+    public void subSecondBucketsAreInterpolatedTest() {
+        CurveData curve = CurveData.Builder.Of("Test")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"),
+                        LocalTime.parse("09:00:00.5"), 40, BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00:00.5"),
+                        LocalTime.parse("09:01"), 60, BucketType.CONT_TRADING))
+                .build();
+        long nineAm = LocalTime.parse("09:00").toNanoOfDay();
+
+        assertEquals(20.0, curve.getVolumeNanos(nineAm, nineAm + 250_000_000L), 1e-10);
+        assertEquals(40.0, curve.getVolume(32_400, 32_401) - 60.0 / 119, 1e-10);
+        assertEquals(50.0, curve.getRelativeVolumeNanos(nineAm, nineAm + NANOS_PER_SECOND / 2,
+                nineAm + 250_000_000L), 1e-10);
+    }
+}
@@ -3,8 +3,15 @@ package com.effanville.curvedata;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import com.effanville.curvedata.IO.CurveCsvReader;
+import com.effanville.curvedata.IO.CurveParseException;
 
 public class CurveReaderTest {
     @Test
@@ -28,4 +35,52 @@ public class CurveReaderTest {
         Curve curve = reader.readCurve("5 HK", "src/test/resources/missing-example.csv");
         assertNull(curve);
     }
+
+    @Test
+    public void loadedVolumesMatchDoubleValueOfTest(@TempDir Path directory) throws IOException {
+        String[] volumes = new String[] {"5", "5.", "+.5", "-0", "1e1", "0.1", "1.1666666666666667",
+                "33.333333333333336", "1E-3", " 5 ", "5d", "0.000000000000000000000001",
+                "123456789012345678"};
+        StringBuilder contents = new StringBuilder("StartTime,EndTime,VolPercent,BucketType\r\n");
+        for (int index = 0; index < volumes.length; index++) {
+            contents.append(String.format("09:%02d,09:%02d:30.5,%s,CONT_TRADING,extra\n", index,
+                    index, volumes[index]));
+        }
+        Path file = directory.resolve("volumes.csv");
+        Files.writeString(file, contents.toString());
+
+        CurveData curve = new CurveCsvReader().loadCurve("5 HK", file.toString());
+
+        assertEquals(volumes.length, curve.numberBuckets());
+        for (int index = 0; index < volumes.length; index++) {
+            CurveBucket bucket = curve.getBuckets().get(index);
+            assertEquals(Double.valueOf(volumes[index]), bucket.getPercentDayVolume(), 0.0);
+            assertEquals(LocalTime.of(9, index), bucket.getStartTime());
+            assertEquals(LocalTime.of(9, index, 30, 500_000_000), bucket.getEndTime());
+        }
+    }
+
+    @Test
+    public void malformedTimeReportsLineAndColumnTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("malformed.csv");
+        Files.writeString(file, "StartTime,EndTime,VolPercent,BucketType\n"
+                + "09:00,09:3x,5,OPEN_AUCTION\n");
+
+        CurveParseException exception = assertThrows(CurveParseException.class,
+                () -> new CurveCsvReader().loadCurve("5 HK", file.toString()));
+        assertEquals(2, exception.getLineNumber());
+        assertEquals(11, exception.getColumn());
+    }
+
+    @Test
+    public void malformedBucketTypeReportsLineAndColumnTest(@TempDir Path directory)
+            throws IOException {
+        Path file = directory.resolve("malformed.csv");
+        Files.writeString(file, "09:00,09:30,5,OPEN_AUCTION\n09:30,10:00,95,MARKET\n");
+
+        CurveParseException exception = assertThrows(CurveParseException.class,
+                () -> new CurveCsvReader().loadCurve("5 HK", file.toString()));
+        assertEquals(2, exception.getLineNumber());
+        assertEquals(16, exception.getColumn());
+    }
 }
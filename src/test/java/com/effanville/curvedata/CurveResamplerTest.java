@@ -0,0 +1,114 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CurveResamplerTest {
+    @Test
+    public void resampleToFinerGridPreservesVolumeTest() {
+        CurveData curve = readSampleCurve();
+
+        CurveData resampled = CurveResampler.Of(Duration.ofMinutes(1)).resample(curve);
+
+        assertEquals("Generic HK", resampled.getSymbol());
+        assertEquals(true, resampled.isValid());
+        for (int second = 0; second < 86_400; second += 60) {
+            LocalTime time = LocalTime.ofSecondOfDay(second);
+            assertEquals(curve.getVolume(LocalTime.MIN, time),
+                    resampled.getVolume(LocalTime.MIN, time), 1e-10);
+        }
+        for (BucketType type : BucketType.values()) {
+            assertEquals(curve.getSessionVolume(type), resampled.getSessionVolume(type), 1e-10);
+        }
+        for (CurveBucket bucket : resampled.getBuckets()) {
+            assertEquals(true, Duration.between(bucket.getStartTime(), bucket.getEndTime())
+                    .compareTo(Duration.ofMinutes(1)) <= 0);
+        }
+    }
+
+    @Test
+    public void resampleToCoarserGridRespectsSessionsTest() {
+        CurveData curve = readSampleCurve();
+
+        CurveData resampled = CurveResampler.Of(Duration.ofMinutes(30)).resample(curve);
+
+        assertEquals(true, resampled.isValid());
+        CurveBucket open = bucketStarting(resampled, "09:00");
+        assertEquals(LocalTime.parse("09:00"), open.getStartTime());
+        assertEquals(LocalTime.parse("09:30"), open.getEndTime());
+        assertEquals(BucketType.OPEN_AUCTION, open.getType());
+        assertEquals(8.0, open.getPercentDayVolume(), 0.0);
+
+        CurveBucket continuous = bucketStarting(resampled, "09:30");
+        assertEquals(LocalTime.parse("09:30"), continuous.getStartTime());
+        assertEquals(LocalTime.parse("10:00"), continuous.getEndTime());
+        assertEquals(curve.getVolume(LocalTime.parse("09:30"), LocalTime.parse("10:00")),
+                continuous.getPercentDayVolume(), 1e-10);
+
+        CurveBucket close = bucketStarting(resampled, "16:00");
+        assertEquals(LocalTime.parse("16:00"), close.getStartTime());
+        assertEquals(LocalTime.parse("16:30"), close.getEndTime());
+        assertEquals(BucketType.CLOSE_AUCTION, close.getType());
+        assertEquals(10.0, close.getPercentDayVolume(), 1e-10);
+    }
+
+    @Test
+    public void resampleToCustomBoundariesTest() {
+        CurveData curve = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:10"), 40,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:10"), LocalTime.parse("09:30"), 60,
+                        BucketType.CONT_TRADING))
+                .build();
+
+        CurveData resampled = CurveResampler
+                .Of(List.of(LocalTime.parse("09:05"), LocalTime.parse("09:20")))
+                .resample(curve);
+
+        assertEquals(4, resampled.numberBuckets());
+        assertBucket("09:00", "09:05", 20, BucketType.OPEN_AUCTION, resampled.getBucket(0));
+        assertBucket("09:05", "09:10", 20, BucketType.OPEN_AUCTION, resampled.getBucket(1));
+        assertBucket("09:10", "09:20", 30, BucketType.CONT_TRADING, resampled.getBucket(2));
+        assertBucket("09:20", "09:30", 30, BucketType.CONT_TRADING, resampled.getBucket(3));
+    }
+
+    @Test
+    public void resampleRejectsInvalidInputTest() {
+        CurveData overlapping = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:10"), 50,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:05"), LocalTime.parse("09:15"), 50,
+                        BucketType.CONT_TRADING))
+                .build();
+        CurveResampler resampler = CurveResampler.Of(Duration.ofMinutes(1));
+
+        assertThrows(IllegalArgumentException.class, () -> resampler.resample(overlapping));
+        assertThrows(IllegalArgumentException.class,
+                () -> CurveResampler.Of(Duration.ofMillis(1500)));
+        assertThrows(IllegalArgumentException.class, () -> CurveResampler
+                .Of(List.of(LocalTime.parse("09:05"), LocalTime.parse("09:05"))));
+    }
+
+    private static CurveBucket bucketStarting(CurveData curve, String start) {
+        for (CurveBucket bucket : curve.getBuckets()) {
+            if (bucket.getStartTime().equals(LocalTime.parse(start))) {
+                return bucket;
+            }
+        }
+
+        throw new AssertionError("No bucket starts at " + start);
+    }
+
+    private static void assertBucket(String start, String end, double volume, BucketType type,
+            CurveBucket bucket) {
+        assertEquals(LocalTime.parse(start), bucket.getStartTime());
+        assertEquals(LocalTime.parse(end), bucket.getEndTime());
+        assertEquals(volume, bucket.getPercentDayVolume(), 1e-10);
+        assertEquals(type, bucket.getType());
+    }
+}
@@ -0,0 +1,98 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.time.LocalTime;
+import org.junit.Test;
+
+public class CurveSessionsTest {
+    @Test
+    public void sessionVolumesTest() {
+        CurveData curve = readSampleCurve();
+
+        assertEquals(8.0, curve.getSessionVolume(BucketType.OPEN_AUCTION), 1e-8);
+        assertEquals(82.0, curve.getSessionVolume(BucketType.CONT_TRADING), 1e-8);
+        assertEquals(10.0, curve.getSessionVolume(BucketType.CLOSE_AUCTION), 1e-8);
+        assertEquals(0.0, curve.getSessionVolume(BucketType.INTRADAY_CLOSE), 0.0);
+        assertEquals(0.0, curve.getSessionVolume(BucketType.POST_CLOSE), 0.0);
+    }
+
+    @Test
+    public void sessionAggregateTest() {
+        CurveSessions sessions = readSampleCurve().getSessions();
+
+        SessionAggregate continuous = sessions.getSession(BucketType.CONT_TRADING);
+        assertEquals(BucketType.CONT_TRADING, continuous.getType());
+        assertEquals(LocalTime.parse("09:30"), continuous.getStartTime());
+        assertEquals(LocalTime.parse("16:00"), continuous.getEndTime());
+        assertEquals(2, continuous.getFirstBucketIndex());
+        assertEquals(68, continuous.getLastBucketIndex());
+        assertEquals(66, continuous.getBucketCount());
+
+        SessionAggregate close = sessions.getSession(BucketType.CLOSE_AUCTION);
+        assertEquals(LocalTime.parse("16:00"), close.getStartTime());
+        assertEquals(LocalTime.parse("23:59"), close.getEndTime());
+        assertEquals(2, close.getBucketCount());
+
+        assertNull(sessions.getSession(BucketType.POST_CLOSE));
+    }
+
+    @Test
+    public void sessionVolumeBetweenTimesMatchesWalkTest() {
+        CurveData curve = readSampleCurve();
+        LocalTime start = LocalTime.parse("09:17:30");
+        for (BucketType type : BucketType.values()) {
+            for (int second = 0; second < 86_400; second += 131) {
+                LocalTime end = LocalTime.ofSecondOfDay(second);
+                assertEquals(walkSessionVolume(curve, start, end, type),
+                        curve.getVolume(start, end, type), 1e-10);
+            }
+        }
+    }
+
+    @Test
+    public void sessionsMatchAcrossImplementationsTest() {
+        CurveData curve = readSampleCurve();
+        PackedCurve packed = PackedCurve.Of(curve);
+        LocalTime start = LocalTime.parse("11:02");
+        LocalTime end = LocalTime.parse("14:48:10");
+        for (BucketType type : BucketType.values()) {
+            assertEquals(curve.getSessionVolume(type), packed.getSessionVolume(type), 0.0);
+            assertEquals(curve.getVolume(start, end, type), packed.getVolume(start, end, type),
+                    0.0);
+        }
+    }
+
+    @Test
+    public void sessionsRecomputedAfterAddBucketTest() {
+        CurveData curve = CurveData.Of("Test");
+        curve.addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("10:00"), 40.0,
+                BucketType.CONT_TRADING));
+        assertEquals(0.0, curve.getSessionVolume(BucketType.CLOSE_AUCTION), 0.0);
+
+        curve.addBucket(CurveBucket.Of(LocalTime.parse("16:00"), LocalTime.parse("16:10"), 60.0,
+                BucketType.CLOSE_AUCTION));
+        assertEquals(60.0, curve.getSessionVolume(BucketType.CLOSE_AUCTION), 0.0);
+        assertEquals(30.0, curve.getVolume(LocalTime.MIN, LocalTime.parse("16:05"),
+                BucketType.CLOSE_AUCTION), 1e-10);
+        assertEquals(0.0, curve.getVolume(LocalTime.parse("16:05"), LocalTime.parse("09:00"),
+                BucketType.CLOSE_AUCTION), 0.0);
+    }
+
+    private static double walkSessionVolume(Curve curve, LocalTime start, LocalTime end,
+            BucketType type) {
+        CurveData session = CurveData.Of(curve.getSymbol());
+        for (int index = 0; index < curve.numberBuckets(); index++) {
+            CurveBucket bucket = curve.getBucket(index);
+            if (bucket.getType() == type) {
+                session.addBucket(bucket);
+            }
+        }
+
+        if (session.numberBuckets() == 0 || end.isBefore(start)) {
+            return 0.0;
+        }
+        return session.getVolume(LocalTime.MIN, end) - session.getVolume(LocalTime.MIN, start);
+    }
+}
@@ -0,0 +1,60 @@
+package com.effanville.curvedata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class CurveStoreTest {
+    @Test
+    public void canLookUpCurvesBySymbolTest() {
+        Curve first = setupTestCurve("1 HK");
+        Curve second = setupTestCurve("5 HK");
+        CurveStore store = CurveStore.Of(List.of(first, second));
+
+        assertEquals(2, store.size());
+        assertSame(first, store.get("1 HK"));
+        assertSame(second, store.get("5 HK"));
+        assertNull(store.get("700 HK"));
+    }
+
+    @Test
+    public void replaceAllSwapsWholeCurveSetTest() {
+        Curve first = setupTestCurve("1 HK");
+        CurveStore store = CurveStore.Of(List.of(first));
+        Map<String, Curve> snapshot = store.snapshot();
+
+        Curve replacement = setupTestCurve("5 HK");
+        Map<String, Curve> replaced = store.replaceAll(List.of(replacement));
+
+        assertSame(snapshot, replaced);
+        assertNull(store.get("1 HK"));
+        assertSame(replacement, store.get("5 HK"));
+        assertSame(first, snapshot.get("1 HK"));
+    }
+
+    @Test
+    public void putReplacesCurveForSymbolTest() {
+        Curve first = setupTestCurve("1 HK");
+        Curve other = setupTestCurve("5 HK");
+        CurveStore store = CurveStore.Of(List.of(first, other));
+
+        Curve replacement = setupTestCurve("1 HK");
+        assertSame(first, store.put(replacement));
+        assertSame(replacement, store.get("1 HK"));
+        assertSame(other, store.get("5 HK"));
+
+        assertSame(other, store.remove("5 HK"));
+        assertEquals(1, store.size());
+    }
+
+    private static Curve setupTestCurve(String symbol) {
+        return CurveData.Builder.Of(symbol)
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:30"), 100,
+                        BucketType.OPEN_AUCTION))
+                .build();
+    }
+}
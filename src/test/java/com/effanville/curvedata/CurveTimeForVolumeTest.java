@@ -0,0 +1,115 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+public class CurveTimeForVolumeTest {
+    @Test
+    public void timeForVolumeOfDayTest() {
+        CurveData curve = readSampleCurve();
+
+        assertEquals(LocalTime.parse("09:30"), curve.getTimeForVolume(LocalTime.MIN, 8.0));
+        assertEquals(LocalTime.parse("09:15"), curve.getTimeForVolume(LocalTime.MIN, 4.0));
+        assertEquals(LocalTime.parse("16:10"), curve.getTimeForVolume(LocalTime.MIN, 100.0));
+        assertEquals(LocalTime.parse("10:00"), curve.getTimeForVolume(LocalTime.parse("10:00"), 0));
+        assertNull(curve.getTimeForVolume(LocalTime.MIN, 100.5));
+        assertNull(curve.getTimeForVolume(LocalTime.parse("16:20"), 1.0));
+    }
+
+    @Test
+    public void timeForVolumeIsEarliestTimeReachingVolumeTest() {
+        CurveData curve = readSampleCurve();
+        PackedCurve packed = PackedCurve.Of(curve);
+        LocalTime start = LocalTime.parse("09:12:17");
+        for (double volume = 0.01; volume < 92; volume += 0.37) {
+            LocalTime time = curve.getTimeForVolume(start, volume);
+            assertTrue(curve.getVolume(start, time) >= volume);
+            assertTrue(curve.getVolume(start, time.minusNanos(1)) < volume);
+            assertEquals(time, packed.getTimeForVolume(start, volume));
+        }
+    }
+
+    @Test
+    public void timeForVolumeInTinyBucketTest() {
+        // the rounding error of the fraction of the second bucket is worth hours of nanoseconds
+        CurveData curve = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.MIN, LocalTime.parse("09:00"), 99.999999999,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("23:00"),
+                        1e-9, BucketType.CONT_TRADING))
+                .build();
+        PackedCurve packed = PackedCurve.Of(curve);
+
+        LocalTime time = assertTimeout(Duration.ofSeconds(1),
+                () -> curve.getTimeForVolume(LocalTime.MIN, 99.9999999994));
+        assertTrue(curve.getVolume(LocalTime.MIN, time) >= 99.9999999994);
+        assertTrue(curve.getVolume(LocalTime.MIN, time.minusNanos(1)) < 99.9999999994);
+        assertEquals(time, assertTimeout(Duration.ofSeconds(1),
+                () -> packed.getTimeForVolume(LocalTime.MIN, 99.9999999994)));
+    }
+
+    @Test
+    public void timeForVolumeWithNegativeBucketTest() {
+        // the cumulative volume rises to 60, falls to 40 and then rises to 100
+        CurveData curve = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("10:00"), 60,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("10:00"), LocalTime.parse("11:00"), -20,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("11:00"), LocalTime.parse("12:00"), 60,
+                        BucketType.CONT_TRADING))
+                .build();
+        PackedCurve packed = PackedCurve.Of(curve);
+
+        for (Curve queried : Arrays.asList(curve, packed)) {
+            assertEquals(LocalTime.parse("09:45"), queried.getTimeForVolume(LocalTime.MIN, 45));
+            assertEquals(LocalTime.parse("11:10"),
+                    queried.getTimeForVolume(LocalTime.parse("11:00"), 10));
+            assertEquals(Arrays.asList(LocalTime.parse("09:50"), LocalTime.parse("12:00")),
+                    Arrays.asList(queried.getEqualVolumeTimes(LocalTime.MIN, LocalTime.NOON, 2)));
+        }
+    }
+
+    @Test
+    public void timeForVolumeOfUnorderedCurveTest() {
+        CurveData curve = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:10"), 50,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:05"), LocalTime.parse("09:15"), 50,
+                        BucketType.CONT_TRADING))
+                .build();
+
+        LocalTime time = curve.getTimeForVolume(LocalTime.MIN, 50.0);
+        assertEquals(LocalTime.parse("09:07:30"), time);
+        assertNull(curve.getTimeForVolume(LocalTime.MIN, 101.0));
+    }
+
+    @Test
+    public void equalVolumeTimesTest() {
+        CurveData curve = readSampleCurve();
+        LocalTime start = LocalTime.parse("09:00");
+        LocalTime end = LocalTime.parse("16:10");
+
+        LocalTime[] times = curve.getEqualVolumeTimes(start, end, 10);
+
+        assertEquals(10, times.length);
+        assertEquals(end, times[9]);
+        for (int index = 0; index < times.length; index++) {
+            double volume = curve.getVolume(start, end) * (index + 1) / 10;
+            assertEquals(curve.getTimeForVolume(start, volume), times[index]);
+        }
+        PackedCurve packed = PackedCurve.Of(curve);
+        assertEquals(Arrays.asList(times),
+                Arrays.asList(packed.getEqualVolumeTimes(start, end, 10)));
+        assertThrows(IllegalArgumentException.class,
+                () -> curve.getEqualVolumeTimes(start, end, 0));
+    }
+}
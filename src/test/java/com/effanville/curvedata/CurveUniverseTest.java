@@ -0,0 +1,87 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class CurveUniverseTest {
+    @Test
+    public void universeMatchesCurveQueriesTest() {
+        List<Curve> curves = new ArrayList<>();
+        curves.addAll(CurveGenerator.hongKong(Duration.ofMinutes(1)).withVariation(0.3, 5)
+                .generate("HK", 3000));
+        curves.add(readSampleCurve());
+        curves.add(PackedCurve.Of(CurveGenerator.hongKong(Duration.ofSeconds(10))
+                .withVariation(0.5, 11).generate("Packed")));
+        curves.add(CurveData.Builder.Of("Sub second")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:00:00.5"),
+                        40, BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00:00.5"), LocalTime.parse("16:00"),
+                        60, BucketType.CONT_TRADING))
+                .build());
+        curves.add(CurveData.Builder.Of("Overlapping")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("12:00"), 40,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("11:00"), LocalTime.parse("16:00"), 60,
+                        BucketType.CONT_TRADING))
+                .build());
+        CurveUniverse universe = CurveUniverse.Of(curves);
+
+        assertEquals(curves.size(), universe.size());
+        LocalTime[][] windows = {
+            {LocalTime.parse("15:50"), LocalTime.parse("16:10"), LocalTime.parse("16:00")},
+            {LocalTime.parse("09:17:30.25"), LocalTime.parse("11:00"), LocalTime.parse("10:00")},
+            {LocalTime.MIN, LocalTime.MAX, LocalTime.NOON},
+            {LocalTime.parse("16:00"), LocalTime.parse("09:00"), LocalTime.NOON}};
+        for (LocalTime[] window : windows) {
+            double[] volumes = universe.getVolumes(window[0], window[1]);
+            double[] relative = universe.getRelativeVolumes(window[0], window[1], window[2]);
+            for (int index = 0; index < curves.size(); index++) {
+                Curve curve = curves.get(index);
+                assertEquals(curve.getSymbol(), universe.getSymbol(index));
+                assertEquals(curve.getVolume(window[0], window[1]), volumes[index], 0.0);
+                assertEquals(curve.getRelativeVolume(window[0], window[1], window[2]),
+                        relative[index], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void storeUniverseSortedBySymbolTest() {
+        CurveStore store = CurveStore.Of(
+                CurveGenerator.hongKong(Duration.ofMinutes(5)).generate("HK", 12));
+        CurveUniverse universe = CurveUniverse.Of(store);
+
+        List<String> symbols = universe.getSymbols();
+        assertEquals(12, symbols.size());
+        for (int index = 1; index < symbols.size(); index++) {
+            assertEquals(true, symbols.get(index - 1).compareTo(symbols.get(index)) < 0);
+        }
+        assertEquals(-1, universe.indexOf("Missing"));
+
+        double[] volumes = universe.getVolumes(LocalTime.parse("15:50"), LocalTime.parse("16:10"));
+        Map<String, Double> bySymbol = universe.toMap(volumes);
+        for (String symbol : symbols) {
+            assertEquals(store.get(symbol).getVolume(LocalTime.parse("15:50"),
+                    LocalTime.parse("16:10")), bySymbol.get(symbol), 0.0);
+            assertEquals(volumes[universe.indexOf(symbol)], bySymbol.get(symbol), 0.0);
+        }
+    }
+
+    @Test
+    public void invalidArgumentsTest() {
+        List<CurveData> curves = CurveGenerator.hongKong(Duration.ofMinutes(5)).generate("HK", 2);
+        CurveUniverse universe = CurveUniverse.Of(curves);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> universe.getVolumesNanos(0, 1, new double[3]));
+        assertThrows(IllegalArgumentException.class,
+                () -> CurveUniverse.Of(List.of(curves.get(0), curves.get(0))));
+    }
+}
@@ -0,0 +1,86 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.Test;
+
+public class CurveUpdateTest {
+    @Test
+    public void replaceBucketVolumeTest() {
+        CurveData curve = readSampleCurve();
+
+        CurveData updated = curve.withBucketVolume(1, 6.0);
+
+        assertEquals(8.0, curve.getBucket(1).getPercentDayVolume(), 0.0);
+        assertEquals(6.0, updated.getBucket(1).getPercentDayVolume(), 0.0);
+        assertEquals(98.0, updated.getVolume(LocalTime.MIN, LocalTime.MAX), 1e-10);
+        assertEquals(false, updated.isValid());
+        assertMatchesRebuiltCurve(updated);
+    }
+
+    @Test
+    public void rescaleVolumesFromTimeTest() {
+        CurveData curve = readSampleCurve();
+        LocalTime now = LocalTime.parse("11:00");
+        double realised = curve.getVolume(LocalTime.MIN, now);
+        double factor = (100 - realised * 1.2) / (100 - realised);
+
+        CurveData updated = curve.withBucketVolume(1, 8.0 * 1.2)
+                .withVolumesScaledFrom(LocalTime.parse("09:30"), 1.2)
+                .withVolumesScaledFrom(now, factor / 1.2);
+
+        assertEquals(realised * 1.2, updated.getVolume(LocalTime.MIN, now), 1e-10);
+        assertEquals(true, updated.isValid());
+        assertEquals(curve.getBucket(0).getPercentDayVolume(),
+                updated.getBucket(0).getPercentDayVolume(), 0.0);
+        assertMatchesRebuiltCurve(updated);
+    }
+
+    @Test
+    public void packedCurveUpdatesMatchCurveDataTest() {
+        CurveData curve = readSampleCurve();
+        PackedCurve packed = PackedCurve.Of(curve);
+        LocalTime time = LocalTime.parse("13:30:00.5");
+
+        PackedCurve updated = packed.withBucketVolume(3, 1.5).withVolumesScaledFrom(time, 0.5);
+        CurveData expected = curve.withBucketVolume(3, 1.5).withVolumesScaledFrom(time, 0.5);
+
+        for (int index = 0; index < curve.numberBuckets(); index++) {
+            assertEquals(expected.getBucket(index).getPercentDayVolume(),
+                    updated.getBucket(index).getPercentDayVolume(), 0.0);
+        }
+        for (int second = 0; second < 86_400; second += 113) {
+            LocalTime end = LocalTime.ofSecondOfDay(second);
+            assertEquals(expected.getVolume(LocalTime.MIN, end),
+                    updated.getVolume(LocalTime.MIN, end), 0.0);
+        }
+    }
+
+    @Test
+    public void storeUpdatePublishesNewCurveTest() {
+        CurveData curve = readSampleCurve();
+        CurveStore store = CurveStore.Of(List.of(curve));
+
+        Curve updated = store.update("Generic HK", current -> current.withBucketVolume(1, 4.0));
+
+        assertSame(updated, store.get("Generic HK"));
+        assertEquals(4.0, store.get("Generic HK").getBucket(1).getPercentDayVolume(), 0.0);
+        assertEquals(8.0, curve.getBucket(1).getPercentDayVolume(), 0.0);
+        assertNull(store.update("5 HK", current -> current.withBucketVolume(1, 4.0)));
+    }
+
+    private static void assertMatchesRebuiltCurve(CurveData updated) {
+        CurveData rebuilt = CurveData.Builder.Of(updated.getSymbol())
+                .addBuckets(updated.getBuckets())
+                .build();
+        for (int second = 0; second < 86_400; second += 97) {
+            LocalTime end = LocalTime.ofSecondOfDay(second);
+            assertEquals(rebuilt.getVolume(LocalTime.MIN, end),
+                    updated.getVolume(LocalTime.MIN, end), 0.0);
+        }
+    }
+}
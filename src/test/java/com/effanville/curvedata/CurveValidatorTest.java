@@ -0,0 +1,88 @@
+package com.effanville.curvedata;
+
+import static org.junit.Assert.assertEquals;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.Test;
+
+public class CurveValidatorTest {
+    @Test
+    public void validCurveHasNoViolationsTest() {
+        CurveValidator validator = CurveValidator.Of(ValidationMode.COLLECT_ALL);
+        CurveValidationResult result = validator.validate(setupValidCurve("1 HK"));
+
+        assertEquals(true, result.isValid());
+        assertEquals(0, result.getViolations().size());
+    }
+
+    @Test
+    public void collectAllReportsEveryViolationTest() {
+        CurveValidator validator = CurveValidator.Of(ValidationMode.COLLECT_ALL);
+        CurveValidationResult result = validator.validate(setupInvalidCurve());
+
+        assertEquals(false, result.isValid());
+        List<CurveViolation> violations = result.getViolations();
+        assertEquals(4, violations.size());
+
+        assertEquals(ValidationRule.NEGATIVE_VOLUME, violations.get(0).getRule());
+        assertEquals(0, violations.get(0).getBucketIndex());
+        assertEquals(-5, violations.get(0).getValue(), 0.0);
+
+        assertEquals(ValidationRule.OVERLAPPING_BUCKETS, violations.get(1).getRule());
+        assertEquals(1, violations.get(1).getBucketIndex());
+        assertEquals(300, violations.get(1).getValue(), 0.0);
+
+        assertEquals(ValidationRule.START_AFTER_END, violations.get(2).getRule());
+        assertEquals(2, violations.get(2).getBucketIndex());
+        assertEquals(600, violations.get(2).getValue(), 0.0);
+
+        assertEquals(ValidationRule.VOLUME_NOT_100, violations.get(3).getRule());
+        assertEquals(-1, violations.get(3).getBucketIndex());
+        assertEquals(95, violations.get(3).getValue(), 1e-8);
+    }
+
+    @Test
+    public void failFastReportsFirstViolationTest() {
+        CurveValidator validator = CurveValidator.Of(ValidationMode.FAIL_FAST);
+        CurveValidationResult result = validator.validate(setupInvalidCurve());
+
+        assertEquals(1, result.getViolations().size());
+        assertEquals(ValidationRule.NEGATIVE_VOLUME, result.getViolations().get(0).getRule());
+        assertEquals(false, validator.isValid(setupInvalidCurve()));
+    }
+
+    @Test
+    public void validateAllKeepsOrderOfCurvesTest() {
+        CurveValidator validator = CurveValidator.Of(ValidationMode.FAIL_FAST);
+        List<CurveValidationResult> results = validator.validateAll(
+                List.of(setupValidCurve("1 HK"), setupInvalidCurve(), setupValidCurve("700 HK")));
+
+        assertEquals(3, results.size());
+        assertEquals("1 HK", results.get(0).getSymbol());
+        assertEquals(true, results.get(0).isValid());
+        assertEquals("5 HK", results.get(1).getSymbol());
+        assertEquals(false, results.get(1).isValid());
+        assertEquals("700 HK", results.get(2).getSymbol());
+        assertEquals(true, results.get(2).isValid());
+    }
+
+    private static Curve setupValidCurve(String symbol) {
+        return CurveData.Builder.Of(symbol)
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:05"), 5,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:05"), LocalTime.parse("09:10"), 95,
+                        BucketType.CONT_TRADING))
+                .build();
+    }
+
+    private static Curve setupInvalidCurve() {
+        return CurveData.Builder.Of("5 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:10"), -5,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:05"), LocalTime.parse("09:15"), 50,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:30"), LocalTime.parse("09:20"), 50,
+                        BucketType.CONT_TRADING))
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.effanville.curvedata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.effanville.curvedata.IO.CurveCsvReader;
+import com.effanville.curvedata.IO.CurveCsvWriter;
+import com.effanville.curvedata.IO.CurveDirectoryLoader;
+import com.effanville.curvedata.IO.CurveLoadResult;
+import com.effanville.curvedata.IO.SampleCurveGenerator;
+
+public class CurveWriterTest {
+    @Test
+    public void writtenCurveReadsBackExactlyTest(@TempDir Path directory) throws IOException {
+        CurveData curve = CurveGenerator.Of()
+                .addSession(BucketType.OPEN_AUCTION, LocalTime.parse("08:00"),
+                        LocalTime.parse("08:00:30.25"), 3.3)
+                .addSession(BucketType.CONT_TRADING, LocalTime.parse("08:00:30.25"),
+                        LocalTime.parse("16:30"), 96.7, Duration.ofSeconds(7))
+                .withVariation(0.3, 7)
+                .generate("VOD LN");
+        String file = directory.resolve("VOD.csv").toString();
+
+        new CurveCsvWriter().writeCurve(curve, file);
+        CurveData read = new CurveCsvReader().loadCurve("VOD LN", file);
+
+        assertEquals(curve.numberBuckets(), read.numberBuckets());
+        for (int index = 0; index < curve.numberBuckets(); index++) {
+            CurveBucket expected = curve.getBucket(index);
+            CurveBucket actual = read.getBucket(index);
+            assertEquals(expected.getStartTime(), actual.getStartTime());
+            assertEquals(expected.getEndTime(), actual.getEndTime());
+            assertEquals(expected.getPercentDayVolume(), actual.getPercentDayVolume(), 0.0);
+            assertEquals(expected.getType(), actual.getType());
+        }
+    }
+
+    @Test
+    public void writeUniverseIntoDirectoryTest(@TempDir Path directory) throws IOException {
+        List<CurveData> curves = CurveGenerator.hongKong(Duration.ofMinutes(1))
+                .withVariation(0.2, 1)
+                .generate("SYM", 20);
+
+        new CurveCsvWriter().writeCurves(curves, directory.toString());
+        CurveLoadResult result = CurveDirectoryLoader.Of().loadDirectory(directory.toString());
+
+        assertEquals(false, result.hasErrors());
+        assertEquals(20, result.getCurves().size());
+        for (Curve curve : result.getCurves()) {
+            assertEquals(true, curve.isValid());
+        }
+    }
+
+    @Test
+    public void symbolNamingFileOutsideDirectoryIsRejectedTest(@TempDir Path directory)
+            throws IOException {
+        Path curves = Files.createDirectory(directory.resolve("curves"));
+        CurveCsvWriter writer = new CurveCsvWriter();
+        for (String symbol : List.of("../ESCAPED", "sub/ESCAPED", "..\\ESCAPED", "..")) {
+            CurveData curve = CurveGenerator.Of()
+                    .addSession(BucketType.CONT_TRADING, LocalTime.parse("09:00"),
+                            LocalTime.parse("16:00"), 100)
+                    .generate(symbol);
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.writeCurves(List.of(curve), curves.toString()));
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        try (Stream<Path> files = Files.list(curves)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void sampleCurveGeneratorWritesSampleCurveTest(@TempDir Path directory) {
+        String file = directory.resolve("Generic_HK.csv").toString();
+
+        new SampleCurveGenerator().generateCurve(file);
+
+        CurveCsvReader reader = new CurveCsvReader();
+        Curve expected = reader.readCurve("Generic HK", "src/main/resources/Generic_HK.csv");
+        Curve generated = reader.readCurve("Generic HK", file);
+        assertEquals(expected.numberBuckets(), generated.numberBuckets());
+        for (int second = 0; second < 86_400; second += 60) {
+            LocalTime time = LocalTime.ofSecondOfDay(second);
+            assertEquals(expected.getVolume(LocalTime.MIN, time),
+                    generated.getVolume(LocalTime.MIN, time), 0.0);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+public class EpochCurveTest {
+    private static final ZoneId HONG_KONG = ZoneId.of("Asia/Hong_Kong");
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final LocalDate MONDAY = LocalDate.parse("2024-03-04");
+
+    @Test
+    public void dayCurveVolumesMatchTest() {
+        CurveData day = readSampleCurve();
+        EpochCurve curve = EpochCurve.Of(day, MONDAY, HONG_KONG);
+
+        assertEquals(day.numberBuckets(), curve.numberBuckets());
+        assertEquals(100.0, curve.getTotalVolume(), 1e-8);
+        LocalTime start = LocalTime.parse("09:17:30");
+        for (int second = 0; second < 86_400; second += 97) {
+            LocalTime end = LocalTime.ofSecondOfDay(second).plusNanos(250_000_000L);
+            assertEquals(day.getVolume(start, end),
+                    curve.getVolume(instant(MONDAY, start), instant(MONDAY, end)), 1e-10);
+        }
+    }
+
+    @Test
+    public void sessionCrossingMidnightTest() {
+        CurveData session = CurveData.Builder.Of("ES")
+                .addBucket(CurveBucket.Of(LocalTime.parse("00:00"), LocalTime.parse("08:00"), 20,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("08:00"), LocalTime.parse("17:00"), 60,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("18:00"), LocalTime.parse("23:59:59"),
+                        20, BucketType.CONT_TRADING))
+                .build();
+        EpochCurve curve = EpochCurve.Of(session, MONDAY, LocalTime.parse("18:00"), HONG_KONG);
+
+        assertEquals(instant(MONDAY, LocalTime.parse("18:00")), curve.getStartTime(0));
+        assertEquals(instant(MONDAY.plusDays(1), LocalTime.parse("17:00")), curve.getEndTime(2));
+        assertEquals(100.0, curve.getVolume(curve.getStartTime(0), curve.getEndTime(2)), 1e-10);
+        assertEquals(20.0 + 10.0, curve.getVolume(instant(MONDAY, LocalTime.parse("18:00")),
+                instant(MONDAY.plusDays(1), LocalTime.parse("04:00"))), 1e-10);
+        assertEquals(50.0, curve.getRelativeVolume(curve.getStartTime(0), curve.getEndTime(2),
+                instant(MONDAY.plusDays(1), LocalTime.parse("09:30"))), 1e-10);
+
+        assertThrows(IllegalArgumentException.class, () -> EpochCurve.Of(session, MONDAY,
+                LocalTime.parse("12:00"), HONG_KONG));
+    }
+
+    @Test
+    public void weekCurveTest() {
+        CurveData day = readSampleCurve();
+        SortedMap<LocalDate, Curve> days = new TreeMap<>();
+        for (int index = 0; index < 5; index++) {
+            days.put(MONDAY.plusDays(index), day);
+        }
+        EpochCurve week = EpochCurve.Of("Generic HK", days, HONG_KONG);
+
+        assertEquals(5 * day.numberBuckets(), week.numberBuckets());
+        assertEquals(500.0, week.getTotalVolume(), 1e-8);
+        LocalTime start = LocalTime.parse("10:00");
+        LocalTime end = LocalTime.parse("14:00");
+        assertEquals(2 * 100.0 + day.getVolume(start, LocalTime.MAX)
+                + day.getVolume(LocalTime.MIN, end),
+                week.getVolume(instant(MONDAY, start), instant(MONDAY.plusDays(3), end)), 1e-8);
+        assertEquals(0.0, week.getVolume(instant(MONDAY.plusDays(3), end),
+                instant(MONDAY, start)), 0.0);
+        assertEquals(0.0, week.getCumulativeVolume(Long.MIN_VALUE), 0.0);
+        assertEquals(500.0, week.getCumulativeVolume(Long.MAX_VALUE), 1e-8);
+    }
+
+    @Test
+    public void clocksGoingForwardTest() {
+        CurveData day = allDayCurve();
+        LocalDate date = LocalDate.parse("2024-03-10");
+        EpochCurve curve = EpochCurve.Of(day, date, NEW_YORK);
+
+        assertEquals(day.numberBuckets(), curve.numberBuckets());
+        assertEquals(100.0, curve.getTotalVolume(), 1e-8);
+        assertEquals(Duration.ofHours(22).plusMinutes(55), Duration.between(curve.getStartTime(0),
+                curve.getEndTime(curve.numberBuckets() - 1)));
+
+        // the buckets from 02:00 until 03:00 do not exist, so keep their volume at 03:00
+        Instant change = Instant.parse("2024-03-10T07:00:00Z");
+        assertEquals(change, curve.getStartTime(24));
+        assertEquals(change, curve.getEndTime(35));
+        assertEquals(change, curve.getStartTime(36));
+        assertEquals(day.getVolume(LocalTime.parse("01:00"), LocalTime.parse("03:00")),
+                curve.getVolume(change.minusSeconds(3600), change.plusNanos(1)), 1e-10);
+    }
+
+    @Test
+    public void clocksGoingBackTest() {
+        CurveData day = allDayCurve();
+        LocalDate date = LocalDate.parse("2024-11-03");
+        EpochCurve curve = EpochCurve.Of(day, date, NEW_YORK);
+
+        assertEquals(100.0, curve.getTotalVolume(), 1e-8);
+        // the hour from 01:00 is repeated, and the buckets are placed on its first occurrence
+        assertEquals(Instant.parse("2024-11-03T06:00:00Z"), curve.getEndTime(23));
+        assertEquals(Instant.parse("2024-11-03T07:00:00Z"), curve.getStartTime(24));
+        assertEquals(0.0, curve.getVolume(Instant.parse("2024-11-03T06:00:00Z"),
+                Instant.parse("2024-11-03T07:00:00Z")), 0.0);
+        for (int index = 0; index < curve.numberBuckets(); index++) {
+            assertEquals(Duration.ofMinutes(5),
+                    Duration.between(curve.getStartTime(index), curve.getEndTime(index)));
+        }
+    }
+
+    @Test
+    public void weekCurveOverClockChangeTest() {
+        CurveData day = allDayCurve();
+        SortedMap<LocalDate, Curve> days = new TreeMap<>();
+        for (int index = 0; index < 7; index++) {
+            days.put(LocalDate.parse("2024-03-07").plusDays(index), day);
+        }
+
+        EpochCurve week = EpochCurve.Of("ES", days, NEW_YORK);
+
+        assertEquals(7 * day.numberBuckets(), week.numberBuckets());
+        assertEquals(700.0, week.getTotalVolume(), 1e-8);
+    }
+
+    @Test
+    public void overlappingBucketsRejectedTest() {
+        EpochCurve.Builder builder = EpochCurve.Builder.Of("Test")
+                .addBucket(0, 100, 50, BucketType.CONT_TRADING);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.addBucket(50, 150, 50, BucketType.CONT_TRADING));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.addBucket(200, 150, 50, BucketType.CONT_TRADING));
+        assertEquals(1, builder.build().numberBuckets());
+    }
+
+    private static CurveData allDayCurve() {
+        return CurveGenerator.Of().addSession(BucketType.CONT_TRADING, LocalTime.MIN,
+                LocalTime.parse("23:55"), 100, Duration.ofMinutes(5)).generate("ES");
+    }
+
+    private static Instant instant(LocalDate date, LocalTime time) {
+        return LocalDateTime.of(date, time).atZone(HONG_KONG).toInstant();
+    }
+}
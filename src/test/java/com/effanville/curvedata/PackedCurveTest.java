@@ -0,0 +1,82 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import java.time.LocalTime;
+import org.junit.Test;
+
+public class PackedCurveTest {
+    @Test
+    public void packedCurveMatchesCurveDataTest() {
+        CurveData curve = readSampleCurve();
+        PackedCurve packed = PackedCurve.Of(curve);
+
+        assertEquals("Generic HK", packed.getSymbol());
+        assertEquals(curve.numberBuckets(), packed.numberBuckets());
+        assertEquals(true, packed.isValid());
+        for (int second = 0; second < 86_400; second += 97) {
+            LocalTime time = LocalTime.ofSecondOfDay(second);
+            assertEquals(curve.getVolume(LocalTime.MIN, time),
+                    packed.getVolume(LocalTime.MIN, time), 0.0);
+            assertEquals(curve.getRelativeVolume(LocalTime.parse("09:00"),
+                    LocalTime.parse("16:10"), time),
+                    packed.getRelativeVolume(LocalTime.parse("09:00"), LocalTime.parse("16:10"),
+                            time),
+                    0.0);
+        }
+    }
+
+    @Test
+    public void packedCurveCumulativeVolumesMatchCurveDataTest() {
+        CurveData curve = readSampleCurve();
+        PackedCurve packed = PackedCurve.Of(curve);
+        int[] secondsOfDay = new int[86_400 / 60];
+        for (int index = 0; index < secondsOfDay.length; index++) {
+            secondsOfDay[index] = index * 60;
+        }
+
+        double[] expected = new double[secondsOfDay.length];
+        double[] volumes = new double[secondsOfDay.length];
+        curve.getCumulativeVolumes(secondsOfDay, expected);
+        packed.getCumulativeVolumes(secondsOfDay, volumes);
+        for (int index = 0; index < secondsOfDay.length; index++) {
+            LocalTime time = LocalTime.ofSecondOfDay(secondsOfDay[index]);
+            assertEquals(curve.getVolume(LocalTime.MIN, time), expected[index], 0.0);
+            assertEquals(expected[index], volumes[index], 0.0);
+        }
+    }
+
+    @Test
+    public void packedCurveRoundTripsTest() {
+        CurveData curve = readSampleCurve();
+        CurveData unpacked = PackedCurve.Of(curve).toCurveData();
+
+        assertEquals(curve.numberBuckets(), unpacked.numberBuckets());
+        for (int index = 0; index < curve.numberBuckets(); index++) {
+            assertEquals(curve.getBuckets().get(index).toString(),
+                    unpacked.getBuckets().get(index).toString());
+        }
+    }
+
+    @Test
+    public void overlappingPackedCurveIsNotValidTest() {
+        CurveData curve = CurveData.Builder.Of("1 HK")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:10"), 50,
+                        BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:05"), LocalTime.parse("09:15"), 50,
+                        BucketType.CONT_TRADING))
+                .build();
+        PackedCurve packed = PackedCurve.Of(curve);
+
+        assertEquals(false, packed.isValid());
+        assertEquals(curve.getVolume(LocalTime.parse("09:02"), LocalTime.parse("09:12")),
+                packed.getVolume(LocalTime.parse("09:02"), LocalTime.parse("09:12")), 0.0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void packedCurveIsImmutableTest() {
+        PackedCurve packed = PackedCurve.Of(readSampleCurve());
+        packed.addBucket(CurveBucket.Of(LocalTime.parse("23:59"), LocalTime.parse("23:59"), 0,
+                BucketType.MARKET_CLOSED));
+    }
+}
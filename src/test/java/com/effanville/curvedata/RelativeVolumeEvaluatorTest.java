@@ -0,0 +1,84 @@
+package com.effanville.curvedata;
+
+import static com.effanville.curvedata.TestCurves.readSampleCurve;
+import static org.junit.Assert.assertEquals;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class RelativeVolumeEvaluatorTest {
+    @Test
+    public void forwardTicksMatchCurveTest() {
+        CurveData sample = readSampleCurve();
+        for (Curve curve : List.of(sample, PackedCurve.Of(sample), subSecondCurve(),
+                overlappingCurve())) {
+            LocalTime start = LocalTime.parse("09:17:30");
+            LocalTime end = LocalTime.parse("15:02:10.5");
+            RelativeVolumeEvaluator evaluator = RelativeVolumeEvaluator.Of(curve, start, end);
+
+            assertEquals(curve.getVolume(start, end), evaluator.getWindowVolume(), 0.0);
+            for (long nanos = start.toNanoOfDay() - 60_000_000_000L;
+                    nanos < end.toNanoOfDay() + 60_000_000_000L; nanos += 777_777_777L) {
+                LocalTime time = LocalTime.ofNanoOfDay(nanos);
+                assertEquals(curve.getRelativeVolume(start, end, time),
+                        evaluator.relativeVolumeAt(time), 0.0);
+            }
+            assertEquals(100.0, evaluator.relativeVolumeAt(end), 1e-12);
+        }
+    }
+
+    @Test
+    public void randomTicksMatchCurveTest() {
+        Curve curve = CurveGenerator.hongKong(Duration.ofSeconds(10)).withVariation(0.4, 9)
+                .generate("1 HK");
+        LocalTime start = LocalTime.parse("10:00");
+        LocalTime end = LocalTime.parse("16:10");
+        RelativeVolumeEvaluator evaluator = RelativeVolumeEvaluator.Of(curve, start, end);
+
+        Random random = new Random(3);
+        for (int index = 0; index < 2000; index++) {
+            LocalTime time = LocalTime.ofSecondOfDay(9 * 3600 + random.nextInt(8 * 3600));
+            assertEquals(curve.getRelativeVolume(start, end, time),
+                    evaluator.relativeVolumeAt(time), 0.0);
+        }
+    }
+
+    @Test
+    public void windowOutsideCurveTest() {
+        CurveData sample = readSampleCurve();
+        RelativeVolumeEvaluator reversed = RelativeVolumeEvaluator.Of(sample,
+                LocalTime.parse("12:00"), LocalTime.parse("10:00"));
+        assertEquals(0.0, reversed.relativeVolumeAt(LocalTime.parse("11:00")), 0.0);
+
+        Curve morning = CurveData.Builder.Of("Morning")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("12:00"), 100,
+                        BucketType.CONT_TRADING))
+                .build();
+        RelativeVolumeEvaluator afternoon = RelativeVolumeEvaluator.Of(morning,
+                LocalTime.parse("13:00"), LocalTime.parse("16:00"));
+        assertEquals(0.0, afternoon.relativeVolumeAt(LocalTime.parse("14:00")), 0.0);
+        assertEquals(0.0, afternoon.getWindowVolume(), 0.0);
+    }
+
+    private static Curve subSecondCurve() {
+        return CurveData.Builder.Of("Sub second")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("09:30:00.5"),
+                        10, BucketType.OPEN_AUCTION))
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:30:00.5"), LocalTime.parse("12:00"),
+                        40, BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("13:00"), LocalTime.parse("16:00"), 50,
+                        BucketType.CONT_TRADING))
+                .build();
+    }
+
+    private static Curve overlappingCurve() {
+        return CurveData.Builder.Of("Overlapping")
+                .addBucket(CurveBucket.Of(LocalTime.parse("09:00"), LocalTime.parse("12:00"), 40,
+                        BucketType.CONT_TRADING))
+                .addBucket(CurveBucket.Of(LocalTime.parse("11:00"), LocalTime.parse("16:00"), 60,
+                        BucketType.CONT_TRADING))
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.effanville.curvedata;
+
+import com.effanville.curvedata.IO.CurveCsvReader;
+
+/**
+ * The sample curve shared by the tests, a generic Hong Kong curve of 5 minute buckets.
+ */
+final class TestCurves {
+    static final String SAMPLE_CURVE_FILE = "src/test/resources/curves/generic-hk-curve.csv";
+
+    private TestCurves() {
+    }
+
+    static CurveData readSampleCurve() {
+        return readSampleCurve(null);
+    }
+
+    /**
+     * Reads the sample curve, recording the read into the metrics if given.
+     */
+    static CurveData readSampleCurve(CurveMetrics metrics) {
+        CurveCsvReader reader = new CurveCsvReader(metrics);
+        return (CurveData) reader.readCurve("Generic HK", SAMPLE_CURVE_FILE);
+    }
+}